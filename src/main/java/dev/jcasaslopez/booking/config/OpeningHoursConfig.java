@@ -1,5 +1,6 @@
 package dev.jcasaslopez.booking.config;
 
+import java.time.Duration;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -7,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
 import dev.jcasaslopez.booking.model.WeeklySchedule;
@@ -33,6 +35,9 @@ public class OpeningHoursConfig {
     @Value("${opening-times.saturday}") private String saturdayHours; 
     @Value("${opening-times.sunday}") private String sundayHours;
     
+    @Value("${users.service.connect-timeout-ms}") private long usersServiceConnectTimeoutMs;
+    @Value("${users.service.read-timeout-ms}") private long usersServiceReadTimeoutMs;
+    
     private List<String> weeklyHours;
 
     @PostConstruct
@@ -50,9 +55,15 @@ public class OpeningHoursConfig {
         return new WeeklySchedule(weeklyHours);
     }
     
+    // Sin timeouts, un servicio de usuarios lento dejaría bloqueados los hilos que lo llaman.
+    //
+    // Without timeouts, a slow user service would leave the threads calling it blocked.
     @Bean
     RestClient getClient() {
-    	return RestClient.create();
+    	SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    	requestFactory.setConnectTimeout(Duration.ofMillis(usersServiceConnectTimeoutMs));
+    	requestFactory.setReadTimeout(Duration.ofMillis(usersServiceReadTimeoutMs));
+    	return RestClient.builder().requestFactory(requestFactory).build();
     }
        
 }
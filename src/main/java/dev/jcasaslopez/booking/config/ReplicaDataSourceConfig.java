@@ -0,0 +1,83 @@
+package dev.jcasaslopez.booking.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import dev.jcasaslopez.booking.datasource.ReplicaLagMonitor;
+import dev.jcasaslopez.booking.datasource.ReplicaRoutingDataSource;
+
+// Solo se activa con "replica.enabled=true". Las transacciones @Transactional(readOnly = true) 
+// que se abren fuera de otra transacción (búsquedas y calendarios) se envían a la réplica; 
+// el resto, incluidas las lecturas dentro de book() y cancel(), van a la base de datos principal.
+// LazyConnectionDataSourceProxy retrasa la obtención de la conexión hasta la primera sentencia, 
+// cuando ya se sabe si la transacción es de solo lectura.
+//
+// Only enabled with "replica.enabled=true". @Transactional(readOnly = true) transactions that are
+// opened outside another transaction (searches and calendars) are sent to the replica; 
+// everything else, including the reads inside book() and cancel(), goes to the primary database.
+// LazyConnectionDataSourceProxy delays getting the connection until the first statement, 
+// when it is already known whether the transaction is read-only.
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSourceConfig.class);
+	
+	@Value("${replica.datasource.url}") private String replicaUrl;
+	@Value("${replica.datasource.username}") private String replicaUsername;
+	@Value("${replica.datasource.password}") private String replicaPassword;
+	@Value("${replica.max-lag-ms}") private long maxLagMs;
+
+	@Bean
+	DataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+		return dataSourceProperties.initializeDataSourceBuilder()
+				.type(HikariDataSource.class)
+				.build();
+	}
+	
+	@Bean
+	DataSource replicaDataSource() {
+		HikariDataSource replicaDataSource = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.url(replicaUrl)
+				.username(replicaUsername)
+				.password(replicaPassword)
+				.build();
+		replicaDataSource.setPoolName("replica-pool");
+		replicaDataSource.setReadOnly(true);
+		return replicaDataSource;
+	}
+	
+	@Bean
+	ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+			@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+		return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, Duration.ofMillis(maxLagMs));
+	}
+	
+	@Bean
+	@Primary
+	DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+			@Qualifier("replicaDataSource") DataSource replicaDataSource, ReplicaLagMonitor replicaLagMonitor) {
+		logger.info("Read replica enabled: read-only transactions will be routed to {}", replicaUrl);
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+		dataSource.setReadOnlyDataSource(
+				new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor));
+		return dataSource;
+	}
+	
+}
@@ -0,0 +1,68 @@
+package dev.jcasaslopez.booking.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import dev.jcasaslopez.booking.dto.StandardResponse;
+import dev.jcasaslopez.booking.dto.UtilizationDto;
+import dev.jcasaslopez.booking.entity.DailyOccupancy;
+import dev.jcasaslopez.booking.enums.UtilizationGranularity;
+import dev.jcasaslopez.booking.service.AnalyticsService;
+import dev.jcasaslopez.booking.service.DailyOccupancyService;
+
+@RestController
+public class AnalyticsController {
+	
+	private AnalyticsService analyticsService;
+	private DailyOccupancyService dailyOccupancyService;
+
+	public AnalyticsController(AnalyticsService analyticsService, DailyOccupancyService dailyOccupancyService) {
+		this.analyticsService = analyticsService;
+		this.dailyOccupancyService = dailyOccupancyService;
+	}
+	
+	// Las filas de utilización se devuelven en "details".
+	//
+	// The utilization rows are returned in "details".
+	@GetMapping(value="analytics/utilization")
+	public ResponseEntity<StandardResponse> utilization(LocalDate from, LocalDate to,
+			@RequestParam(defaultValue = "DAY") UtilizationGranularity granularity){
+		List<UtilizationDto> utilization = analyticsService.utilizationByClassroom(from, to, granularity);
+		StandardResponse response = new StandardResponse (LocalDateTime.now(), 
+				utilization.size() + " classroom utilization rows by " + granularity + " retrieved successfully", 
+				utilization, HttpStatus.OK);
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	// "month" con formato yyyy-MM, por ejemplo 2025-03. El resumen de cada día con reservas se 
+	// devuelve en "details".
+	//
+	// "month" in yyyy-MM format, for example 2025-03. The summary of each day with bookings is 
+	// returned in "details".
+	@GetMapping(value="analytics/monthlyOccupancy")
+	public ResponseEntity<StandardResponse> monthlyOccupancy(int idClassroom, YearMonth month){
+		List<DailyOccupancy> occupancy = dailyOccupancyService.occupancyByClassroomAndMonth(idClassroom, month);
+		StandardResponse response = new StandardResponse (LocalDateTime.now(), 
+				"Occupancy of classroom " + idClassroom + " for " + month + " retrieved successfully", 
+				occupancy, HttpStatus.OK);
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+	
+	@PostMapping(value="admin/occupancy/rebuild")
+	public ResponseEntity<StandardResponse> rebuildOccupancy(LocalDate from, LocalDate to){
+		dailyOccupancyService.rebuild(from, to);
+		StandardResponse response = new StandardResponse (LocalDateTime.now(), 
+				"Daily occupancy rebuilt from " + from + " to " + to, null, HttpStatus.OK);
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+}
@@ -12,7 +12,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import dev.jcasaslopez.booking.dto.BookingDto;
+import dev.jcasaslopez.booking.dto.CursorPageDto;
 import dev.jcasaslopez.booking.dto.StandardResponse;
+import dev.jcasaslopez.booking.entity.Booking;
 import dev.jcasaslopez.booking.enums.BookingStatus;
 import dev.jcasaslopez.booking.service.BookingService;
 import jakarta.validation.Valid;
@@ -42,11 +44,16 @@ public class BookingController {
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
 	
+	// "cursor" y "pageSize" son opcionales. La página se devuelve en "details": "items" y 
+	// "nextCursor", el cursor de la página siguiente (null si es la última página).
+	//
+	// "cursor" and "pageSize" are optional. The page is returned in "details": "items" and 
+	// "nextCursor", the cursor of the next page (null if it is the last page).
 	@GetMapping(value="/bookings/bookingsByUser")
-	public ResponseEntity<StandardResponse> bookingsByUser(int idUser){
-		bookingService.bookingsByUser(idUser);
+	public ResponseEntity<StandardResponse> bookingsByUser(int idUser, String cursor, Integer pageSize){
+		CursorPageDto<Booking> page = bookingService.bookingsByUser(idUser, cursor, pageSize);
 		StandardResponse response = new StandardResponse (LocalDateTime.now(), 
-				"List of bookings by user retrieved successfully", null, HttpStatus.OK);
+				"List of bookings by user retrieved successfully", page, HttpStatus.OK);
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
 	
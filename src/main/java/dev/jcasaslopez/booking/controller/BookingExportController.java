@@ -0,0 +1,47 @@
+package dev.jcasaslopez.booking.controller;
+
+import java.time.LocalDateTime;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import dev.jcasaslopez.booking.enums.BookingFileFormat;
+import dev.jcasaslopez.booking.service.BookingExportService;
+
+@RestController
+public class BookingExportController {
+	
+	private BookingExportService bookingExportService;
+
+	public BookingExportController(BookingExportService bookingExportService) {
+		this.bookingExportService = bookingExportService;
+	}
+	
+	// La exportación se ejecuta dentro del StreamingResponseBody, es decir, en el hilo asíncrono
+	// que escribe la respuesta, así que la transacción y el cursor de la base de datos se abren
+	// allí y se mantienen abiertos solo mientras se envían las filas.
+	//
+	// The export runs inside the StreamingResponseBody, that is, on the async thread that writes
+	// the response, so the transaction and the database cursor are opened there and kept open
+	// only while rows are being sent.
+	@GetMapping(value="admin/bookings/export")
+	public ResponseEntity<StreamingResponseBody> exportBookings(LocalDateTime start, LocalDateTime finish,
+			@RequestParam(defaultValue = "CSV") BookingFileFormat format){
+		StreamingResponseBody body = outputStream -> 
+			bookingExportService.exportBookings(start, finish, format, outputStream);
+		MediaType mediaType = format == BookingFileFormat.CSV ? 
+				new MediaType("text", "csv") : new MediaType("application", "x-ndjson");
+		String fileName = "bookings." + format.name().toLowerCase();
+		return ResponseEntity.status(HttpStatus.OK)
+				.contentType(mediaType)
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+				.body(body);
+	}
+
+}
@@ -0,0 +1,47 @@
+package dev.jcasaslopez.booking.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import dev.jcasaslopez.booking.dto.BookingImportRejectionDto;
+import dev.jcasaslopez.booking.dto.BookingImportReportDto;
+import dev.jcasaslopez.booking.dto.StandardResponse;
+import dev.jcasaslopez.booking.enums.BookingFileFormat;
+import dev.jcasaslopez.booking.service.BookingImportService;
+
+@RestController
+public class BookingImportController {
+	
+	private BookingImportService bookingImportService;
+
+	public BookingImportController(BookingImportService bookingImportService) {
+		this.bookingImportService = bookingImportService;
+	}
+	
+	// El cuerpo de la petición es el fichero (CSV con cabecera o NDJSON). Las filas rechazadas y
+	// su motivo se devuelven en "details".
+	//
+	// The request body is the file (CSV with a header or NDJSON). Rejected rows and the reason
+	// are returned in "details".
+	@PostMapping(value="admin/bookings/import")
+	public ResponseEntity<StandardResponse> importBookings(InputStream inputStream,
+			@RequestParam(defaultValue = "CSV") BookingFileFormat format) throws IOException{
+		BookingImportReportDto report = bookingImportService.importBookings(inputStream, format);
+		String details = report.getRejections().isEmpty() ? null : report.getRejections().stream()
+				.map(BookingImportRejectionDto::toString)
+				.collect(Collectors.joining("; "));
+		StandardResponse response = new StandardResponse (LocalDateTime.now(), 
+				report.getImportedBookings() + " bookings imported, " + report.getRejections().size() 
+				+ " rows rejected", details, HttpStatus.CREATED);
+		return ResponseEntity.status(HttpStatus.CREATED).body(response);
+	}
+
+}
@@ -0,0 +1,33 @@
+package dev.jcasaslopez.booking.controller;
+
+import java.time.LocalDateTime;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import dev.jcasaslopez.booking.dto.StandardResponse;
+import dev.jcasaslopez.booking.service.NotificationOutboxService;
+
+@RestController
+public class NotificationAdminController {
+	
+	private NotificationOutboxService notificationOutboxService;
+
+	public NotificationAdminController(NotificationOutboxService notificationOutboxService) {
+		this.notificationOutboxService = notificationOutboxService;
+	}
+	
+	// Vuelve a poner en cola las notificaciones que agotaron sus intentos de entrega.
+	//
+	// Queues again the notifications that ran out of delivery attempts.
+	@PostMapping(value="admin/notifications/deadLetters/replay")
+	public ResponseEntity<StandardResponse> replayDeadLetters(){
+		int replayed = notificationOutboxService.replayDeadLetters();
+		StandardResponse response = new StandardResponse (LocalDateTime.now(), 
+				replayed + " notifications queued again", null, HttpStatus.OK);
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+}
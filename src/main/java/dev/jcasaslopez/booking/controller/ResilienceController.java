@@ -0,0 +1,47 @@
+package dev.jcasaslopez.booking.controller;
+
+import java.time.LocalDateTime;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import dev.jcasaslopez.booking.dto.StandardResponse;
+import dev.jcasaslopez.booking.filter.TokenValidationCache;
+import dev.jcasaslopez.booking.resilience.UsersServiceGuard;
+
+@RestController
+public class ResilienceController {
+	
+	private UsersServiceGuard usersServiceGuard;
+	private TokenValidationCache tokenValidationCache;
+
+	public ResilienceController(UsersServiceGuard usersServiceGuard, TokenValidationCache tokenValidationCache) {
+		this.usersServiceGuard = usersServiceGuard;
+		this.tokenValidationCache = tokenValidationCache;
+	}
+	
+	// El estado del circuit breaker y los contadores de los bulkheads se devuelven en "details".
+	//
+	// The circuit breaker state and the bulkhead counters are returned in "details".
+	@GetMapping(value="admin/usersService/resilience")
+	public ResponseEntity<StandardResponse> usersServiceResilience(){
+		StandardResponse response = new StandardResponse (LocalDateTime.now(), 
+				"User service resilience status retrieved successfully", usersServiceGuard.status(), 
+				HttpStatus.OK);
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+	
+	// Tamaño, aciertos, fallos, tasa de aciertos y desalojos de la caché de tokens en "details".
+	//
+	// Size, hits, misses, hit rate and evictions of the token cache in "details".
+	@GetMapping(value="admin/usersService/tokenCache")
+	public ResponseEntity<StandardResponse> tokenCacheStats(){
+		StandardResponse response = new StandardResponse (LocalDateTime.now(), 
+				"Token cache statistics retrieved successfully", tokenValidationCache.stats(), 
+				HttpStatus.OK);
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+}
@@ -1,22 +1,29 @@
 package dev.jcasaslopez.booking.controller;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import dev.jcasaslopez.booking.dto.StandardResponse;
+import dev.jcasaslopez.booking.service.AvailabilityStreamService;
 import dev.jcasaslopez.booking.service.SearchService;
 
 @RestController
 public class SearchController {
 	
 	private SearchService searchService;
+	private AvailabilityStreamService availabilityStreamService;
 	
-	public SearchController(SearchService searchService) {
+	public SearchController(SearchService searchService, AvailabilityStreamService availabilityStreamService) {
 		this.searchService = searchService;
+		this.availabilityStreamService = availabilityStreamService;
 	}
 
 	@GetMapping(value="search/availabilityCalendar")
@@ -38,5 +45,18 @@ public class SearchController {
 				null, HttpStatus.OK);
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
+	
+	// Alternativa a consultar los dos endpoints anteriores cada pocos segundos: la conexión se 
+	// mantiene abierta y recibe un evento "book" o "cancel" cada vez que cambia la disponibilidad
+	// de alguna de las aulas dentro del periodo (ver AvailabilityStreamServiceImpl).
+	//
+	// Alternative to polling the two endpoints above every few seconds: the connection is kept 
+	// open and receives a "book" or "cancel" event whenever the availability of any of the 
+	// classrooms changes within the period (see AvailabilityStreamServiceImpl).
+	@GetMapping(value="search/availabilityStream", produces=MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter availabilityStream(@RequestParam List<Integer> idClassrooms, LocalDateTime start, 
+			LocalDateTime finish){
+		return availabilityStreamService.subscribe(idClassrooms, start, finish);
+	}
 
 }
@@ -1,6 +1,7 @@
 package dev.jcasaslopez.booking.controller;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import dev.jcasaslopez.booking.dto.CursorPageDto;
 import dev.jcasaslopez.booking.dto.StandardResponse;
 import dev.jcasaslopez.booking.dto.WatchAlertDto;
 import dev.jcasaslopez.booking.service.WatchAlertService;
@@ -32,11 +34,29 @@ public class WatchAlertController {
 		return ResponseEntity.status(HttpStatus.CREATED).body(response);
 	}
 	
+	// Los períodos repetidos se guardan una sola vez (ver WatchAlertServiceImpl.addWatchAlerts()).
+	// "details" es el número de watch alerts resultantes.
+	//
+	// Repeated periods are stored only once (see WatchAlertServiceImpl.addWatchAlerts()).
+	// "details" is the number of resulting watch alerts.
+	@PostMapping(value="alerts/createAlerts", consumes=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<StandardResponse> createAlerts(@RequestBody List<WatchAlertDto> watchAlertDtos){
+		List<WatchAlertDto> watchAlerts = watchAlertService.addWatchAlerts(watchAlertDtos);
+		StandardResponse response = new StandardResponse (LocalDateTime.now(),
+				"Watch alerts created successfully", String.valueOf(watchAlerts.size()), HttpStatus.CREATED);
+		return ResponseEntity.status(HttpStatus.CREATED).body(response);
+	}
+
+	// "cursor" y "pageSize" son opcionales. La página se devuelve en "details": "items" y 
+	// "nextCursor", el cursor de la página siguiente (null si es la última página).
+	//
+	// "cursor" and "pageSize" are optional. The page is returned in "details": "items" and 
+	// "nextCursor", the cursor of the next page (null if it is the last page).
 	@GetMapping(value="alerts/alertsByUser")
-	public ResponseEntity<StandardResponse> alertsByUser(int idUser){
-		watchAlertService.watchAlertsListByUser(idUser);
+	public ResponseEntity<StandardResponse> alertsByUser(int idUser, String cursor, Integer pageSize){
+		CursorPageDto<WatchAlertDto> page = watchAlertService.watchAlertsListByUser(idUser, cursor, pageSize);
 		StandardResponse response = new StandardResponse (LocalDateTime.now(), 
-				"List of watch alerts by user retrieved successfully", null, HttpStatus.CREATED);
+				"List of watch alerts by user retrieved successfully", page, HttpStatus.CREATED);
 		return ResponseEntity.status(HttpStatus.CREATED).body(response);
 	}
 
@@ -0,0 +1,96 @@
+package dev.jcasaslopez.booking.datasource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import jakarta.annotation.PostConstruct;
+
+// Mide el retraso de la réplica con una tabla "heartbeat": cada cierto tiempo se escribe la hora
+// actual en la base de datos principal y se lee desde la réplica. La diferencia entre la hora
+// actual y la leída es el retraso de replicación. Si supera la tolerancia configurada (o la 
+// réplica no responde), las lecturas vuelven a la base de datos principal hasta que se recupere.
+//
+// Measures the replica lag with a "heartbeat" table: every so often, the current time is written
+// to the primary database and read back from the replica. The difference between the current
+// time and the one read is the replication lag. If it exceeds the configured tolerance (or the 
+// replica does not respond), reads go back to the primary database until it recovers.
+public class ReplicaLagMonitor {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+	
+	private static final int HEARTBEAT_ID = 1;
+	
+	private final JdbcTemplate primaryJdbcTemplate;
+	private final JdbcTemplate replicaJdbcTemplate;
+	private final Duration maxLag;
+	
+	// La réplica no se usa hasta que la primera comprobación confirma que está al día.
+	//
+	// The replica is not used until the first check confirms it is up to date.
+	private volatile boolean replicaUsable = false;
+
+	public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, Duration maxLag) {
+		this.primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+		this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+		this.maxLag = maxLag;
+	}
+	
+	@PostConstruct
+	public void createHeartbeatTable() {
+		primaryJdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat "
+				+ "(id INT PRIMARY KEY, beat TIMESTAMP NOT NULL)");
+	}
+
+	@Scheduled(fixedDelayString = "${replica.heartbeat-interval-ms}", 
+			initialDelayString = "${replica.heartbeat-interval-ms}")
+	public void heartbeat() {
+		writeHeartbeat();
+		checkReplicaLag();
+	}
+	
+	public void writeHeartbeat() {
+		try {
+			LocalDateTime now = LocalDateTime.now();
+			int updatedRows = primaryJdbcTemplate.update("UPDATE replication_heartbeat SET beat = ? WHERE id = ?", 
+					now, HEARTBEAT_ID);
+			if (updatedRows == 0) {
+				primaryJdbcTemplate.update("INSERT INTO replication_heartbeat (id, beat) VALUES (?, ?)", 
+						HEARTBEAT_ID, now);
+			}
+		} catch (Exception ex) {
+			logger.error("Could not write replication heartbeat to the primary database: {}", ex.getMessage());
+		}
+	}
+	
+	public void checkReplicaLag() {
+		try {
+			LocalDateTime lastBeat = replicaJdbcTemplate.queryForObject(
+					"SELECT beat FROM replication_heartbeat WHERE id = ?", LocalDateTime.class, HEARTBEAT_ID);
+			Duration lag = Duration.between(lastBeat, LocalDateTime.now());
+			boolean withinTolerance = lag.compareTo(maxLag) <= 0;
+			if (withinTolerance != replicaUsable) {
+				logger.warn("Replica lag is {} ms (tolerance {} ms). Routing read-only transactions to the {}", 
+						lag.toMillis(), maxLag.toMillis(), withinTolerance ? "replica" : "primary");
+			}
+			replicaUsable = withinTolerance;
+		} catch (Exception ex) {
+			if (replicaUsable) {
+				logger.error("Replica not available, routing read-only transactions to the primary: {}", 
+						ex.getMessage());
+			}
+			replicaUsable = false;
+		}
+	}
+
+	public boolean isReplicaUsable() {
+		return replicaUsable;
+	}
+	
+}
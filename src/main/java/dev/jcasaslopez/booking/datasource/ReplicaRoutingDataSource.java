@@ -0,0 +1,34 @@
+package dev.jcasaslopez.booking.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// DataSource que se usa para las transacciones de solo lectura: elige la réplica mientras su 
+// retraso esté dentro de la tolerancia, y la base de datos principal en caso contrario.
+//
+// DataSource used for read-only transactions: it picks the replica while its lag is within 
+// the tolerance, and the primary database otherwise.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+	
+	private static final String PRIMARY = "primary";
+	private static final String REPLICA = "replica";
+	
+	private final ReplicaLagMonitor replicaLagMonitor;
+
+	public ReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource,
+			ReplicaLagMonitor replicaLagMonitor) {
+		this.replicaLagMonitor = replicaLagMonitor;
+		setTargetDataSources(Map.of(PRIMARY, primaryDataSource, REPLICA, replicaDataSource));
+		setDefaultTargetDataSource(primaryDataSource);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return replicaLagMonitor.isReplicaUsable() ? REPLICA : PRIMARY;
+	}
+	
+}
@@ -0,0 +1,66 @@
+package dev.jcasaslopez.booking.dto;
+
+import java.time.LocalDateTime;
+
+// Cambio de disponibilidad que se envía a los suscriptores de AvailabilityStreamService: todos 
+// los slots del aula entre start y finish pasan a estar libres (available = true) u ocupados.
+//
+// Availability change sent to AvailabilityStreamService subscribers: every slot of the classroom
+// between start and finish becomes free (available = true) or taken.
+public class AvailabilityChangeDto {
+	
+	private int idClassroom;
+	private LocalDateTime start;
+	private LocalDateTime finish;
+	private boolean available;
+	
+	public AvailabilityChangeDto(int idClassroom, LocalDateTime start, LocalDateTime finish, boolean available) {
+		this.idClassroom = idClassroom;
+		this.start = start;
+		this.finish = finish;
+		this.available = available;
+	}
+
+	public AvailabilityChangeDto() {
+		super();
+	}
+
+	public int getIdClassroom() {
+		return idClassroom;
+	}
+
+	public void setIdClassroom(int idClassroom) {
+		this.idClassroom = idClassroom;
+	}
+
+	public LocalDateTime getStart() {
+		return start;
+	}
+
+	public void setStart(LocalDateTime start) {
+		this.start = start;
+	}
+
+	public LocalDateTime getFinish() {
+		return finish;
+	}
+
+	public void setFinish(LocalDateTime finish) {
+		this.finish = finish;
+	}
+
+	public boolean isAvailable() {
+		return available;
+	}
+
+	public void setAvailable(boolean available) {
+		this.available = available;
+	}
+
+	@Override
+	public String toString() {
+		return "AvailabilityChangeDto [idClassroom=" + idClassroom + ", start=" + start + ", finish=" + finish
+				+ ", available=" + available + "]";
+	}
+	
+}
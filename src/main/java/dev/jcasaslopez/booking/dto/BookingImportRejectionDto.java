@@ -0,0 +1,43 @@
+package dev.jcasaslopez.booking.dto;
+
+// Fila del fichero de importación que no se ha guardado, junto con el motivo. "row" empieza en 1
+// y no cuenta la cabecera del CSV.
+//
+// Row of the import file that has not been stored, along with the reason. "row" starts at 1 and 
+// does not count the CSV header.
+public class BookingImportRejectionDto {
+	
+	private int row;
+	private String reason;
+	
+	public BookingImportRejectionDto(int row, String reason) {
+		this.row = row;
+		this.reason = reason;
+	}
+
+	public BookingImportRejectionDto() {
+		super();
+	}
+
+	public int getRow() {
+		return row;
+	}
+
+	public void setRow(int row) {
+		this.row = row;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	public void setReason(String reason) {
+		this.reason = reason;
+	}
+
+	@Override
+	public String toString() {
+		return "row " + row + ": " + reason;
+	}
+	
+}
@@ -0,0 +1,38 @@
+package dev.jcasaslopez.booking.dto;
+
+import java.util.List;
+
+// Resultado de una importación de reservas: cuántas se han guardado y qué filas se han rechazado.
+//
+// Result of a bookings import: how many have been stored and which rows have been rejected.
+public class BookingImportReportDto {
+	
+	private int importedBookings;
+	private List<BookingImportRejectionDto> rejections;
+	
+	public BookingImportReportDto(int importedBookings, List<BookingImportRejectionDto> rejections) {
+		this.importedBookings = importedBookings;
+		this.rejections = rejections;
+	}
+
+	public BookingImportReportDto() {
+		super();
+	}
+
+	public int getImportedBookings() {
+		return importedBookings;
+	}
+
+	public void setImportedBookings(int importedBookings) {
+		this.importedBookings = importedBookings;
+	}
+
+	public List<BookingImportRejectionDto> getRejections() {
+		return rejections;
+	}
+
+	public void setRejections(List<BookingImportRejectionDto> rejections) {
+		this.rejections = rejections;
+	}
+	
+}
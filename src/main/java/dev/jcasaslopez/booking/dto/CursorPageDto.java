@@ -0,0 +1,40 @@
+package dev.jcasaslopez.booking.dto;
+
+import java.util.List;
+
+// Página de resultados obtenida por paginación keyset. "nextCursor" es null cuando no hay más
+// páginas; si no, se pasa tal cual en la siguiente petición para obtener la página siguiente.
+//
+// Page of results obtained through keyset pagination. "nextCursor" is null when there are no
+// more pages; otherwise, it is passed as-is in the next request to get the following page.
+public class CursorPageDto<T> {
+	
+	private List<T> items;
+	private String nextCursor;
+	
+	public CursorPageDto(List<T> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	public CursorPageDto() {
+		super();
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	public void setItems(List<T> items) {
+		this.items = items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+	
+}
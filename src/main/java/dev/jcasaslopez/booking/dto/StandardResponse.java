@@ -9,10 +9,12 @@ public class StandardResponse {
 //	   StandardResponse representa una manera unificada de representar respuestas HTTP
 //	   en este microservicio, ya sean respuestas satisfactorias como errores.
 //	   Esta clase incluye como atributos un timestamp, un mensaje, detalles y el estatus HTTP.
+//	   "details" puede ser un texto o los datos que devuelve el endpoint (una lista, una página...).
 
 //	   StandardResponse is a common structure for HTTP responses (both successful responses 
 //	   and errors) in the application, including a timestamp, a message, additional details, 
 //	   and the HTTP status, ensuring a unified response format throughout the API.
+//	   "details" can be a text or the data returned by the endpoint (a list, a page...).
 
 //	   Example usage:
 //	   return new ResponseEntity<>(new StandardResponse(
@@ -24,10 +26,10 @@ public class StandardResponse {
 
 	private LocalDateTime timestamp;
 	private String message;
-	private String details;
+	private Object details;
 	private HttpStatus status;
 	
-	public StandardResponse(LocalDateTime timestamp, String message, String details, HttpStatus status) {
+	public StandardResponse(LocalDateTime timestamp, String message, Object details, HttpStatus status) {
 		this.timestamp = timestamp;
 		this.message = message;
 		this.details = details;
@@ -54,11 +56,11 @@ public class StandardResponse {
 		this.message = message;
 	}
 
-	public String getDetails() {
+	public Object getDetails() {
 		return details;
 	}
 
-	public void setDetails(String details) {
+	public void setDetails(Object details) {
 		this.details = details;
 	}
 
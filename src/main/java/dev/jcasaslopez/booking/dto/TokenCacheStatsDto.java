@@ -0,0 +1,80 @@
+package dev.jcasaslopez.booking.dto;
+
+// Tamaño y contadores de la caché de validación de tokens (ver TokenValidationCache).
+//
+// Size and counters of the token validation cache (see TokenValidationCache).
+public class TokenCacheStatsDto {
+
+	private int size;
+	private int maxEntries;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	public TokenCacheStatsDto(int size, int maxEntries, long hits, long misses, long evictions) {
+		this.size = size;
+		this.maxEntries = maxEntries;
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+	}
+
+	public TokenCacheStatsDto() {
+		super();
+	}
+
+	// Proporción de búsquedas que encontraron el token en caché (0 si aún no ha habido ninguna).
+	//
+	// Share of lookups that found the token in the cache (0 if there has not been any yet).
+	public double getHitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public void setHits(long hits) {
+		this.hits = hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public void setMisses(long misses) {
+		this.misses = misses;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+
+	public void setEvictions(long evictions) {
+		this.evictions = evictions;
+	}
+
+	@Override
+	public String toString() {
+		return "TokenCacheStatsDto [size=" + size + ", maxEntries=" + maxEntries + ", hits=" + hits 
+				+ ", misses=" + misses + ", evictions=" + evictions + "]";
+	}
+
+}
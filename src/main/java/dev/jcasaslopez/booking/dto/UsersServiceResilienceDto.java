@@ -0,0 +1,100 @@
+package dev.jcasaslopez.booking.dto;
+
+import dev.jcasaslopez.booking.enums.CircuitState;
+
+// Estado del circuit breaker y de los bulkheads del servicio de usuarios (ver UsersServiceGuard).
+//
+// State of the user service's circuit breaker and bulkheads (see UsersServiceGuard).
+public class UsersServiceResilienceDto {
+	
+	private CircuitState circuitState;
+	private int consecutiveFailures;
+	private long callsRejectedByCircuitBreaker;
+	private int authenticationCallsInFlight;
+	private long authenticationCallsRejected;
+	private int notificationCallsInFlight;
+	private long notificationCallsRejected;
+	
+	public UsersServiceResilienceDto(CircuitState circuitState, int consecutiveFailures,
+			long callsRejectedByCircuitBreaker, int authenticationCallsInFlight, long authenticationCallsRejected,
+			int notificationCallsInFlight, long notificationCallsRejected) {
+		this.circuitState = circuitState;
+		this.consecutiveFailures = consecutiveFailures;
+		this.callsRejectedByCircuitBreaker = callsRejectedByCircuitBreaker;
+		this.authenticationCallsInFlight = authenticationCallsInFlight;
+		this.authenticationCallsRejected = authenticationCallsRejected;
+		this.notificationCallsInFlight = notificationCallsInFlight;
+		this.notificationCallsRejected = notificationCallsRejected;
+	}
+
+	public UsersServiceResilienceDto() {
+		super();
+	}
+
+	public CircuitState getCircuitState() {
+		return circuitState;
+	}
+
+	public void setCircuitState(CircuitState circuitState) {
+		this.circuitState = circuitState;
+	}
+
+	public int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+
+	public void setConsecutiveFailures(int consecutiveFailures) {
+		this.consecutiveFailures = consecutiveFailures;
+	}
+
+	public long getCallsRejectedByCircuitBreaker() {
+		return callsRejectedByCircuitBreaker;
+	}
+
+	public void setCallsRejectedByCircuitBreaker(long callsRejectedByCircuitBreaker) {
+		this.callsRejectedByCircuitBreaker = callsRejectedByCircuitBreaker;
+	}
+
+	public int getAuthenticationCallsInFlight() {
+		return authenticationCallsInFlight;
+	}
+
+	public void setAuthenticationCallsInFlight(int authenticationCallsInFlight) {
+		this.authenticationCallsInFlight = authenticationCallsInFlight;
+	}
+
+	public long getAuthenticationCallsRejected() {
+		return authenticationCallsRejected;
+	}
+
+	public void setAuthenticationCallsRejected(long authenticationCallsRejected) {
+		this.authenticationCallsRejected = authenticationCallsRejected;
+	}
+
+	public int getNotificationCallsInFlight() {
+		return notificationCallsInFlight;
+	}
+
+	public void setNotificationCallsInFlight(int notificationCallsInFlight) {
+		this.notificationCallsInFlight = notificationCallsInFlight;
+	}
+
+	public long getNotificationCallsRejected() {
+		return notificationCallsRejected;
+	}
+
+	public void setNotificationCallsRejected(long notificationCallsRejected) {
+		this.notificationCallsRejected = notificationCallsRejected;
+	}
+
+	@Override
+	public String toString() {
+		return "UsersServiceResilienceDto [circuitState=" + circuitState + ", consecutiveFailures=" 
+				+ consecutiveFailures + ", callsRejectedByCircuitBreaker=" + callsRejectedByCircuitBreaker 
+				+ ", authenticationCallsInFlight=" + authenticationCallsInFlight
+				+ ", authenticationCallsRejected=" + authenticationCallsRejected 
+				+ ", notificationCallsInFlight=" + notificationCallsInFlight 
+				+ ", notificationCallsRejected=" + notificationCallsRejected + "]";
+	}
+
+}
@@ -0,0 +1,70 @@
+package dev.jcasaslopez.booking.dto;
+
+import java.time.LocalDate;
+
+// Ocupación de un aula en un día o una semana. "periodStart" es el día, o el lunes de la semana.
+// "utilization" es bookedMinutes / openMinutes (0 si el aula no abre en ese período).
+//
+// Utilization of a classroom on a day or a week. "periodStart" is the day, or the Monday of the
+// week. "utilization" is bookedMinutes / openMinutes (0 if the classroom is not open in that period).
+public class UtilizationDto {
+	
+	private int idClassroom;
+	private LocalDate periodStart;
+	private long bookedMinutes;
+	private long openMinutes;
+	private double utilization;
+	
+	public UtilizationDto(int idClassroom, LocalDate periodStart, long bookedMinutes, long openMinutes) {
+		this.idClassroom = idClassroom;
+		this.periodStart = periodStart;
+		this.bookedMinutes = bookedMinutes;
+		this.openMinutes = openMinutes;
+		this.utilization = openMinutes > 0 ? (double) bookedMinutes / openMinutes : 0;
+	}
+
+	public UtilizationDto() {
+		super();
+	}
+
+	public int getIdClassroom() {
+		return idClassroom;
+	}
+
+	public void setIdClassroom(int idClassroom) {
+		this.idClassroom = idClassroom;
+	}
+
+	public LocalDate getPeriodStart() {
+		return periodStart;
+	}
+
+	public void setPeriodStart(LocalDate periodStart) {
+		this.periodStart = periodStart;
+	}
+
+	public long getBookedMinutes() {
+		return bookedMinutes;
+	}
+
+	public void setBookedMinutes(long bookedMinutes) {
+		this.bookedMinutes = bookedMinutes;
+	}
+
+	public long getOpenMinutes() {
+		return openMinutes;
+	}
+
+	public void setOpenMinutes(long openMinutes) {
+		this.openMinutes = openMinutes;
+	}
+
+	public double getUtilization() {
+		return utilization;
+	}
+
+	public void setUtilization(double utilization) {
+		this.utilization = utilization;
+	}
+	
+}
@@ -9,10 +9,27 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
+// Cada índice cubre los predicados de una consulta de BookingRepository:
+// - idx_bookings_classroom_status_period → findActiveBookingsForClassroomByPeriod.
+// - idx_bookings_status_period → findOccupiedClassroomsbyPeriod y markCompletedBookings.
+// - idx_bookings_user_start → findBookingsByUser y su versión paginada (incluye el ORDER BY start).
+// - idx_bookings_start → streamBookingsByPeriod (exportación).
+//
+// Each index covers the predicates of a BookingRepository query:
+// - idx_bookings_classroom_status_period → findActiveBookingsForClassroomByPeriod.
+// - idx_bookings_status_period → findOccupiedClassroomsbyPeriod and markCompletedBookings.
+// - idx_bookings_user_start → findBookingsByUser and its paginated version (including the ORDER BY start).
+// - idx_bookings_start → streamBookingsByPeriod (export).
 @Entity
-@Table(name="bookings")
+@Table(name="bookings", indexes = {
+		@Index(name = "idx_bookings_classroom_status_period", columnList = "idClassroom, status, start, finish"),
+		@Index(name = "idx_bookings_status_period", columnList = "status, start, finish"),
+		@Index(name = "idx_bookings_user_start", columnList = "idUser, start"),
+		@Index(name = "idx_bookings_start", columnList = "start")
+})
 public class Booking {
 	
 	@Id
@@ -0,0 +1,80 @@
+package dev.jcasaslopez.booking.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Copia local del catálogo de aulas (ver ClassroomSyncServiceImpl). El id es el del catálogo, así
+// que no se genera. Existe para que la búsqueda de aulas libres con unas características dadas 
+// se resuelva en una sola consulta (ver ClassroomRepository.findAvailableClassrooms()).
+//
+// Local copy of the classroom catalogue (see ClassroomSyncServiceImpl). The id is the catalogue 
+// one, so it is not generated. It exists so that searching for free classrooms with given 
+// features is resolved in a single query (see ClassroomRepository.findAvailableClassrooms()).
+@Entity
+@Table(name="classrooms", indexes = {
+		@Index(name = "idx_classrooms_seats", columnList = "seats")
+})
+public class Classroom {
+	
+	@Id
+	private int idClassroom;
+	private String name;
+	private int seats;
+	private boolean projector;
+	private boolean speakers;
+	
+	public Classroom(int idClassroom, String name, int seats, boolean projector, boolean speakers) {
+		this.idClassroom = idClassroom;
+		this.name = name;
+		this.seats = seats;
+		this.projector = projector;
+		this.speakers = speakers;
+	}
+
+	public Classroom() {
+		super();
+	}
+
+	public int getIdClassroom() {
+		return idClassroom;
+	}
+
+	public void setIdClassroom(int idClassroom) {
+		this.idClassroom = idClassroom;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getSeats() {
+		return seats;
+	}
+
+	public void setSeats(int seats) {
+		this.seats = seats;
+	}
+
+	public boolean isProjector() {
+		return projector;
+	}
+
+	public void setProjector(boolean projector) {
+		this.projector = projector;
+	}
+
+	public boolean isSpeakers() {
+		return speakers;
+	}
+
+	public void setSpeakers(boolean speakers) {
+		this.speakers = speakers;
+	}
+
+}
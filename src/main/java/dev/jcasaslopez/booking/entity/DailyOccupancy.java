@@ -0,0 +1,89 @@
+package dev.jcasaslopez.booking.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+// Resumen de la ocupación de un aula en un día, mantenido por DailyOccupancyService en la misma
+// transacción que crea, cancela o completa las reservas:
+// - bookedMinutes: minutos de reservas activas y completadas.
+// - completedMinutes: la parte de bookedMinutes que ya se ha completado.
+// - slotMask: un bit por franja de 30 minutos del día (bit 0 = 00:00-00:30, bit 18 = 9:00-9:30...),
+//   a 1 si la franja está reservada.
+//
+// Summary of a classroom's occupancy on a given day, maintained by DailyOccupancyService in the 
+// same transaction that creates, cancels or completes bookings:
+// - bookedMinutes: minutes of active and completed bookings.
+// - completedMinutes: the part of bookedMinutes that has already been completed.
+// - slotMask: one bit per 30-minute slot of the day (bit 0 = 00:00-00:30, bit 18 = 9:00-9:30...),
+//   set to 1 if the slot is booked.
+@Entity
+@Table(name="daily_occupancy")
+@IdClass(DailyOccupancyId.class)
+public class DailyOccupancy {
+	
+	@Id
+	private int idClassroom;
+	@Id
+	private LocalDate occupancyDate;
+	private int bookedMinutes;
+	private int completedMinutes;
+	private long slotMask;
+	
+	public DailyOccupancy(int idClassroom, LocalDate occupancyDate, int bookedMinutes, int completedMinutes,
+			long slotMask) {
+		this.idClassroom = idClassroom;
+		this.occupancyDate = occupancyDate;
+		this.bookedMinutes = bookedMinutes;
+		this.completedMinutes = completedMinutes;
+		this.slotMask = slotMask;
+	}
+
+	public DailyOccupancy() {
+		super();
+	}
+
+	public int getIdClassroom() {
+		return idClassroom;
+	}
+
+	public void setIdClassroom(int idClassroom) {
+		this.idClassroom = idClassroom;
+	}
+
+	public LocalDate getOccupancyDate() {
+		return occupancyDate;
+	}
+
+	public void setOccupancyDate(LocalDate occupancyDate) {
+		this.occupancyDate = occupancyDate;
+	}
+
+	public int getBookedMinutes() {
+		return bookedMinutes;
+	}
+
+	public void setBookedMinutes(int bookedMinutes) {
+		this.bookedMinutes = bookedMinutes;
+	}
+
+	public int getCompletedMinutes() {
+		return completedMinutes;
+	}
+
+	public void setCompletedMinutes(int completedMinutes) {
+		this.completedMinutes = completedMinutes;
+	}
+
+	public long getSlotMask() {
+		return slotMask;
+	}
+
+	public void setSlotMask(long slotMask) {
+		this.slotMask = slotMask;
+	}
+
+}
@@ -0,0 +1,49 @@
+package dev.jcasaslopez.booking.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Clave compuesta de DailyOccupancy: un aula en un día.
+//
+// Composite key of DailyOccupancy: a classroom on a given day.
+public class DailyOccupancyId implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private int idClassroom;
+	private LocalDate occupancyDate;
+	
+	public DailyOccupancyId(int idClassroom, LocalDate occupancyDate) {
+		this.idClassroom = idClassroom;
+		this.occupancyDate = occupancyDate;
+	}
+
+	public DailyOccupancyId() {
+		super();
+	}
+
+	public int getIdClassroom() {
+		return idClassroom;
+	}
+
+	public LocalDate getOccupancyDate() {
+		return occupancyDate;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(idClassroom, occupancyDate);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		DailyOccupancyId other = (DailyOccupancyId) obj;
+		return idClassroom == other.idClassroom && Objects.equals(occupancyDate, other.occupancyDate);
+	}
+
+}
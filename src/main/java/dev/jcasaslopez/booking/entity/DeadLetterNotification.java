@@ -0,0 +1,125 @@
+package dev.jcasaslopez.booking.entity;
+
+import java.time.LocalDateTime;
+
+import dev.jcasaslopez.booking.enums.NotificationType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Notificación que ha agotado sus intentos de entrega. Se guarda para poder reenviarla más tarde 
+// (ver NotificationOutboxService.replayDeadLetters).
+//
+// Notification that has used up its delivery attempts. It is kept so that it can be sent again 
+// later (see NotificationOutboxService.replayDeadLetters).
+@Entity
+@Table(name="notification_dead_letters")
+public class DeadLetterNotification {
+	
+	@Id
+	@GeneratedValue(strategy=GenerationType.IDENTITY)
+	private long idDeadLetter;
+	@Enumerated(EnumType.STRING)
+	private NotificationType notificationType;
+	private int idUser;
+	private int idClassroom;
+	private LocalDateTime start;
+	private LocalDateTime finish;
+	private LocalDateTime createdAt;
+	private int attempts;
+	private LocalDateTime failedAt;
+	
+	public DeadLetterNotification(long idDeadLetter, NotificationType notificationType, int idUser, int idClassroom,
+			LocalDateTime start, LocalDateTime finish, LocalDateTime createdAt, int attempts, LocalDateTime failedAt) {
+		this.idDeadLetter = idDeadLetter;
+		this.notificationType = notificationType;
+		this.idUser = idUser;
+		this.idClassroom = idClassroom;
+		this.start = start;
+		this.finish = finish;
+		this.createdAt = createdAt;
+		this.attempts = attempts;
+		this.failedAt = failedAt;
+	}
+
+	public DeadLetterNotification() {
+		super();
+	}
+
+	public long getIdDeadLetter() {
+		return idDeadLetter;
+	}
+
+	public void setIdDeadLetter(long idDeadLetter) {
+		this.idDeadLetter = idDeadLetter;
+	}
+
+	public NotificationType getNotificationType() {
+		return notificationType;
+	}
+
+	public void setNotificationType(NotificationType notificationType) {
+		this.notificationType = notificationType;
+	}
+
+	public int getIdUser() {
+		return idUser;
+	}
+
+	public void setIdUser(int idUser) {
+		this.idUser = idUser;
+	}
+
+	public int getIdClassroom() {
+		return idClassroom;
+	}
+
+	public void setIdClassroom(int idClassroom) {
+		this.idClassroom = idClassroom;
+	}
+
+	public LocalDateTime getStart() {
+		return start;
+	}
+
+	public void setStart(LocalDateTime start) {
+		this.start = start;
+	}
+
+	public LocalDateTime getFinish() {
+		return finish;
+	}
+
+	public void setFinish(LocalDateTime finish) {
+		this.finish = finish;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public LocalDateTime getFailedAt() {
+		return failedAt;
+	}
+
+	public void setFailedAt(LocalDateTime failedAt) {
+		this.failedAt = failedAt;
+	}
+
+}
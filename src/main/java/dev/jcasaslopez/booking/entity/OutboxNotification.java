@@ -0,0 +1,135 @@
+package dev.jcasaslopez.booking.entity;
+
+import java.time.LocalDateTime;
+
+import dev.jcasaslopez.booking.enums.NotificationType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Notificación pendiente de enviar al servicio de usuarios. Se guarda en la misma transacción 
+// que la reserva o la cancelación que la origina (ver NotificationOutboxService) y se borra 
+// cuando se ha entregado. "attempts" cuenta los envíos fallidos y "nextAttemptAt" indica cuándo 
+// se puede volver a intentar (ver NotificationRetryPolicy).
+//
+// Notification waiting to be sent to the user service. It is stored in the same transaction as
+// the booking or cancellation that triggers it (see NotificationOutboxService) and deleted once 
+// it has been delivered. "attempts" counts the failed deliveries and "nextAttemptAt" says when it
+// can be tried again (see NotificationRetryPolicy).
+//
+// idx_notification_outbox_next_attempt → OutboxNotificationRepository.findPending.
+@Entity
+@Table(name="notification_outbox", indexes = {
+		@Index(name = "idx_notification_outbox_next_attempt", columnList = "nextAttemptAt, idNotification")
+})
+public class OutboxNotification {
+	
+	@Id
+	@GeneratedValue(strategy=GenerationType.IDENTITY)
+	private long idNotification;
+	@Enumerated(EnumType.STRING)
+	private NotificationType notificationType;
+	private int idUser;
+	private int idClassroom;
+	private LocalDateTime start;
+	private LocalDateTime finish;
+	private LocalDateTime createdAt;
+	private int attempts;
+	private LocalDateTime nextAttemptAt;
+	
+	public OutboxNotification(long idNotification, NotificationType notificationType, int idUser, int idClassroom,
+			LocalDateTime start, LocalDateTime finish, LocalDateTime createdAt, int attempts,
+			LocalDateTime nextAttemptAt) {
+		this.idNotification = idNotification;
+		this.notificationType = notificationType;
+		this.idUser = idUser;
+		this.idClassroom = idClassroom;
+		this.start = start;
+		this.finish = finish;
+		this.createdAt = createdAt;
+		this.attempts = attempts;
+		this.nextAttemptAt = nextAttemptAt;
+	}
+
+	public OutboxNotification() {
+		super();
+	}
+
+	public long getIdNotification() {
+		return idNotification;
+	}
+
+	public void setIdNotification(long idNotification) {
+		this.idNotification = idNotification;
+	}
+
+	public NotificationType getNotificationType() {
+		return notificationType;
+	}
+
+	public void setNotificationType(NotificationType notificationType) {
+		this.notificationType = notificationType;
+	}
+
+	public int getIdUser() {
+		return idUser;
+	}
+
+	public void setIdUser(int idUser) {
+		this.idUser = idUser;
+	}
+
+	public int getIdClassroom() {
+		return idClassroom;
+	}
+
+	public void setIdClassroom(int idClassroom) {
+		this.idClassroom = idClassroom;
+	}
+
+	public LocalDateTime getStart() {
+		return start;
+	}
+
+	public void setStart(LocalDateTime start) {
+		this.start = start;
+	}
+
+	public LocalDateTime getFinish() {
+		return finish;
+	}
+
+	public void setFinish(LocalDateTime finish) {
+		this.finish = finish;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public LocalDateTime getNextAttemptAt() {
+		return nextAttemptAt;
+	}
+
+	public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+		this.nextAttemptAt = nextAttemptAt;
+	}
+
+}
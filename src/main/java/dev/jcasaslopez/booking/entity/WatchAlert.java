@@ -6,10 +6,21 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
+// Cada índice cubre los predicados de una consulta de WatchAlertRepository:
+// - idx_watch_alerts_classroom_period → findWatchAlertsByTimePeriodAndClassroom.
+// - idx_watch_alerts_user_start → findWatchAlertsByUser y su versión paginada.
+//
+// Each index covers the predicates of a WatchAlertRepository query:
+// - idx_watch_alerts_classroom_period → findWatchAlertsByTimePeriodAndClassroom.
+// - idx_watch_alerts_user_start → findWatchAlertsByUser and its paginated version.
 @Entity
-@Table(name="watch_alerts")
+@Table(name="watch_alerts", indexes = {
+		@Index(name = "idx_watch_alerts_classroom_period", columnList = "idClassroom, start, finish"),
+		@Index(name = "idx_watch_alerts_user_start", columnList = "idUser, start")
+})
 public class WatchAlert {
 	
 	@Id
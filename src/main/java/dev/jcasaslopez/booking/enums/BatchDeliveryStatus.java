@@ -0,0 +1,12 @@
+package dev.jcasaslopez.booking.enums;
+
+// Resultado de enviar un lote de notificaciones: UNSUPPORTED indica que el servicio de usuarios 
+// no tiene el endpoint de envío por lotes.
+//
+// Result of sending a batch of notifications: UNSUPPORTED means that the user service does not 
+// have the batch endpoint.
+public enum BatchDeliveryStatus {
+	DELIVERED,
+	FAILED,
+	UNSUPPORTED
+}
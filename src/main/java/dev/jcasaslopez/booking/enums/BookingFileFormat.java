@@ -0,0 +1,11 @@
+package dev.jcasaslopez.booking.enums;
+
+public enum BookingFileFormat {
+	//  Valores separados por comas, con cabecera
+	//  Comma-separated values, with a header row
+	CSV,
+	
+	//	Un objeto JSON por línea
+	//	One JSON object per line
+	NDJSON
+}
@@ -0,0 +1,7 @@
+package dev.jcasaslopez.booking.enums;
+
+public enum CircuitState {
+	CLOSED,
+	OPEN,
+	HALF_OPEN
+}
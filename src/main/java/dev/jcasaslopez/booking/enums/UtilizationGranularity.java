@@ -0,0 +1,11 @@
+package dev.jcasaslopez.booking.enums;
+
+public enum UtilizationGranularity {
+	//  Una fila por aula y día
+	//  One row per classroom and day
+	DAY,
+	
+	//	Una fila por aula y semana (de lunes a domingo)
+	//	One row per classroom and week (Monday to Sunday)
+	WEEK
+}
@@ -0,0 +1,20 @@
+package dev.jcasaslopez.booking.event;
+
+import java.time.LocalDateTime;
+
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+
+// Se publica dentro de la transacción de cancel(), con los datos de la reserva cancelada y el 
+// estado en el que ha quedado.
+//
+// Published within the cancel() transaction, with the data of the cancelled booking and the 
+// status it has been left in.
+public record BookingCancelledEvent(long idBooking, int idClassroom, int idUser, LocalDateTime start, 
+		LocalDateTime finish, BookingStatus status) {
+	
+	public static BookingCancelledEvent of(Booking booking, BookingStatus status) {
+		return new BookingCancelledEvent(booking.getIdBooking(), booking.getIdClassroom(), booking.getIdUser(),
+				booking.getStart(), booking.getFinish(), status);
+	}
+}
@@ -0,0 +1,19 @@
+package dev.jcasaslopez.booking.event;
+
+import java.time.LocalDateTime;
+
+import dev.jcasaslopez.booking.entity.Booking;
+
+// Se publica dentro de la transacción de book(). Los listeners deciden en qué fase de la 
+// transacción lo procesan (ver BookingNotificationListener).
+//
+// Published within the book() transaction. Listeners decide in which transaction phase they
+// handle it (see BookingNotificationListener).
+public record BookingCreatedEvent(long idBooking, int idClassroom, int idUser, LocalDateTime start, 
+		LocalDateTime finish) {
+	
+	public static BookingCreatedEvent of(Booking booking) {
+		return new BookingCreatedEvent(booking.getIdBooking(), booking.getIdClassroom(), booking.getIdUser(),
+				booking.getStart(), booking.getFinish());
+	}
+}
@@ -0,0 +1,115 @@
+package dev.jcasaslopez.booking.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.jcasaslopez.booking.enums.NotificationType;
+import dev.jcasaslopez.booking.model.IndexedWatchAlert;
+import dev.jcasaslopez.booking.model.WatchAlertIndex;
+import dev.jcasaslopez.booking.service.NotificationOutboxService;
+import jakarta.annotation.PreDestroy;
+
+// Notificaciones que provocan las reservas y cancelaciones.
+// La confirmación de una reserva se guarda en el outbox justo antes del commit, de modo que se 
+// confirma o se deshace junto con la reserva: es una sola inserción y no alarga la transacción.
+// Los avisos de una cancelación, en cambio, requieren buscar los watch alerts afectados (ver 
+// WatchAlertIndex) y una inserción por cada uno, así que se preparan después del commit en 
+// booking.events.threads hilos propios, en una transacción aparte. Si el servicio se cae entre
+// el commit de la cancelación y esa transacción, los avisos de esa cancelación se pierden; la 
+// cancelación en sí no se ve afectada.
+//
+// Notifications caused by bookings and cancellations.
+// A booking confirmation is stored in the outbox right before commit, so that it commits or rolls
+// back together with the booking: it is a single insert and does not make the transaction longer.
+// Cancellation alerts, on the other hand, require looking up the affected watch alerts (see 
+// WatchAlertIndex) and one insert for each of them, so they are prepared after commit on 
+// booking.events.threads dedicated threads, in a separate transaction. If the service goes down
+// between the cancellation commit and that transaction, the alerts for that cancellation are 
+// lost; the cancellation itself is not affected.
+@Component
+public class BookingNotificationListener {
+	
+	private static final Logger logger = LoggerFactory.getLogger(BookingNotificationListener.class);
+	
+	private NotificationOutboxService notificationOutboxService;
+	private WatchAlertIndex watchAlertIndex;
+	private TransactionTemplate transactionTemplate;
+	private ExecutorService executor;
+	
+	public BookingNotificationListener(NotificationOutboxService notificationOutboxService, 
+			WatchAlertIndex watchAlertIndex, PlatformTransactionManager transactionManager,
+			@Value("${booking.events.threads}") int threads) {
+		this.notificationOutboxService = notificationOutboxService;
+		this.watchAlertIndex = watchAlertIndex;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "booking-events-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	@PreDestroy
+	public void stop() {
+		executor.shutdownNow();
+	}
+	
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void onBookingCreated(BookingCreatedEvent event) {
+		logger.info("Queueing booking confirmation notification to User ID= {}", event.idUser());
+		notificationOutboxService.enqueue(NotificationType.BOOK, event.idUser(), event.idClassroom(), 
+				event.start(), event.finish());
+	}
+	
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onBookingCancelled(BookingCancelledEvent event) {
+		executor.execute(() -> {
+			try {
+				transactionTemplate.executeWithoutResult(status -> notifyUsersAboutCancellation(event));
+			} catch (RuntimeException ex) {
+				logger.error("Watch alerts for cancelled booking ID {} could not be queued: {}", 
+						event.idBooking(), ex.getMessage());
+			}
+		});
+	}
+	
+	// Encuentra la lista de watch alerts que se ven afectados por la cancelación, y pone en cola la
+	// correspondiente notificación al usuario que creó el watch alert. Un watch alert se ve 
+	// afectado si se solapa con la reserva cancelada, aunque sea en parte; el aviso se refiere solo
+	// al tramo que ha quedado libre.
+	// 
+	// Find the list of watch alerts affected by the cancellation and queue the corresponding 
+	// notification to the user who created the watch alert. A watch alert is affected if it 
+	// overlaps with the cancelled booking, even partially; the notification only refers to the 
+	// part that has been freed.
+	public void notifyUsersAboutCancellation(BookingCancelledEvent event) {
+		List<IndexedWatchAlert> affectedWatchAlerts = watchAlertIndex.findOverlapping(event.idClassroom(), 
+				event.start(), event.finish());
+		
+		if (affectedWatchAlerts.isEmpty()) {
+		    logger.info("No watch alerts affected for cancelled booking ID: {}", event.idBooking());
+		} else {
+			logger.info("Queueing watch alert notifications for cancelled booking ID: {}", event.idBooking());
+		}
+		
+		for (IndexedWatchAlert w : affectedWatchAlerts) {
+			LocalDateTime freedStart = w.start().isAfter(event.start()) ? w.start() : event.start();
+			LocalDateTime freedFinish = w.finish().isBefore(event.finish()) ? w.finish() : event.finish();
+			notificationOutboxService.enqueue(NotificationType.WATCH_ALERT, w.idUser(), w.idClassroom(), 
+					freedStart, freedFinish);
+		}
+	}
+}
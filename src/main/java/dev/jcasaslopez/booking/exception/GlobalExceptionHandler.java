@@ -55,6 +55,41 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
 	}
 	
+	@ExceptionHandler(InvalidCursorException.class)
+	public ResponseEntity<StandardResponse> handleInvalidCursorException(InvalidCursorException ex){
+		StandardResponse response = new StandardResponse(LocalDateTime.now(), ex.getMessage(),
+				null, HttpStatus.BAD_REQUEST);
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+	}
+	
+	@ExceptionHandler(InvalidImportFileException.class)
+	public ResponseEntity<StandardResponse> handleInvalidImportFileException(InvalidImportFileException ex){
+		StandardResponse response = new StandardResponse(LocalDateTime.now(), ex.getMessage(),
+				null, HttpStatus.BAD_REQUEST);
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+	}
+	
+	@ExceptionHandler(InvalidPeriodException.class)
+	public ResponseEntity<StandardResponse> handleInvalidPeriodException(InvalidPeriodException ex){
+		StandardResponse response = new StandardResponse(LocalDateTime.now(), ex.getMessage(),
+				null, HttpStatus.BAD_REQUEST);
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+	}
+	
+	@ExceptionHandler(InvalidSubscriptionException.class)
+	public ResponseEntity<StandardResponse> handleInvalidSubscriptionException(InvalidSubscriptionException ex){
+		StandardResponse response = new StandardResponse(LocalDateTime.now(), ex.getMessage(),
+				null, HttpStatus.BAD_REQUEST);
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+	}
+	
+	@ExceptionHandler(InvalidWatchAlertException.class)
+	public ResponseEntity<StandardResponse> handleInvalidWatchAlertException(InvalidWatchAlertException ex){
+		StandardResponse response = new StandardResponse(LocalDateTime.now(), ex.getMessage(),
+				null, HttpStatus.BAD_REQUEST);
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+	}
+	
 	@ExceptionHandler(NoSuchBookingException.class)
 	public ResponseEntity<StandardResponse> handleNoSuchBookingException(NoSuchBookingException ex){
 		StandardResponse response = new StandardResponse(LocalDateTime.now(), ex.getMessage(),
@@ -0,0 +1,7 @@
+package dev.jcasaslopez.booking.exception;
+
+public class InvalidImportFileException extends RuntimeException {
+	public InvalidImportFileException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,7 @@
+package dev.jcasaslopez.booking.exception;
+
+public class InvalidPeriodException extends RuntimeException {
+	public InvalidPeriodException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,7 @@
+package dev.jcasaslopez.booking.exception;
+
+public class InvalidSubscriptionException extends RuntimeException {
+	public InvalidSubscriptionException(String message) {
+		super(message);
+	}
+}
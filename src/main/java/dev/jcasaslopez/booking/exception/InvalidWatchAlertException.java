@@ -0,0 +1,7 @@
+package dev.jcasaslopez.booking.exception;
+
+public class InvalidWatchAlertException extends RuntimeException {
+	public InvalidWatchAlertException(String message) {
+		super(message);
+	}
+}
@@ -4,12 +4,16 @@ import java.io.IOException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import dev.jcasaslopez.booking.enums.UserAuthenticationStatus;
 import dev.jcasaslopez.booking.exception.FailedAuthenticatedException;
+import dev.jcasaslopez.booking.exception.ServiceNotAvailableException;
+import dev.jcasaslopez.booking.resilience.SingleFlight;
+import dev.jcasaslopez.booking.resilience.UsersServiceGuard;
 import dev.jcasaslopez.booking.util.StandardResponseHandler;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,10 +27,22 @@ public class AuthenticationFilter extends OncePerRequestFilter {
 	
 	private final RestClient restClient;
 	private final StandardResponseHandler standardResponseHandler;
+	private final UsersServiceGuard usersServiceGuard;
+	private final TokenValidationCache tokenValidationCache;
+	private final SignedTokenVerifier signedTokenVerifier;
+	private final String authenticationUrl;
+	private final SingleFlight<String, UserAuthenticationStatus> authenticationCalls = new SingleFlight<>();
 
-	public AuthenticationFilter(RestClient restClient, StandardResponseHandler standardResponseHandler) {
+	public AuthenticationFilter(RestClient restClient, StandardResponseHandler standardResponseHandler,
+			UsersServiceGuard usersServiceGuard, TokenValidationCache tokenValidationCache,
+			SignedTokenVerifier signedTokenVerifier, 
+			@Value("${users.service.authentication-url}") String authenticationUrl) {
 		this.restClient = restClient;
 		this.standardResponseHandler = standardResponseHandler;
+		this.usersServiceGuard = usersServiceGuard;
+		this.tokenValidationCache = tokenValidationCache;
+		this.signedTokenVerifier = signedTokenVerifier;
+		this.authenticationUrl = authenticationUrl;
 	}
 
 	@Override
@@ -35,14 +51,16 @@ public class AuthenticationFilter extends OncePerRequestFilter {
 		
 		try {
 			logger.debug("Entering AuthenticationFilter...");
-			String baseUrl = "http://service-user/user/authenticateUser";
 			String urlRequested = request.getRequestURL().toString();
 			String token = request.getHeader("Authorization");
 			
-			// Los endpoints "availabilityCalendar" y "classroomsAvailable" son de libre acceso.
+			// Los endpoints "availabilityCalendar", "classroomsAvailable" y "availabilityStream" son de 
+			// libre acceso.
 			//
-			// The "availabilityCalendar" and "classroomsAvailable" endpoints are open access.
-			if(urlRequested.endsWith("availabilityCalendar") || urlRequested.endsWith("classroomsAvailable")) {
+			// The "availabilityCalendar", "classroomsAvailable" and "availabilityStream" endpoints are 
+			// open access.
+			if(urlRequested.endsWith("availabilityCalendar") || urlRequested.endsWith("classroomsAvailable")
+					|| urlRequested.endsWith("availabilityStream")) {
 				logger.info("Open access endpoints");
 				filterChain.doFilter(request, response);
 				return;
@@ -66,13 +84,7 @@ public class AuthenticationFilter extends OncePerRequestFilter {
 				throw new FailedAuthenticatedException("Invalid authentication token");
 			}
 
-			UserAuthenticationStatus userAuthenticationStatus = restClient
-					.get()
-					.uri(baseUrl)
-					.header("Authorization", token)
-					.retrieve()
-					.body(UserAuthenticationStatus.class);
-			logger.info("UserAuthenticationStatus received: {}", userAuthenticationStatus);
+			UserAuthenticationStatus userAuthenticationStatus = validateToken(token);
 			
 			switch (userAuthenticationStatus) {
 				case FAILED_AUTHENTICATION:
@@ -88,8 +100,53 @@ public class AuthenticationFilter extends OncePerRequestFilter {
 			}
 		} catch (FailedAuthenticatedException ex) {
 			standardResponseHandler.handleResponse(response, 401, ex.getMessage(), null);
+		} catch (ServiceNotAvailableException ex) {
+			logger.warn("Authentication rejected without calling the user service: {}", ex.getMessage());
+			standardResponseHandler.handleResponse(response, 503, ex.getMessage(), null);
 		} catch (IllegalStateException ex) {
 			standardResponseHandler.handleResponse(response, 500, ex.getMessage(), null);
 		}
 	}
+	
+	// Los tokens firmados se verifican en local (ver SignedTokenVerifier). Para los opacos solo se
+	// llama al servicio de usuarios si el token no está en TokenValidationCache, y las peticiones 
+	// simultáneas con el mismo token (una página que lanza varias llamadas a la vez) comparten una
+	// sola llamada gracias a SingleFlight. Las respuestas nulas no se guardan.
+	//
+	// Signed tokens are verified locally (see SignedTokenVerifier). For opaque ones the user 
+	// service is only called if the token is not in TokenValidationCache, and concurrent requests
+	// with the same token (a page firing several calls at once) share a single call thanks to 
+	// SingleFlight. Null responses are not cached.
+	private UserAuthenticationStatus validateToken(String token) {
+		UserAuthenticationStatus locallyVerifiedStatus = signedTokenVerifier.verify(token.substring("Bearer ".length()));
+		if (locallyVerifiedStatus != null) {
+			logger.debug("Signed token verified locally: {}", locallyVerifiedStatus);
+			return locallyVerifiedStatus;
+		}
+		UserAuthenticationStatus cachedStatus = tokenValidationCache.get(token);
+		if (cachedStatus != null) {
+			logger.debug("UserAuthenticationStatus found in cache: {}", cachedStatus);
+			return cachedStatus;
+		}
+		return authenticationCalls.execute(TokenValidationCache.keyOf(token), () -> {
+			UserAuthenticationStatus userAuthenticationStatus = usersServiceGuard.callForAuthentication(() -> restClient
+					.get()
+					.uri(authenticationUrl)
+					.header("Authorization", token)
+					.retrieve()
+					.body(UserAuthenticationStatus.class));
+			logger.info("UserAuthenticationStatus received: {}", userAuthenticationStatus);
+			if (userAuthenticationStatus != null) {
+				tokenValidationCache.put(token, userAuthenticationStatus);
+			}
+			return userAuthenticationStatus;
+		});
+	}
+	
+	// Validaciones que han reutilizado la llamada en curso de otra petición.
+	//
+	// Validations that have reused the in-flight call of another request.
+	public long getSharedAuthenticationCalls() {
+		return authenticationCalls.getSharedCalls();
+	}
 }
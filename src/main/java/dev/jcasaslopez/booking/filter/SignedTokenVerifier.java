@@ -0,0 +1,166 @@
+package dev.jcasaslopez.booking.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.jcasaslopez.booking.enums.UserAuthenticationStatus;
+
+// Verifica en local los tokens firmados (JWT con RS256) que emite el servicio de usuarios, sin
+// llamar a authenticateUser: comprueba la firma con las claves públicas configuradas, la
+// caducidad ("exp" y "nbf", con un margen de clockSkewSeconds) y el emisor ("iss").
+// verify() devuelve null si el token no tiene forma de JWT (un token opaco), y entonces
+// AuthenticationFilter lo valida en remoto como siempre. Un JWT que no pasa alguna comprobación
+// se rechaza sin llamar al servicio de usuarios.
+// Solo se acepta RS256: cualquier otro "alg" (incluido "none") se rechaza, para que nadie pueda
+// elegir cómo se verifica su token. Se admiten varias claves para poder rotarlas.
+// Un token verificado en local sigue siendo válido hasta su "exp" aunque el usuario cierre sesión,
+// así que el servicio de usuarios debe emitirlos con una vida corta.
+//
+// Verifies locally the signed tokens (JWT with RS256) issued by the user service, without calling
+// authenticateUser: it checks the signature against the configured public keys, the expiry ("exp"
+// and "nbf", with a leeway of clockSkewSeconds) and the issuer ("iss").
+// verify() returns null if the token is not shaped like a JWT (an opaque token), and then
+// AuthenticationFilter validates it remotely as usual. A JWT failing any check is rejected
+// without calling the user service.
+// Only RS256 is accepted: any other "alg" (including "none") is rejected, so that nobody can
+// choose how their token is verified. Several keys are allowed so that they can be rotated.
+// A token verified locally remains valid until its "exp" even if the user logs out, so the user
+// service must issue them with a short lifetime.
+@Component
+public class SignedTokenVerifier {
+
+	private static final Logger logger = LoggerFactory.getLogger(SignedTokenVerifier.class);
+
+	private final boolean enabled;
+	private final String issuer;
+	private final List<PublicKey> publicKeys;
+	private final long clockSkewSeconds;
+	private final ObjectMapper objectMapper;
+
+	public SignedTokenVerifier(@Value("${auth.jwt.enabled}") boolean enabled,
+			@Value("${auth.jwt.issuer}") String issuer,
+			@Value("${auth.jwt.public-keys}") List<String> publicKeys,
+			@Value("${auth.jwt.clock-skew-seconds}") long clockSkewSeconds,
+			ObjectMapper objectMapper) {
+		this.enabled = enabled;
+		this.issuer = issuer;
+		this.publicKeys = publicKeys.stream()
+				.filter(key -> !key.isBlank())
+				.map(SignedTokenVerifier::parsePublicKey)
+				.toList();
+		this.clockSkewSeconds = clockSkewSeconds;
+		this.objectMapper = objectMapper;
+		if (enabled && (this.publicKeys.isEmpty() || issuer.isBlank())) {
+			throw new IllegalArgumentException("auth.jwt.public-keys and auth.jwt.issuer are required "
+					+ "when auth.jwt.enabled is true");
+		}
+		logger.info("Local signed-token verification {} ({} public keys)", enabled ? "enabled" : "disabled",
+				this.publicKeys.size());
+	}
+
+	// "token" es el token sin el prefijo "Bearer ".
+	//
+	// "token" is the token without the "Bearer " prefix.
+	public UserAuthenticationStatus verify(String token) {
+		if (!enabled) {
+			return null;
+		}
+		String[] parts = token.split("\\.", -1);
+		if (parts.length != 3) {
+			return null;
+		}
+		JsonNode header = decodeJson(parts[0]);
+		if (header == null || !header.hasNonNull("alg")) {
+			return null;
+		}
+
+		if (!"RS256".equals(header.get("alg").asText())) {
+			logger.warn("Signed token rejected: algorithm {} is not allowed", header.get("alg").asText());
+			return UserAuthenticationStatus.FAILED_AUTHENTICATION;
+		}
+		if (!hasValidSignature(parts)) {
+			logger.warn("Signed token rejected: invalid signature");
+			return UserAuthenticationStatus.FAILED_AUTHENTICATION;
+		}
+		JsonNode claims = decodeJson(parts[1]);
+		if (claims == null) {
+			logger.warn("Signed token rejected: malformed claims");
+			return UserAuthenticationStatus.FAILED_AUTHENTICATION;
+		}
+		long now = System.currentTimeMillis() / 1000;
+		if (!claims.path("exp").canConvertToLong() || claims.get("exp").asLong() + clockSkewSeconds <= now) {
+			logger.warn("Signed token rejected: expired or without expiry");
+			return UserAuthenticationStatus.FAILED_AUTHENTICATION;
+		}
+		if (claims.hasNonNull("nbf") && claims.get("nbf").asLong() - clockSkewSeconds > now) {
+			logger.warn("Signed token rejected: not valid yet");
+			return UserAuthenticationStatus.FAILED_AUTHENTICATION;
+		}
+		if (!issuer.equals(claims.path("iss").asText(null))) {
+			logger.warn("Signed token rejected: unexpected issuer {}", claims.path("iss").asText(null));
+			return UserAuthenticationStatus.FAILED_AUTHENTICATION;
+		}
+		return UserAuthenticationStatus.USER_AUTHENTICATED;
+	}
+
+	private boolean hasValidSignature(String[] parts) {
+		byte[] signedContent = (parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII);
+		byte[] signature;
+		try {
+			signature = Base64.getUrlDecoder().decode(parts[2]);
+		} catch (IllegalArgumentException ex) {
+			return false;
+		}
+		for (PublicKey publicKey : publicKeys) {
+			try {
+				Signature verifier = Signature.getInstance("SHA256withRSA");
+				verifier.initVerify(publicKey);
+				verifier.update(signedContent);
+				if (verifier.verify(signature)) {
+					return true;
+				}
+			} catch (GeneralSecurityException ex) {
+				logger.debug("Signature could not be checked with one of the public keys: {}", ex.getMessage());
+			}
+		}
+		return false;
+	}
+
+	private JsonNode decodeJson(String part) {
+		try {
+			JsonNode node = objectMapper.readTree(Base64.getUrlDecoder().decode(part));
+			return node != null && node.isObject() ? node : null;
+		} catch (Exception ex) {
+			return null;
+		}
+	}
+
+	// Las claves se configuran en Base64 (X.509 SubjectPublicKeyInfo, es decir, el contenido de un
+	// fichero PEM "PUBLIC KEY" sin la cabecera ni los saltos de línea).
+	//
+	// Keys are configured in Base64 (X.509 SubjectPublicKeyInfo, that is, the content of a
+	// "PUBLIC KEY" PEM file without the header or the line breaks).
+	private static PublicKey parsePublicKey(String encodedKey) {
+		try {
+			return KeyFactory.getInstance("RSA")
+					.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encodedKey.trim())));
+		} catch (GeneralSecurityException | IllegalArgumentException ex) {
+			throw new IllegalArgumentException("Invalid public key in auth.jwt.public-keys", ex);
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+package dev.jcasaslopez.booking.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import dev.jcasaslopez.booking.dto.TokenCacheStatsDto;
+import dev.jcasaslopez.booking.enums.UserAuthenticationStatus;
+
+// Caché de las respuestas de authenticateUser del servicio de usuarios, para que un token
+// reutilizado pocos segundos después no provoque otra llamada remota.
+// - La clave es el SHA-256 del token: el token no se guarda en memoria más tiempo del necesario.
+// - USER_AUTHENTICATED se guarda durante positiveTtlMs y FAILED_AUTHENTICATION durante
+//   negativeTtlMs (más corto), para que un cliente que insiste con un token malo tampoco llegue
+//   al servicio de usuarios. Los errores del servicio (ServiceNotAvailableException, timeouts...)
+//   no se guardan.
+// - Como máximo guarda maxEntries tokens; al superarlo se desaloja el menos usado recientemente
+//   (LRU). Las entradas caducadas se borran al leerlas.
+// El TTL positivo acota cuánto tarda en tener efecto un logout o un usuario bloqueado, así que
+// debe ser corto.
+//
+// Cache of the user service's authenticateUser responses, so that a token reused a few seconds
+// later does not trigger another remote call.
+// - The key is the SHA-256 of the token: the token is not kept in memory longer than needed.
+// - USER_AUTHENTICATED is kept for positiveTtlMs and FAILED_AUTHENTICATION for negativeTtlMs
+//   (shorter), so that a client insisting with a bad token does not reach the user service
+//   either. User service errors (ServiceNotAvailableException, timeouts...) are not cached.
+// - It keeps at most maxEntries tokens; beyond that, the least recently used one is evicted
+//   (LRU). Expired entries are removed when read.
+// The positive TTL bounds how long a logout or a blocked user takes to have effect, so it must be
+// short.
+@Component
+public class TokenValidationCache {
+
+	private final long positiveTtlNanos;
+	private final long negativeTtlNanos;
+	private final int maxEntries;
+	private final Map<String, CachedValidation> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private record CachedValidation(UserAuthenticationStatus status, long expiresAt) {}
+
+	public TokenValidationCache(@Value("${auth.token-cache.positive-ttl-ms}") long positiveTtlMs,
+			@Value("${auth.token-cache.negative-ttl-ms}") long negativeTtlMs,
+			@Value("${auth.token-cache.max-entries}") int maxEntries) {
+		this.positiveTtlNanos = positiveTtlMs * 1_000_000;
+		this.negativeTtlNanos = negativeTtlMs * 1_000_000;
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedValidation> eldest) {
+				if (size() > TokenValidationCache.this.maxEntries) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	// Devuelve null si el token no está en caché o ha caducado.
+	//
+	// Returns null if the token is not cached or has expired.
+	public UserAuthenticationStatus get(String token) {
+		String key = keyOf(token);
+		CachedValidation cached;
+		synchronized (entries) {
+			cached = entries.get(key);
+			if (cached != null && System.nanoTime() - cached.expiresAt() >= 0) {
+				entries.remove(key);
+				cached = null;
+			}
+		}
+		if (cached == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return cached.status();
+	}
+
+	public void put(String token, UserAuthenticationStatus status) {
+		long ttlNanos = status == UserAuthenticationStatus.USER_AUTHENTICATED ? positiveTtlNanos : negativeTtlNanos;
+		if (ttlNanos <= 0) {
+			return;
+		}
+		CachedValidation cached = new CachedValidation(status, System.nanoTime() + ttlNanos);
+		String key = keyOf(token);
+		synchronized (entries) {
+			entries.put(key, cached);
+		}
+	}
+
+	public TokenCacheStatsDto stats() {
+		int size;
+		synchronized (entries) {
+			size = entries.size();
+		}
+		return new TokenCacheStatsDto(size, maxEntries, hits.sum(), misses.sum(), evictions.sum());
+	}
+
+	static String keyOf(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().withoutPadding().encodeToString(digest);
+		} catch (NoSuchAlgorithmException ex) {
+			// Todas las JVM incluyen SHA-256.
+			//
+			// Every JVM ships SHA-256.
+			throw new IllegalStateException("SHA-256 not available", ex);
+		}
+	}
+
+}
@@ -0,0 +1,13 @@
+package dev.jcasaslopez.booking.model;
+
+import java.time.LocalDateTime;
+
+// Proyección ligera de una reserva con solo su inicio y su fin. Se usa para construir
+// calendarios sin cargar entidades Booking completas (con su "comment", etc.) en el contexto
+// de persistencia.
+//
+// Lightweight projection of a booking holding only its start and finish. It is used to build
+// calendars without loading full Booking entities (with their "comment", etc.) into the
+// persistence context.
+public record BookingInterval(LocalDateTime start, LocalDateTime finish) {
+}
@@ -0,0 +1,39 @@
+package dev.jcasaslopez.booking.model;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import dev.jcasaslopez.booking.dto.ClassroomDto;
+
+// Publica la foto actual del catálogo de aulas. Los lectores obtienen la foto con snapshot() y 
+// trabajan sobre ella sin bloqueos; replace() construye una foto nueva y la publica de una vez,
+// así que nadie ve nunca un catálogo a medio actualizar.
+//
+// Publishes the current snapshot of the classroom catalogue. Readers get the snapshot with 
+// snapshot() and work on it without locks; replace() builds a new snapshot and publishes it in
+// one go, so nobody ever sees a half-updated catalogue.
+@Component
+public class ClassroomCatalogue {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ClassroomCatalogue.class);
+	
+	private volatile ClassroomCatalogueSnapshot snapshot;
+
+	public ClassroomCatalogue(ClassroomsList classroomsList) {
+		this.snapshot = new ClassroomCatalogueSnapshot(classroomsList.getClassroomsList());
+	}
+	
+	public ClassroomCatalogueSnapshot snapshot() {
+		return snapshot;
+	}
+	
+	public void replace(List<ClassroomDto> classrooms) {
+		ClassroomCatalogueSnapshot newSnapshot = new ClassroomCatalogueSnapshot(classrooms);
+		snapshot = newSnapshot;
+		logger.info("Classroom catalogue replaced: {} classrooms", newSnapshot.size());
+	}
+
+}
@@ -0,0 +1,248 @@
+package dev.jcasaslopez.booking.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.jcasaslopez.booking.dto.ClassroomDto;
+import dev.jcasaslopez.booking.service.ClassroomSyncService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Mantiene actualizado ClassroomCatalogue según el patrón "stale-while-revalidate": las 
+// peticiones siempre leen la última foto buena del catálogo, y esta se refresca en segundo plano.
+// - Al arrancar se carga la foto guardada en disco (si existe), sin esperar al servicio de aulas.
+//   Si no hay foto, se sirven los datos de ClassroomsList.
+// - El refresco solo se activa con "classrooms.catalogue.refresh-enabled=true" (el perfil prod),
+//   y empieza cuando la aplicación está lista. En desarrollo y en los tests se sirve la foto en 
+//   disco o ClassroomsList, sin llamar al servicio de aulas.
+// - El refresco se ejecuta en su propio hilo, así que nunca retiene un hilo de petición ni el 
+//   planificador compartido de @Scheduled. Usa peticiones condicionales (If-None-Match / 
+//   If-Modified-Since): si el catálogo no ha cambiado, el servicio responde 304 sin cuerpo.
+// - Si el refresco falla (error HTTP, timeout o catálogo vacío) se conserva la foto actual y el 
+//   siguiente intento se retrasa exponencialmente, hasta max-backoff-ms.
+// - Tras cada refresco con cambios, la foto nueva se guarda en disco y se sincroniza la tabla 
+//   local de aulas.
+//
+// Keeps ClassroomCatalogue up to date following the "stale-while-revalidate" pattern: requests 
+// always read the last good snapshot of the catalogue, which is refreshed in the background.
+// - At startup, the snapshot saved on disk (if any) is loaded, without waiting for the classroom
+//   service. If there is no snapshot, ClassroomsList data is served.
+// - The refresh is only enabled with "classrooms.catalogue.refresh-enabled=true" (the prod 
+//   profile), and starts once the application is ready. In development and in tests, the 
+//   snapshot on disk or ClassroomsList is served, without calling the classroom service.
+// - The refresh runs on its own thread, so it never holds a request thread or the shared 
+//   @Scheduled scheduler. It uses conditional requests (If-None-Match / If-Modified-Since): if 
+//   the catalogue has not changed, the service answers 304 without a body.
+// - If the refresh fails (HTTP error, timeout or empty catalogue), the current snapshot is kept 
+//   and the next attempt is delayed exponentially, up to max-backoff-ms.
+// - After each refresh with changes, the new snapshot is saved to disk and the local classrooms 
+//   table is synchronized.
+@Component
+public class ClassroomCatalogueLoader {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ClassroomCatalogueLoader.class);
+	
+	// Formato de la foto en disco: las aulas junto con los validadores HTTP de la respuesta de 
+	// la que salieron, para poder hacer peticiones condicionales también tras un reinicio.
+	//
+	// Format of the snapshot on disk: the classrooms along with the HTTP validators of the 
+	// response they came from, so that conditional requests can also be made after a restart.
+	record CatalogueFile(String etag, String lastModified, List<ClassroomDto> classrooms) {}
+	
+	private final ClassroomCatalogue classroomCatalogue;
+	private final ClassroomSyncService classroomSyncService;
+	private final ObjectMapper objectMapper;
+	private final RestClient restClient;
+	private final String catalogueUrl;
+	private final Path snapshotFile;
+	private final long refreshIntervalMs;
+	private final long maxBackoffMs;
+	private final boolean refreshEnabled;
+	private final ScheduledExecutorService refreshExecutor;
+	
+	private volatile String etag;
+	private volatile String lastModified;
+	private volatile int consecutiveFailures;
+
+	public ClassroomCatalogueLoader(ClassroomCatalogue classroomCatalogue, ClassroomSyncService classroomSyncService,
+			ObjectMapper objectMapper,
+			@Value("${classrooms.service.url}") String catalogueUrl,
+			@Value("${classrooms.catalogue.snapshot-file}") String snapshotFile,
+			@Value("${classrooms.catalogue.refresh-interval-ms}") long refreshIntervalMs,
+			@Value("${classrooms.catalogue.max-backoff-ms}") long maxBackoffMs,
+			@Value("${classrooms.catalogue.timeout-ms}") int timeoutMs,
+			@Value("${classrooms.catalogue.refresh-enabled}") boolean refreshEnabled) {
+		this.classroomCatalogue = classroomCatalogue;
+		this.classroomSyncService = classroomSyncService;
+		this.objectMapper = objectMapper;
+		this.catalogueUrl = catalogueUrl;
+		this.snapshotFile = Path.of(snapshotFile);
+		this.refreshIntervalMs = refreshIntervalMs;
+		this.maxBackoffMs = maxBackoffMs;
+		this.refreshEnabled = refreshEnabled;
+		
+		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		requestFactory.setConnectTimeout(Duration.ofMillis(timeoutMs));
+		requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs));
+		this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+		
+		this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "classroom-catalogue-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	@PostConstruct
+	public void start() {
+		loadSnapshotFromDisk();
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void startRefresh() {
+		if (!refreshEnabled) {
+			logger.info("Classroom catalogue refresh disabled, the classroom service will not be called");
+			return;
+		}
+		refreshExecutor.execute(this::refreshAndReschedule);
+	}
+	
+	@PreDestroy
+	public void stop() {
+		refreshExecutor.shutdownNow();
+	}
+	
+	void loadSnapshotFromDisk() {
+		if (!Files.exists(snapshotFile)) {
+			logger.info("No classroom catalogue snapshot at {}, serving the built-in catalogue", snapshotFile);
+			return;
+		}
+		try {
+			CatalogueFile catalogueFile = objectMapper.readValue(snapshotFile.toFile(), CatalogueFile.class);
+			if (catalogueFile.classrooms() == null || catalogueFile.classrooms().isEmpty()) {
+				logger.warn("Classroom catalogue snapshot at {} is empty, ignoring it", snapshotFile);
+				return;
+			}
+			classroomCatalogue.replace(catalogueFile.classrooms());
+			etag = catalogueFile.etag();
+			lastModified = catalogueFile.lastModified();
+			logger.info("Classroom catalogue loaded from {}", snapshotFile);
+		} catch (IOException ex) {
+			logger.warn("Could not read classroom catalogue snapshot at {}: {}", snapshotFile, ex.getMessage());
+		}
+	}
+	
+	private void refreshAndReschedule() {
+		refresh();
+		try {
+			refreshExecutor.schedule(this::refreshAndReschedule, nextDelayMs(), TimeUnit.MILLISECONDS);
+		} catch (Exception ex) {
+			// El executor se ha cerrado porque la aplicación se está parando.
+			//
+			// The executor has been shut down because the application is stopping.
+			logger.debug("Classroom catalogue refresh not rescheduled: {}", ex.getMessage());
+		}
+	}
+	
+	// Devuelve true si el refresco ha ido bien (haya cambiado el catálogo o no).
+	//
+	// Returns true if the refresh went well (whether the catalogue changed or not).
+	boolean refresh() {
+		try {
+			boolean changed = restClient.get()
+					.uri(catalogueUrl)
+					.headers(headers -> {
+						if (etag != null) {
+							headers.set(HttpHeaders.IF_NONE_MATCH, etag);
+						}
+						if (lastModified != null) {
+							headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+						}
+					})
+					.exchange((request, response) -> {
+						if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+							return false;
+						}
+						if (!response.getStatusCode().is2xxSuccessful()) {
+							throw new IOException("HTTP status " + response.getStatusCode());
+						}
+						ClassroomDto[] body = response.bodyTo(ClassroomDto[].class);
+						if (body == null || body.length == 0) {
+							throw new IOException("empty catalogue");
+						}
+						List<ClassroomDto> classrooms = Arrays.asList(body);
+						String newEtag = response.getHeaders().getFirst(HttpHeaders.ETAG);
+						String newLastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+						classroomCatalogue.replace(classrooms);
+						etag = newEtag;
+						lastModified = newLastModified;
+						saveSnapshotToDisk(new CatalogueFile(newEtag, newLastModified, classrooms));
+						return true;
+					});
+			consecutiveFailures = 0;
+			if (changed) {
+				classroomSyncService.synchronizeClassrooms();
+			} else {
+				logger.debug("Classroom catalogue not modified");
+			}
+			return true;
+		} catch (Exception ex) {
+			consecutiveFailures++;
+			logger.warn("Classroom catalogue refresh failed ({} in a row), keeping the current snapshot: {}", 
+					consecutiveFailures, ex.getMessage());
+			return false;
+		}
+	}
+	
+	// Tras un refresco correcto se espera el intervalo normal; tras N fallos seguidos, el doble 
+	// del intervalo anterior empezando por 1 segundo, sin pasar de maxBackoffMs.
+	//
+	// After a successful refresh, the normal interval is waited; after N failures in a row, twice
+	// the previous interval starting at 1 second, without exceeding maxBackoffMs.
+	long nextDelayMs() {
+		if (consecutiveFailures == 0) {
+			return refreshIntervalMs;
+		}
+		long backoff = 1000L << Math.min(consecutiveFailures - 1, 30);
+		return Math.min(backoff, maxBackoffMs);
+	}
+	
+	// Se escribe en un fichero temporal y luego se mueve, para que un reinicio a mitad de la 
+	// escritura nunca deje una foto corrupta.
+	//
+	// It is written to a temporary file and then moved, so that a restart halfway through the 
+	// write never leaves a corrupt snapshot.
+	private void saveSnapshotToDisk(CatalogueFile catalogueFile) {
+		try {
+			Path directory = snapshotFile.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			Path temporaryFile = Files.createTempFile(directory, "classrooms", ".tmp");
+			objectMapper.writeValue(temporaryFile.toFile(), catalogueFile);
+			Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ex) {
+			logger.warn("Could not save classroom catalogue snapshot to {}: {}", snapshotFile, ex.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+package dev.jcasaslopez.booking.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import dev.jcasaslopez.booking.dto.ClassroomDto;
+
+// Foto inmutable del catálogo de aulas, con un índice por id construido una sola vez para buscar
+// en O(1). Las búsquedas por características no pasan por aquí: se resuelven junto con la 
+// disponibilidad en una sola consulta (ver ClassroomRepository.findAvailableClassrooms()).
+// Como nada cambia después de construirla, se puede leer desde cualquier hilo sin bloqueos.
+//
+// Immutable snapshot of the classroom catalogue, with an index by id built only once to look 
+// classrooms up in O(1). Searches by features do not go through here: they are resolved along 
+// with availability in a single query (see ClassroomRepository.findAvailableClassrooms()).
+// As nothing changes after it is built, it can be read from any thread without locks.
+public final class ClassroomCatalogueSnapshot {
+	
+	private final List<ClassroomDto> classrooms;
+	private final Map<Integer, ClassroomDto> classroomsById;
+	
+	// Se copian las aulas recibidas, ya que ClassroomDto es mutable. Si un id aparece dos veces, 
+	// se queda la última.
+	//
+	// The given classrooms are copied, as ClassroomDto is mutable. If an id appears twice, the 
+	// last one is kept.
+	public ClassroomCatalogueSnapshot(List<ClassroomDto> catalogue) {
+		Map<Integer, ClassroomDto> byId = new HashMap<>();
+		for (ClassroomDto c : catalogue) {
+			byId.put(c.getIdClassroom(), new ClassroomDto(c.getIdClassroom(), c.getName(), c.getSeats(), 
+					Boolean.TRUE.equals(c.getProjector()), Boolean.TRUE.equals(c.getSpeakers())));
+		}
+		this.classroomsById = Map.copyOf(byId);
+		
+		List<ClassroomDto> sortedById = new ArrayList<>(byId.values());
+		sortedById.sort(Comparator.comparingInt(ClassroomDto::getIdClassroom));
+		this.classrooms = List.copyOf(sortedById);
+	}
+	
+	public Optional<ClassroomDto> findById(int idClassroom) {
+		return Optional.ofNullable(classroomsById.get(idClassroom));
+	}
+	
+	public boolean contains(int idClassroom) {
+		return classroomsById.containsKey(idClassroom);
+	}
+	
+	// Todas las aulas, ordenadas por id.
+	//
+	// All classrooms, ordered by id.
+	public List<ClassroomDto> all() {
+		return classrooms;
+	}
+	
+	public int size() {
+		return classrooms.size();
+	}
+
+}
@@ -0,0 +1,11 @@
+package dev.jcasaslopez.booking.model;
+
+import java.time.LocalDate;
+
+// Minutos reservados de un aula en un día, calculados por la base de datos con un GROUP BY
+// (ver BookingRepository.sumBookedMinutesByClassroomAndDay()).
+//
+// Booked minutes of a classroom on a given day, computed by the database with a GROUP BY
+// (see BookingRepository.sumBookedMinutesByClassroomAndDay()).
+public record ClassroomDailyUsage(int idClassroom, LocalDate date, long bookedMinutes) {
+}
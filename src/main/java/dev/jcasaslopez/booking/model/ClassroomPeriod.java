@@ -0,0 +1,11 @@
+package dev.jcasaslopez.booking.model;
+
+import java.time.LocalDateTime;
+
+// Aula y periodo al que se refiere una notificación. Un resumen (ver 
+// NotificationOutboxServiceImpl) reúne varios en un solo mensaje.
+//
+// Classroom and period a notification refers to. A digest (see NotificationOutboxServiceImpl)
+// gathers several of them into a single message.
+public record ClassroomPeriod(int idClassroom, LocalDateTime start, LocalDateTime finish) {
+}
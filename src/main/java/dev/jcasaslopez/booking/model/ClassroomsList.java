@@ -8,21 +8,16 @@ import org.springframework.stereotype.Component;
 
 import dev.jcasaslopez.booking.dto.ClassroomDto;
 
-// Este es un componente provisional con datos hardcodeados para poder continuar con el desarrollo
-// mientras el servicio de aulas no está disponible. Se eliminarán los datos hardcodeados y se
-// restaurará la conexión con el servicio real cuando esté operativo.
+// Catálogo de aulas integrado en la aplicación. Es el que se sirve al arrancar por primera vez,
+// mientras no hay una foto del catálogo en disco ni se ha podido contactar con el servicio de 
+// aulas (ver ClassroomCatalogueLoader).
 //
-// This is a provisional component with hardcoded data to continue development while the
-// classroom service is not available. The hardcoded data will be removed and the connection
-// with the real service will be restored when it becomes operational.
+// Catalogue of classrooms built into the application. It is the one served on the very first
+// startup, while there is no catalogue snapshot on disk and the classroom service has not been 
+// reached yet (see ClassroomCatalogueLoader).
 @Component
 public class ClassroomsList {
 	
-	/* @Autowired
-	private RestClient restClient;
-	
-	private String baseUrl = "http://classroom-service/classroom/getClassroomList"; */
-	
 	private List<ClassroomDto> classroomsList = new ArrayList<>();
 	
 	public ClassroomsList() {
@@ -34,29 +29,6 @@ public class ClassroomsList {
         );
     }
 
-    /*
-    @PostConstruct
-    
-    public void init() {
-        updateClassroomsList();
-    }
-
-    public void updateClassroomsList() {
-        try {
-            ClassroomDto[] response = restClient.get()
-                .uri(baseUrl)
-                .retrieve()
-                .body(ClassroomDto[].class);
-            if (response != null) {
-                this.classroomList = Arrays.asList(response);
-            }
-        } catch (Exception e) {
-        	
-            throw new ServiceNotAvailableException("Classroom service did not return a valid response");
-        }
-    }
-    */
-
 	public List<ClassroomDto> getClassroomsList() {
 		return classroomsList;
 	}
@@ -0,0 +1,21 @@
+package dev.jcasaslopez.booking.model;
+
+import java.time.LocalDateTime;
+
+import dev.jcasaslopez.booking.entity.WatchAlert;
+
+// Copia inmutable de un watch alert, tal como la guarda WatchAlertIndex.
+//
+// Immutable copy of a watch alert, as stored by WatchAlertIndex.
+public record IndexedWatchAlert(long idWatchAlert, int idClassroom, int idUser, LocalDateTime start, 
+		LocalDateTime finish) {
+	
+	public static IndexedWatchAlert of(WatchAlert watchAlert) {
+		return new IndexedWatchAlert(watchAlert.getIdWatchAlert(), watchAlert.getIdClassroom(), 
+				watchAlert.getIdUser(), watchAlert.getStart(), watchAlert.getFinish());
+	}
+	
+	public boolean overlaps(LocalDateTime periodStart, LocalDateTime periodFinish) {
+		return start.isBefore(periodFinish) && finish.isAfter(periodStart);
+	}
+}
@@ -0,0 +1,223 @@
+package dev.jcasaslopez.booking.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import dev.jcasaslopez.booking.entity.WatchAlert;
+import dev.jcasaslopez.booking.repository.WatchAlertRepository;
+
+// Índice en memoria de los watch alerts vigentes (los que aún no han terminado), para encontrar
+// sin consultar la base de datos a quién avisar cuando se cancela una reserva.
+// Por cada aula, los watch alerts se ordenan por inicio en un ConcurrentSkipListSet y se guarda la
+// duración del más largo. Un watch alert se solapa con [start, finish) si empieza antes de finish
+// y termina después de start, así que solo puede estar entre los que empiezan en 
+// [start - duración máxima, finish): se recorre ese tramo y se descartan los que no se solapan.
+// La duración máxima solo crece, lo que como mucho amplía el tramo recorrido.
+//
+// Los watch alerts nuevos se añaden, y los borrados se quitan, después del commit de la 
+// transacción que los crea o los borra. Cada watch-alerts.index.refresh-ms el índice se 
+// reconstruye desde la base de datos, lo que elimina los ya terminados y los borrados, y recoge
+// los creados por otras instancias del servicio. Los añadidos y los borrados durante la 
+// reconstrucción se anotan y se vuelven a aplicar al índice nuevo, porque la lectura de la tabla
+// puede haberse hecho antes de su commit. Mientras no se ha cargado por primera vez, las 
+// búsquedas van a la base de datos.
+//
+// In-memory index of the current watch alerts (those that have not finished yet), to find whom
+// to notify when a booking is cancelled without querying the database.
+// For each classroom, watch alerts are sorted by start in a ConcurrentSkipListSet, and the 
+// duration of the longest one is kept. A watch alert overlaps [start, finish) if it starts before
+// finish and ends after start, so it can only be among those starting in 
+// [start - maximum duration, finish): that range is walked and the ones that do not overlap are
+// discarded. The maximum duration only grows, which at most widens the walked range.
+//
+// New watch alerts are added, and deleted ones removed, after the commit of the transaction that
+// creates or deletes them. Every watch-alerts.index.refresh-ms the index is rebuilt from the 
+// database, which removes the finished and deleted ones and picks up those created by other 
+// instances of the service. Additions and deletions during the rebuild are recorded and applied 
+// again to the new index, as the table may have been read before they committed. Until it has 
+// been loaded for the first time, lookups go to the database.
+@Component
+public class WatchAlertIndex {
+	
+	private static final Logger logger = LoggerFactory.getLogger(WatchAlertIndex.class);
+	
+	private static final Comparator<IndexedWatchAlert> BY_START = Comparator
+			.comparing(IndexedWatchAlert::start)
+			.thenComparingLong(IndexedWatchAlert::idWatchAlert);
+	
+	private WatchAlertRepository watchAlertRepository;
+	private volatile Map<Integer, ClassroomWatchAlerts> alertsByClassroom;
+	
+	// Watch alerts añadidos y quitados mientras se reconstruye el índice; null si no hay 
+	// reconstrucción.
+	//
+	// Watch alerts added and removed while the index is being rebuilt; null if there is no 
+	// rebuild.
+	private volatile Set<IndexedWatchAlert> addedDuringRebuild;
+	private volatile Set<IndexedWatchAlert> removedDuringRebuild;
+	
+	public WatchAlertIndex(WatchAlertRepository watchAlertRepository) {
+		this.watchAlertRepository = watchAlertRepository;
+	}
+	
+	private static final class ClassroomWatchAlerts {
+		private final NavigableSet<IndexedWatchAlert> byStart = new ConcurrentSkipListSet<>(BY_START);
+		private final AtomicLong maxDurationSeconds = new AtomicLong();
+		
+		private void add(IndexedWatchAlert watchAlert) {
+			byStart.add(watchAlert);
+			maxDurationSeconds.accumulateAndGet(
+					Duration.between(watchAlert.start(), watchAlert.finish()).getSeconds(), Math::max);
+		}
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${watch-alerts.index.refresh-ms}", initialDelayString = "${watch-alerts.index.refresh-ms}")
+	public synchronized void rebuild() {
+		long begin = System.currentTimeMillis();
+		Set<IndexedWatchAlert> added = ConcurrentHashMap.newKeySet();
+		Set<IndexedWatchAlert> removed = ConcurrentHashMap.newKeySet();
+		addedDuringRebuild = added;
+		removedDuringRebuild = removed;
+		Map<Integer, ClassroomWatchAlerts> rebuilt = new ConcurrentHashMap<>();
+		List<WatchAlert> current = watchAlertRepository.findWatchAlertsFinishingAfter(LocalDateTime.now());
+		for (WatchAlert watchAlert : current) {
+			addTo(rebuilt, IndexedWatchAlert.of(watchAlert));
+		}
+		alertsByClassroom = rebuilt;
+		
+		// addToCurrent() y removeFromCurrent() anotan el watch alert antes de tocar el índice 
+		// publicado, así que cualquier cambio que aún haya llegado al índice anterior ya está en 
+		// "added" o en "removed". Los añadidos se aplican primero, para que uno añadido y borrado 
+		// durante la reconstrucción no vuelva.
+		//
+		// addToCurrent() and removeFromCurrent() record the watch alert before touching the 
+		// published index, so any change that still reached the previous index is already in 
+		// "added" or "removed". Additions are applied first, so that one added and deleted during 
+		// the rebuild does not come back.
+		added.forEach(watchAlert -> addTo(rebuilt, watchAlert));
+		removed.forEach(watchAlert -> removeFrom(rebuilt, watchAlert));
+		addedDuringRebuild = null;
+		removedDuringRebuild = null;
+		logger.info("Watch alert index rebuilt: {} watch alerts in {} classrooms, in {} ms", current.size(), 
+				rebuilt.size(), System.currentTimeMillis() - begin);
+	}
+	
+	// Si hay una transacción en curso, el watch alert se añade cuando se confirma, para no avisar 
+	// nunca por uno que se ha deshecho.
+	//
+	// If there is a transaction in progress, the watch alert is added when it commits, so as never 
+	// to notify about one that has been rolled back.
+	public void add(WatchAlert watchAlert) {
+		IndexedWatchAlert indexed = IndexedWatchAlert.of(watchAlert);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					addToCurrent(indexed);
+				}
+			});
+		} else {
+			addToCurrent(indexed);
+		}
+	}
+	
+	// Igual que add(), el watch alert se quita cuando se confirma la transacción que lo borra.
+	//
+	// As with add(), the watch alert is removed when the transaction deleting it commits.
+	public void remove(WatchAlert watchAlert) {
+		IndexedWatchAlert indexed = IndexedWatchAlert.of(watchAlert);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					removeFromCurrent(indexed);
+				}
+			});
+		} else {
+			removeFromCurrent(indexed);
+		}
+	}
+	
+	// Watch alerts del aula que se solapan, aunque sea en parte, con [start, finish).
+	//
+	// Watch alerts of the classroom that overlap, even partially, with [start, finish).
+	public List<IndexedWatchAlert> findOverlapping(int idClassroom, LocalDateTime start, LocalDateTime finish) {
+		Map<Integer, ClassroomWatchAlerts> current = alertsByClassroom;
+		if (current == null) {
+			return watchAlertRepository.findWatchAlertsOverlappingPeriod(idClassroom, start, finish).stream()
+					.map(IndexedWatchAlert::of)
+					.toList();
+		}
+		ClassroomWatchAlerts alerts = current.get(idClassroom);
+		if (alerts == null) {
+			return List.of();
+		}
+		IndexedWatchAlert from = probe(start.minusSeconds(alerts.maxDurationSeconds.get()));
+		IndexedWatchAlert to = probe(finish);
+		return alerts.byStart.subSet(from, true, to, false).stream()
+				.filter(watchAlert -> watchAlert.overlaps(start, finish))
+				.toList();
+	}
+	
+	public boolean isLoaded() {
+		return alertsByClassroom != null;
+	}
+	
+	private void addToCurrent(IndexedWatchAlert watchAlert) {
+		Set<IndexedWatchAlert> added = addedDuringRebuild;
+		if (added != null) {
+			added.add(watchAlert);
+		}
+		Map<Integer, ClassroomWatchAlerts> current = alertsByClassroom;
+		if (current != null) {
+			addTo(current, watchAlert);
+		}
+	}
+	
+	private void removeFromCurrent(IndexedWatchAlert watchAlert) {
+		Set<IndexedWatchAlert> removed = removedDuringRebuild;
+		if (removed != null) {
+			removed.add(watchAlert);
+		}
+		Map<Integer, ClassroomWatchAlerts> current = alertsByClassroom;
+		if (current != null) {
+			removeFrom(current, watchAlert);
+		}
+	}
+	
+	private static void removeFrom(Map<Integer, ClassroomWatchAlerts> index, IndexedWatchAlert watchAlert) {
+		ClassroomWatchAlerts alerts = index.get(watchAlert.idClassroom());
+		if (alerts != null) {
+			alerts.byStart.remove(watchAlert);
+		}
+	}
+	
+	private static void addTo(Map<Integer, ClassroomWatchAlerts> index, IndexedWatchAlert watchAlert) {
+		index.computeIfAbsent(watchAlert.idClassroom(), id -> new ClassroomWatchAlerts()).add(watchAlert);
+	}
+	
+	// Elemento de búsqueda que queda antes de cualquier watch alert que empiece en "start".
+	//
+	// Search element that sorts before any watch alert starting at "start".
+	private static IndexedWatchAlert probe(LocalDateTime start) {
+		return new IndexedWatchAlert(Long.MIN_VALUE, 0, 0, start, start);
+	}
+}
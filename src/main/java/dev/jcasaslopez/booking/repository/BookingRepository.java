@@ -2,13 +2,19 @@ package dev.jcasaslopez.booking.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import dev.jcasaslopez.booking.entity.Booking;
 import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.model.BookingInterval;
+import dev.jcasaslopez.booking.model.ClassroomDailyUsage;
+import jakarta.persistence.QueryHint;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
@@ -34,6 +40,37 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 		List<Booking> findActiveBookingsForClassroomByPeriod(int queryIdClassroom, LocalDateTime queryStart,
 		        LocalDateTime queryFinish);
 
+	// Igual que findActiveBookingsForClassroomByPeriod(), pero solo devuelve el inicio y el fin de
+	// cada reserva, que es todo lo que se necesita para construir un calendario.
+	//
+	// Same as findActiveBookingsForClassroomByPeriod(), but it only returns the start and finish of
+	// each booking, which is all that is needed to build a calendar.
+	@Query("""
+			SELECT new dev.jcasaslopez.booking.model.BookingInterval(b.start, b.finish)
+			FROM Booking b
+			WHERE b.idClassroom = :queryIdClassroom
+			AND b.status = 'ACTIVE'
+			AND (b.start < :queryFinish AND b.finish > :queryStart)
+			""")
+	List<BookingInterval> findActiveBookingIntervalsForClassroomByPeriod(int queryIdClassroom,
+			LocalDateTime queryStart, LocalDateTime queryFinish);
+
+	// Indica si existe alguna reserva activa que se solape con el período dado. La subconsulta
+	// EXISTS permite a la base de datos detenerse en el primer conflicto que encuentre.
+	//
+	// Tells whether any active booking overlaps the given period. The EXISTS subquery lets the
+	// database stop at the first conflict it finds.
+	@Query("""
+			SELECT CASE WHEN EXISTS (
+				SELECT 1 FROM Booking b
+				WHERE b.idClassroom = :queryIdClassroom
+				AND b.status = 'ACTIVE'
+				AND (b.start < :queryFinish AND b.finish > :queryStart)
+			) THEN true ELSE false END
+			""")
+	boolean existsActiveBookingForClassroomByPeriod(int queryIdClassroom, LocalDateTime queryStart,
+			LocalDateTime queryFinish);
+
 	// Devuelve una lista de aulas ocupadas en un período específico, basándose en reservas activas.
 	//
 	// Returns a list of occupied classrooms within a given period, based on active bookings.
@@ -59,4 +96,81 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 		       """)
 		List<Booking> findBookingsByUser(int queryIdUser);
 	
+	// Versión paginada (keyset) de findBookingsByUser(). La primera página no lleva cursor; las
+	// siguientes continúan justo después de la última reserva devuelta, usando (start, idBooking)
+	// como clave para que el orden sea estable aunque varias reservas empiecen a la misma hora.
+	// "pageable" solo se usa para limitar el número de filas.
+	//
+	// Keyset-paginated version of findBookingsByUser(). The first page has no cursor; the
+	// following ones continue right after the last booking returned, using (start, idBooking)
+	// as the key so that the order is stable even if several bookings start at the same time.
+	// "pageable" is only used to limit the number of rows.
+	@Query("""
+			SELECT b FROM Booking b
+			WHERE b.idUser = :queryIdUser
+			ORDER BY b.start DESC, b.idBooking DESC
+			""")
+	List<Booking> findBookingsByUserFirstPage(int queryIdUser, Pageable pageable);
+	
+	@Query("""
+			SELECT b FROM Booking b
+			WHERE b.idUser = :queryIdUser
+			AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.idBooking < :cursorIdBooking))
+			ORDER BY b.start DESC, b.idBooking DESC
+			""")
+	List<Booking> findBookingsByUserAfterCursor(int queryIdUser, LocalDateTime cursorStart, long cursorIdBooking,
+			Pageable pageable);
+	
+	// Recorre todas las reservas que empiezan dentro de un período, en cualquier estado, como un 
+	// Stream de solo avance. Las filas se leen de la base de datos en bloques de "fetch size" en
+	// lugar de cargarse todas en memoria, y no se guardan en la caché de segundo nivel.
+	// Debe consumirse dentro de una transacción y cerrarse después (ver BookingExportServiceImpl).
+	//
+	// Walks through every booking starting within a period, in any status, as a forward-only 
+	// Stream. Rows are read from the database in "fetch size" blocks instead of being loaded 
+	// into memory all at once, and they are not stored in the second-level cache.
+	// It must be consumed within a transaction and closed afterwards (see BookingExportServiceImpl).
+	@QueryHints({
+		@QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+		@QueryHint(name = "org.hibernate.readOnly", value = "true"),
+		@QueryHint(name = "org.hibernate.cacheMode", value = "IGNORE")
+	})
+	@Query("""
+			SELECT b FROM Booking b
+			WHERE b.start >= :queryStart AND b.start < :queryFinish
+			ORDER BY b.start, b.idBooking
+			""")
+	Stream<Booking> streamBookingsByPeriod(LocalDateTime queryStart, LocalDateTime queryFinish);
+
+	// Suma los minutos reservados (reservas activas y completadas) por aula y día, sin cargar 
+	// ninguna entidad Booking. Una reserva nunca ocupa más de un día (ver BookingDto), así que 
+	// basta con agrupar por la fecha de inicio.
+	//
+	// Sums the booked minutes (active and completed bookings) by classroom and day, without 
+	// loading any Booking entity. A booking never spans more than one day (see BookingDto), so
+	// grouping by the start date is enough.
+	@Query("""
+			SELECT new dev.jcasaslopez.booking.model.ClassroomDailyUsage(b.idClassroom, 
+				cast(b.start as LocalDate), sum((b.finish - b.start) by minute))
+			FROM Booking b
+			WHERE b.status <> 'CANCELLED'
+			AND b.start >= :queryStart AND b.start < :queryFinish
+			GROUP BY b.idClassroom, cast(b.start as LocalDate)
+			""")
+	List<ClassroomDailyUsage> sumBookedMinutesByClassroomAndDay(LocalDateTime queryStart, LocalDateTime queryFinish);
+
+	// Minutos que markCompletedBookings() va a pasar a COMPLETED, por aula y día. Se consulta justo 
+	// antes de marcarlas, en la misma transacción, para actualizar DailyOccupancy.
+	//
+	// Minutes that markCompletedBookings() is about to set to COMPLETED, by classroom and day. It
+	// is queried right before marking them, in the same transaction, to update DailyOccupancy.
+	@Query("""
+			SELECT new dev.jcasaslopez.booking.model.ClassroomDailyUsage(b.idClassroom, 
+				cast(b.start as LocalDate), sum((b.finish - b.start) by minute))
+			FROM Booking b
+			WHERE b.status = 'ACTIVE' AND b.finish < :now
+			GROUP BY b.idClassroom, cast(b.start as LocalDate)
+			""")
+	List<ClassroomDailyUsage> sumMinutesToCompleteByClassroomAndDay(LocalDateTime now);
+
 }
@@ -0,0 +1,46 @@
+package dev.jcasaslopez.booking.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import dev.jcasaslopez.booking.dto.ClassroomDto;
+import dev.jcasaslopez.booking.entity.Classroom;
+
+public interface ClassroomRepository extends JpaRepository<Classroom, Integer> {
+	
+	// Anti-join: aulas con las características pedidas para las que NO existe ninguna reserva 
+	// activa que se solape con el período. Si "projector" o "speakers" son false, no se filtra por
+	// ellos; con seats = 0 se obtienen todas las aulas libres. El NOT EXISTS se resuelve con el 
+	// índice idx_bookings_classroom_status_period de Booking.
+	//
+	// Anti-join: classrooms with the requested features for which there is NO active booking 
+	// overlapping the period. If "projector" or "speakers" are false, they are not filtered on;
+	// with seats = 0 all free classrooms are returned. The NOT EXISTS is resolved with Booking's 
+	// idx_bookings_classroom_status_period index.
+	@Query("""
+			SELECT new dev.jcasaslopez.booking.dto.ClassroomDto(c.idClassroom, c.name, c.seats, 
+				c.projector, c.speakers)
+			FROM Classroom c
+			WHERE c.seats >= :seats
+			AND (:projector = false OR c.projector = true)
+			AND (:speakers = false OR c.speakers = true)
+			AND NOT EXISTS (
+				SELECT 1 FROM Booking b
+				WHERE b.idClassroom = c.idClassroom
+				AND b.status = 'ACTIVE'
+				AND b.start < :queryFinish AND b.finish > :queryStart)
+			ORDER BY c.idClassroom
+			""")
+	List<ClassroomDto> findAvailableClassrooms(LocalDateTime queryStart, LocalDateTime queryFinish, 
+			int seats, boolean projector, boolean speakers);
+	
+	@Modifying
+	@Query("DELETE FROM Classroom c WHERE c.idClassroom NOT IN :idClassrooms")
+	int deleteAllExcept(Collection<Integer> idClassrooms);
+
+}
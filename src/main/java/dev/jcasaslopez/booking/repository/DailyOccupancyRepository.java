@@ -0,0 +1,35 @@
+package dev.jcasaslopez.booking.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import dev.jcasaslopez.booking.entity.DailyOccupancy;
+import dev.jcasaslopez.booking.entity.DailyOccupancyId;
+import jakarta.persistence.LockModeType;
+
+public interface DailyOccupancyRepository extends JpaRepository<DailyOccupancy, DailyOccupancyId> {
+	
+	// Bloquea la fila hasta el final de la transacción, para que dos reservas simultáneas en la 
+	// misma aula y el mismo día no se pisen los contadores.
+	//
+	// Locks the row until the end of the transaction, so that two simultaneous bookings in the 
+	// same classroom on the same day do not overwrite each other's counters.
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT d FROM DailyOccupancy d WHERE d.idClassroom = :idClassroom AND d.occupancyDate = :occupancyDate")
+	Optional<DailyOccupancy> findForUpdate(int idClassroom, LocalDate occupancyDate);
+	
+	@Query("SELECT d FROM DailyOccupancy d WHERE d.idClassroom = :idClassroom "
+			+ "AND d.occupancyDate BETWEEN :from AND :to ORDER BY d.occupancyDate")
+	List<DailyOccupancy> findByClassroomAndPeriod(int idClassroom, LocalDate from, LocalDate to);
+	
+	@Modifying
+	@Query("DELETE FROM DailyOccupancy d WHERE d.occupancyDate BETWEEN :from AND :to")
+	void deleteByPeriod(LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,9 @@
+package dev.jcasaslopez.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import dev.jcasaslopez.booking.entity.DeadLetterNotification;
+
+public interface DeadLetterNotificationRepository extends JpaRepository<DeadLetterNotification, Long> {
+
+}
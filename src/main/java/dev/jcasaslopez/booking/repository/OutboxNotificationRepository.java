@@ -0,0 +1,32 @@
+package dev.jcasaslopez.booking.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import dev.jcasaslopez.booking.entity.OutboxNotification;
+import dev.jcasaslopez.booking.enums.NotificationType;
+
+public interface OutboxNotificationRepository extends JpaRepository<OutboxNotification, Long> {
+	
+	// Notificaciones que ya se pueden (re)intentar, en el orden en que se crearon. "pageable" 
+	// solo se usa para limitar el número de filas.
+	//
+	// Notifications that can already be (re)tried, in the order they were created. "pageable" is
+	// only used to limit the number of rows.
+	@Query("SELECT o FROM OutboxNotification o WHERE o.nextAttemptAt <= :now ORDER BY o.idNotification")
+	List<OutboxNotification> findPending(LocalDateTime now, Pageable pageable);
+	
+	// Hora de envío de la ventana de resumen abierta para el usuario y el tipo, o null si no hay 
+	// ninguna. Las notificaciones en reintento no abren ventana.
+	//
+	// Sending time of the digest window open for the user and type, or null if there is none. 
+	// Notifications being retried do not open a window.
+	@Query("SELECT MAX(o.nextAttemptAt) FROM OutboxNotification o WHERE o.idUser = :idUser "
+			+ "AND o.notificationType = :notificationType AND o.attempts = 0 AND o.nextAttemptAt > :now")
+	LocalDateTime findOpenDigestDueTime(int idUser, NotificationType notificationType, LocalDateTime now);
+
+}
@@ -3,6 +3,7 @@ package dev.jcasaslopez.booking.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -13,8 +14,44 @@ public interface WatchAlertRepository extends JpaRepository<WatchAlert, Long> {
 	@Query("SELECT w FROM WatchAlert w WHERE w.idUser = :idUser")
 	List<WatchAlert> findWatchAlertsByUser(int idUser);
 	
+	// Versión paginada (keyset) de findWatchAlertsByUser(), ordenada de la más reciente a la más 
+	// antigua con (start, idWatchAlert) como clave. Ver BookingRepository.findBookingsByUserFirstPage().
+	//
+	// Keyset-paginated version of findWatchAlertsByUser(), ordered from most recent to oldest
+	// with (start, idWatchAlert) as the key. See BookingRepository.findBookingsByUserFirstPage().
+	@Query("SELECT w FROM WatchAlert w WHERE w.idUser = :idUser ORDER BY w.start DESC, w.idWatchAlert DESC")
+	List<WatchAlert> findWatchAlertsByUserFirstPage(int idUser, Pageable pageable);
+	
+	@Query("SELECT w FROM WatchAlert w WHERE w.idUser = :idUser AND (w.start < :cursorStart "
+			+ "OR (w.start = :cursorStart AND w.idWatchAlert < :cursorIdWatchAlert)) "
+			+ "ORDER BY w.start DESC, w.idWatchAlert DESC")
+	List<WatchAlert> findWatchAlertsByUserAfterCursor(int idUser, LocalDateTime cursorStart, 
+			long cursorIdWatchAlert, Pageable pageable);
+	
     @Query("SELECT w FROM WatchAlert w WHERE w.idClassroom = :idClassroom AND w.start >= :start "
     		+ "AND w.finish <= :finish")
 	List<WatchAlert> findWatchAlertsByTimePeriodAndClassroom(int idClassroom, LocalDateTime start, 
 			LocalDateTime finish);
+    
+    // Los dos métodos siguientes los usa WatchAlertIndex: el primero para cargar los watch alerts 
+    // vigentes y el segundo para las búsquedas mientras el índice aún no se ha cargado.
+    //
+    // The next two methods are used by WatchAlertIndex: the first one to load the current watch 
+    // alerts and the second one for lookups while the index has not been loaded yet.
+    @Query("SELECT w FROM WatchAlert w WHERE w.finish > :now")
+    List<WatchAlert> findWatchAlertsFinishingAfter(LocalDateTime now);
+    
+    @Query("SELECT w FROM WatchAlert w WHERE w.idClassroom = :idClassroom AND w.start < :finish "
+    		+ "AND w.finish > :start")
+    List<WatchAlert> findWatchAlertsOverlappingPeriod(int idClassroom, LocalDateTime start, LocalDateTime finish);
+    
+    // Watch alerts del usuario en el aula dentro del período, para encontrar los que repiten un
+    // período pedido (ver WatchAlertServiceImpl.addWatchAlerts()).
+    //
+    // Watch alerts of the user in the classroom within the period, to find those repeating a 
+    // requested period (see WatchAlertServiceImpl.addWatchAlerts()).
+    @Query("SELECT w FROM WatchAlert w WHERE w.idUser = :idUser AND w.idClassroom = :idClassroom "
+    		+ "AND w.start >= :start AND w.finish <= :finish")
+    List<WatchAlert> findWatchAlertsByUserClassroomAndPeriod(int idUser, int idClassroom, LocalDateTime start, 
+    		LocalDateTime finish);
 }
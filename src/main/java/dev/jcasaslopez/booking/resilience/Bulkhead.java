@@ -0,0 +1,52 @@
+package dev.jcasaslopez.booking.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Limita las llamadas simultáneas a una dependencia. Las que no caben se rechazan al momento en 
+// lugar de esperar, para que una dependencia lenta no acapare los hilos de Tomcat.
+//
+// Limits the concurrent calls to a dependency. Those that do not fit are rejected straight away 
+// instead of waiting, so that a slow dependency does not take over the Tomcat threads.
+public class Bulkhead {
+	
+	private final String name;
+	private final int maxConcurrentCalls;
+	private final Semaphore permits;
+	private final AtomicLong rejectedCalls = new AtomicLong();
+
+	public Bulkhead(String name, int maxConcurrentCalls) {
+		this.name = name;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.permits = new Semaphore(maxConcurrentCalls);
+	}
+	
+	public boolean tryEnter() {
+		if (permits.tryAcquire()) {
+			return true;
+		}
+		rejectedCalls.incrementAndGet();
+		return false;
+	}
+	
+	public void exit() {
+		permits.release();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getMaxConcurrentCalls() {
+		return maxConcurrentCalls;
+	}
+	
+	public int getCallsInFlight() {
+		return maxConcurrentCalls - permits.availablePermits();
+	}
+
+	public long getRejectedCalls() {
+		return rejectedCalls.get();
+	}
+
+}
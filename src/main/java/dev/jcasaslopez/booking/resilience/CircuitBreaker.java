@@ -0,0 +1,88 @@
+package dev.jcasaslopez.booking.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dev.jcasaslopez.booking.enums.CircuitState;
+
+// Circuit breaker por fallos consecutivos. Tras failureThreshold fallos seguidos se abre y 
+// rechaza las llamadas durante openDurationMs; después deja pasar una única llamada de prueba 
+// (HALF_OPEN): si va bien se cierra, y si falla se vuelve a abrir.
+//
+// Circuit breaker based on consecutive failures. After failureThreshold failures in a row it 
+// opens and rejects calls for openDurationMs; then it lets a single probe call through 
+// (HALF_OPEN): if it succeeds the circuit closes, and if it fails it opens again.
+public class CircuitBreaker {
+	
+	private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+	
+	private final String name;
+	private final int failureThreshold;
+	private final long openDurationMs;
+	
+	private CircuitState state = CircuitState.CLOSED;
+	private int consecutiveFailures;
+	private long openedAt;
+	private boolean probeInFlight;
+	private long rejectedCalls;
+
+	public CircuitBreaker(String name, int failureThreshold, long openDurationMs) {
+		this.name = name;
+		this.failureThreshold = failureThreshold;
+		this.openDurationMs = openDurationMs;
+	}
+	
+	public synchronized boolean tryAcquirePermission() {
+		if (state == CircuitState.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+			state = CircuitState.HALF_OPEN;
+			logger.info("Circuit breaker {} is HALF_OPEN, sending a probe call", name);
+		}
+		if (state == CircuitState.CLOSED) {
+			return true;
+		}
+		if (state == CircuitState.HALF_OPEN && !probeInFlight) {
+			probeInFlight = true;
+			return true;
+		}
+		rejectedCalls++;
+		return false;
+	}
+	
+	public synchronized void onSuccess() {
+		if (state != CircuitState.CLOSED) {
+			logger.info("Circuit breaker {} is CLOSED again", name);
+		}
+		state = CircuitState.CLOSED;
+		consecutiveFailures = 0;
+		probeInFlight = false;
+	}
+	
+	public synchronized void onFailure() {
+		consecutiveFailures++;
+		probeInFlight = false;
+		if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+			if (state != CircuitState.OPEN) {
+				logger.warn("Circuit breaker {} is OPEN after {} consecutive failures", name, consecutiveFailures);
+			}
+			state = CircuitState.OPEN;
+			openedAt = System.currentTimeMillis();
+		}
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public synchronized CircuitState getState() {
+		return state;
+	}
+
+	public synchronized int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+
+	public synchronized long getRejectedCalls() {
+		return rejectedCalls;
+	}
+
+}
@@ -0,0 +1,72 @@
+package dev.jcasaslopez.booking.resilience;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Agrupa las llamadas simultáneas con la misma clave: la primera ejecuta la llamada en su propio
+// hilo y las que llegan mientras tanto esperan y reciben su mismo resultado (o su misma
+// excepción). Cuando la llamada termina, la clave se libera y la siguiente vuelve a ejecutarla;
+// guardar el resultado más tiempo es cosa de una caché, no de esta clase.
+//
+// Groups concurrent calls with the same key: the first one runs the call on its own thread and
+// those arriving meanwhile wait and receive its same result (or its same exception). When the
+// call finishes, the key is released and the next one runs it again; keeping the result for
+// longer is a cache's job, not this class's.
+public class SingleFlight<K, V> {
+
+	private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicLong sharedCalls = new AtomicLong();
+
+	public V execute(K key, Supplier<V> call) {
+		CompletableFuture<V> flight = new CompletableFuture<>();
+		CompletableFuture<V> existingFlight = inFlight.putIfAbsent(key, flight);
+		if (existingFlight != null) {
+			sharedCalls.incrementAndGet();
+			return join(existingFlight);
+		}
+		try {
+			V result = call.get();
+			inFlight.remove(key, flight);
+			flight.complete(result);
+			return result;
+		} catch (RuntimeException | Error ex) {
+			inFlight.remove(key, flight);
+			flight.completeExceptionally(ex);
+			throw ex;
+		}
+	}
+
+	// Las excepciones de la llamada se relanzan tal cual, para que quien espera las gestione
+	// igual que quien la ejecutó.
+	//
+	// The call's exceptions are rethrown as they are, so that waiting callers handle them just
+	// like the caller that ran it.
+	private V join(CompletableFuture<V> flight) {
+		try {
+			return flight.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	public int getCallsInFlight() {
+		return inFlight.size();
+	}
+
+	// Llamadas que no se ejecutaron porque recibieron el resultado de otra.
+	//
+	// Calls that were not run because they received the result of another one.
+	public long getSharedCalls() {
+		return sharedCalls.get();
+	}
+
+}
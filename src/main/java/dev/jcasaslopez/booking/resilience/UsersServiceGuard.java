@@ -0,0 +1,97 @@
+package dev.jcasaslopez.booking.resilience;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import dev.jcasaslopez.booking.dto.UsersServiceResilienceDto;
+import dev.jcasaslopez.booking.exception.ServiceNotAvailableException;
+
+// Todas las llamadas al servicio de usuarios pasan por aquí. Comparten un circuit breaker, porque
+// todas dependen de la salud del mismo servicio, pero la autenticación y las notificaciones tienen
+// cada una su bulkhead: una avalancha de notificaciones no puede dejar sin hueco a la autenticación,
+// ni al revés. Cuando el circuito está abierto o el bulkhead lleno, la llamada falla al momento con
+// ServiceNotAvailableException.
+// Los errores 4xx son respuestas válidas de un servicio sano, así que no cuentan como fallos.
+//
+// Every call to the user service goes through here. They share a circuit breaker, because they all
+// depend on the health of the same service, but authentication and notifications each have their
+// own bulkhead: a flood of notifications cannot leave authentication without room, nor the other
+// way round. When the circuit is open or the bulkhead is full, the call fails straight away with 
+// ServiceNotAvailableException.
+// 4xx errors are valid responses from a healthy service, so they do not count as failures.
+@Component
+public class UsersServiceGuard {
+	
+	private final CircuitBreaker circuitBreaker;
+	private final Bulkhead authenticationBulkhead;
+	private final Bulkhead notificationsBulkhead;
+
+	public UsersServiceGuard(@Value("${users.service.circuit-breaker.failure-threshold}") int failureThreshold,
+			@Value("${users.service.circuit-breaker.open-duration-ms}") long openDurationMs,
+			@Value("${users.service.bulkhead.authentication}") int maxAuthenticationCalls,
+			@Value("${users.service.bulkhead.notifications}") int maxNotificationCalls) {
+		this.circuitBreaker = new CircuitBreaker("users-service", failureThreshold, openDurationMs);
+		this.authenticationBulkhead = new Bulkhead("authentication", maxAuthenticationCalls);
+		this.notificationsBulkhead = new Bulkhead("notifications", maxNotificationCalls);
+	}
+	
+	public <T> T callForAuthentication(Supplier<T> call) {
+		return call(authenticationBulkhead, call, result -> false);
+	}
+	
+	// "isFailure" permite contar como fallo una respuesta que no lanza excepción (por ejemplo, un 
+	// 5xx leído con exchange()).
+	//
+	// "isFailure" allows a response that does not throw an exception (for example, a 5xx read with 
+	// exchange()) to count as a failure.
+	public <T> T callForNotifications(Supplier<T> call, Predicate<T> isFailure) {
+		return call(notificationsBulkhead, call, isFailure);
+	}
+	
+	// El bulkhead se ocupa antes de pedir permiso al circuit breaker, para que una llamada de 
+	// prueba nunca se quede sin ejecutar por falta de hueco.
+	//
+	// The bulkhead is entered before asking the circuit breaker for permission, so that a probe 
+	// call is never left unexecuted for lack of room.
+	private <T> T call(Bulkhead bulkhead, Supplier<T> call, Predicate<T> isFailure) {
+		if (!bulkhead.tryEnter()) {
+			throw new ServiceNotAvailableException("Too many concurrent " + bulkhead.getName() 
+					+ " calls to the user service");
+		}
+		try {
+			if (!circuitBreaker.tryAcquirePermission()) {
+				throw new ServiceNotAvailableException("The user service is temporarily unavailable");
+			}
+			T result;
+			try {
+				result = call.get();
+			} catch (HttpClientErrorException ex) {
+				circuitBreaker.onSuccess();
+				throw ex;
+			} catch (RuntimeException ex) {
+				circuitBreaker.onFailure();
+				throw ex;
+			}
+			if (isFailure.test(result)) {
+				circuitBreaker.onFailure();
+			} else {
+				circuitBreaker.onSuccess();
+			}
+			return result;
+		} finally {
+			bulkhead.exit();
+		}
+	}
+	
+	public UsersServiceResilienceDto status() {
+		return new UsersServiceResilienceDto(circuitBreaker.getState(), circuitBreaker.getConsecutiveFailures(),
+				circuitBreaker.getRejectedCalls(), authenticationBulkhead.getCallsInFlight(), 
+				authenticationBulkhead.getRejectedCalls(), notificationsBulkhead.getCallsInFlight(),
+				notificationsBulkhead.getRejectedCalls());
+	}
+
+}
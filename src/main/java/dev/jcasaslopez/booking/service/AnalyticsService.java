@@ -0,0 +1,18 @@
+package dev.jcasaslopez.booking.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import dev.jcasaslopez.booking.dto.UtilizationDto;
+import dev.jcasaslopez.booking.enums.UtilizationGranularity;
+
+public interface AnalyticsService {
+	
+	// Devuelve la ocupación de cada aula entre "from" y "to" (ambos incluidos), por día o por 
+	// semana, comparando los minutos reservados con los minutos de apertura.
+	//
+	// Returns the utilization of each classroom between "from" and "to" (both included), by day 
+	// or by week, comparing booked minutes against opening minutes.
+	List<UtilizationDto> utilizationByClassroom(LocalDate from, LocalDate to, UtilizationGranularity granularity);
+
+}
@@ -0,0 +1,94 @@
+package dev.jcasaslopez.booking.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.jcasaslopez.booking.dto.ClassroomDto;
+import dev.jcasaslopez.booking.dto.UtilizationDto;
+import dev.jcasaslopez.booking.enums.UtilizationGranularity;
+import dev.jcasaslopez.booking.exception.InvalidPeriodException;
+import dev.jcasaslopez.booking.model.ClassroomDailyUsage;
+import dev.jcasaslopez.booking.model.ClassroomCatalogue;
+import dev.jcasaslopez.booking.model.OpeningHours;
+import dev.jcasaslopez.booking.model.WeeklySchedule;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+
+// Los minutos reservados se calculan con una sola consulta agregada para todas las aulas y todo
+// el período; los minutos de apertura salen de WeeklySchedule, sin consultar la base de datos.
+// La vista semanal se obtiene sumando las filas diarias, que ya son pocas (aulas × días).
+//
+// Booked minutes are computed with a single aggregate query for all classrooms and the whole
+// period; opening minutes come from WeeklySchedule, without querying the database. The weekly 
+// view is obtained by adding up the daily rows, which are already few (classrooms × days).
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+	
+	private static final Logger logger = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+	
+	private BookingRepository bookingRepository;
+	private ClassroomCatalogue classroomCatalogue;
+	private WeeklySchedule weeklySchedule;
+
+	public AnalyticsServiceImpl(BookingRepository bookingRepository, ClassroomCatalogue classroomCatalogue,
+			WeeklySchedule weeklySchedule) {
+		this.bookingRepository = bookingRepository;
+		this.classroomCatalogue = classroomCatalogue;
+		this.weeklySchedule = weeklySchedule;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<UtilizationDto> utilizationByClassroom(LocalDate from, LocalDate to, UtilizationGranularity granularity) {
+		if (from.isAfter(to)) {
+			throw new InvalidPeriodException("'from' (" + from + ") must not be after 'to' (" + to + ")");
+		}
+		logger.info("Computing classroom utilization from {} to {} by {}", from, to, granularity);
+		
+		Map<Integer, Map<LocalDate, Long>> bookedMinutes = new HashMap<>();
+		for (ClassroomDailyUsage usage : bookingRepository.sumBookedMinutesByClassroomAndDay(
+				from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+			bookedMinutes.computeIfAbsent(usage.idClassroom(), id -> new HashMap<>())
+				.put(usage.date(), usage.bookedMinutes());
+		}
+		
+		List<UtilizationDto> utilization = new ArrayList<>();
+		for (ClassroomDto classroom : classroomCatalogue.snapshot().all()) {
+			Map<LocalDate, Long> classroomMinutes = bookedMinutes.getOrDefault(classroom.getIdClassroom(), Map.of());
+			
+			// Clave: el día, o el lunes de la semana. Valor: {minutos reservados, minutos de apertura}.
+			//
+			// Key: the day, or the Monday of the week. Value: {booked minutes, opening minutes}.
+			Map<LocalDate, long[]> periods = new LinkedHashMap<>();
+			for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+				LocalDate periodStart = granularity == UtilizationGranularity.WEEK ? 
+						date.with(DayOfWeek.MONDAY) : date;
+				long[] minutes = periods.computeIfAbsent(periodStart, d -> new long[2]);
+				minutes[0] += classroomMinutes.getOrDefault(date, 0L);
+				minutes[1] += openingMinutes(date);
+			}
+			periods.forEach((periodStart, minutes) -> utilization.add(
+					new UtilizationDto(classroom.getIdClassroom(), periodStart, minutes[0], minutes[1])));
+		}
+		return utilization;
+	}
+	
+	private long openingMinutes(LocalDate date) {
+		OpeningHours openingHours = weeklySchedule.getWeeklySchedule().get(date.getDayOfWeek());
+		if (openingHours == null || !openingHours.isOpen()) {
+			return 0;
+		}
+		return Duration.between(openingHours.getOpeningTime(), openingHours.getClosingTime()).toMinutes();
+	}
+
+}
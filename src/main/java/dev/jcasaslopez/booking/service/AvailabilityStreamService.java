@@ -0,0 +1,13 @@
+package dev.jcasaslopez.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface AvailabilityStreamService {
+	
+	SseEmitter subscribe(List<Integer> idClassrooms, LocalDateTime start, LocalDateTime finish);
+	int subscriberCount();
+
+}
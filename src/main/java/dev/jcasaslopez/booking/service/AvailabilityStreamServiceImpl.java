@@ -0,0 +1,320 @@
+package dev.jcasaslopez.booking.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.jcasaslopez.booking.dto.AvailabilityChangeDto;
+import dev.jcasaslopez.booking.event.BookingCancelledEvent;
+import dev.jcasaslopez.booking.event.BookingCreatedEvent;
+import dev.jcasaslopez.booking.exception.InvalidSubscriptionException;
+import dev.jcasaslopez.booking.exception.NoSuchClassroomException;
+import dev.jcasaslopez.booking.exception.ServiceNotAvailableException;
+import dev.jcasaslopez.booking.model.ClassroomCatalogue;
+import jakarta.annotation.PreDestroy;
+
+// Envía por Server-Sent Events los cambios de disponibilidad de las aulas a los clientes 
+// suscritos, en lugar de que estos consulten las búsquedas cada pocos segundos.
+// Las conexiones abiertas no ocupan hilos: SseEmitter usa el soporte asíncrono de Servlet. Los
+// cambios llegan como eventos de reserva y cancelación después del commit, se serializan una sola
+// vez y se encolan a los suscriptores del aula cuyo periodo se solapa con el cambio. El reparto 
+// lo hacen availability.stream.threads hilos; cada aula va siempre al mismo hilo, así que sus 
+// cambios llegan en orden.
+// Cada suscriptor tiene su propia cola de availability.stream.queue-size eventos, que vacían los 
+// availability.stream.writer-threads hilos escritores, un suscriptor cada vez. Un cliente que no 
+// lee a tiempo solo retiene al escritor que le está escribiendo, nunca el reparto ni a los demás
+// suscriptores; si su cola se llena, se cierra su conexión y se descartan sus eventos pendientes
+// (el cliente puede volver a suscribirse y consultar las búsquedas para ponerse al día).
+// Cada availability.stream.heartbeat-ms se envía un comentario a todas las conexiones, para 
+// detectar y cerrar las de clientes que ya se han ido. Se admiten como mucho 
+// availability.stream.max-subscribers conexiones a la vez.
+//
+// Sends classroom availability changes to subscribed clients via Server-Sent Events, instead of 
+// them polling the searches every few seconds.
+// Open connections do not take up threads: SseEmitter uses Servlet async support. Changes arrive 
+// as booking and cancellation events after commit, are serialized only once and queued to the 
+// subscribers of the classroom whose period overlaps the change. Fan-out is done by 
+// availability.stream.threads threads; each classroom always goes to the same thread, so its 
+// changes arrive in order.
+// Each subscriber has its own queue of availability.stream.queue-size events, drained by the 
+// availability.stream.writer-threads writer threads, one subscriber at a time. A client that does
+// not read in time only holds the writer currently writing to it, never the fan-out or the other 
+// subscribers; if its queue fills up, its connection is closed and its pending events are 
+// discarded (the client can subscribe again and query the searches to catch up).
+// Every availability.stream.heartbeat-ms a comment is sent to all connections, to detect and 
+// close those of clients that have gone away. At most availability.stream.max-subscribers 
+// connections are allowed at a time.
+@Service
+public class AvailabilityStreamServiceImpl implements AvailabilityStreamService {
+	
+	private static final Logger logger = LoggerFactory.getLogger(AvailabilityStreamServiceImpl.class);
+	
+	private ClassroomCatalogue classroomCatalogue;
+	private ObjectMapper objectMapper;
+	private int maxSubscribers;
+	private long timeoutMs;
+	private long heartbeatMs;
+	private int queueSize;
+	
+	private final Map<Integer, Set<Subscription>> subscriptionsByClassroom = new ConcurrentHashMap<>();
+	private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger subscriberCount = new AtomicInteger();
+	private final ExecutorService[] fanOutThreads;
+	private final ExecutorService writers;
+	private final ScheduledExecutorService heartbeat;
+	
+	public AvailabilityStreamServiceImpl(ClassroomCatalogue classroomCatalogue, ObjectMapper objectMapper,
+			@Value("${availability.stream.threads}") int threads,
+			@Value("${availability.stream.max-subscribers}") int maxSubscribers,
+			@Value("${availability.stream.timeout-ms}") long timeoutMs,
+			@Value("${availability.stream.heartbeat-ms}") long heartbeatMs,
+			@Value("${availability.stream.writer-threads}") int writerThreads,
+			@Value("${availability.stream.queue-size}") int queueSize) {
+		this.classroomCatalogue = classroomCatalogue;
+		this.objectMapper = objectMapper;
+		this.maxSubscribers = maxSubscribers;
+		this.timeoutMs = timeoutMs;
+		this.heartbeatMs = heartbeatMs;
+		this.queueSize = queueSize;
+		this.fanOutThreads = new ExecutorService[threads];
+		for (int i = 0; i < threads; i++) {
+			String name = "availability-stream-" + (i + 1);
+			fanOutThreads[i] = Executors.newSingleThreadExecutor(runnable -> daemonThread(runnable, name));
+		}
+		AtomicInteger writerNumber = new AtomicInteger();
+		this.writers = Executors.newFixedThreadPool(writerThreads, 
+				runnable -> daemonThread(runnable, "availability-stream-writer-" + writerNumber.incrementAndGet()));
+		this.heartbeat = Executors.newSingleThreadScheduledExecutor(
+				runnable -> daemonThread(runnable, "availability-stream-heartbeat"));
+		this.heartbeat.scheduleWithFixedDelay(this::sendHeartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+	}
+	
+	private static Thread daemonThread(Runnable runnable, String name) {
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+	
+	// El cierre ordenado de Tomcat espera a que terminen las peticiones en curso, y un stream 
+	// abierto no termina nunca; por eso los streams se cierran en cuanto empieza el cierre del 
+	// contexto, antes de que se pare el servidor web.
+	//
+	// Tomcat's graceful shutdown waits for in-flight requests to finish, and an open stream never
+	// does; so streams are closed as soon as the context starts closing, before the web server 
+	// is stopped.
+	@EventListener(ContextClosedEvent.class)
+	public void closeSubscriptions() {
+		subscriptions.forEach(subscription -> subscription.emitter.complete());
+	}
+	
+	@PreDestroy
+	public void stop() {
+		heartbeat.shutdownNow();
+		for (ExecutorService fanOutThread : fanOutThreads) {
+			fanOutThread.shutdownNow();
+		}
+		writers.shutdownNow();
+		subscriptions.forEach(subscription -> subscription.emitter.complete());
+	}
+	
+	private static final class Subscription {
+		private final SseEmitter emitter;
+		private final Set<Integer> idClassrooms;
+		private final LocalDateTime start;
+		private final LocalDateTime finish;
+		private final AtomicBoolean closed = new AtomicBoolean();
+		private final BlockingQueue<Set<DataWithMediaType>> pending;
+		
+		// true mientras un escritor está vaciando la cola, para que nunca haya dos a la vez.
+		//
+		// true while a writer is draining the queue, so that there are never two at a time.
+		private final AtomicBoolean draining = new AtomicBoolean();
+		
+		private Subscription(SseEmitter emitter, Set<Integer> idClassrooms, LocalDateTime start, 
+				LocalDateTime finish, int queueSize) {
+			this.emitter = emitter;
+			this.idClassrooms = idClassrooms;
+			this.start = start;
+			this.finish = finish;
+			this.pending = new ArrayBlockingQueue<>(queueSize);
+		}
+		
+		private boolean overlaps(LocalDateTime changeStart, LocalDateTime changeFinish) {
+			return start.isBefore(changeFinish) && finish.isAfter(changeStart);
+		}
+	}
+
+	@Override
+	public SseEmitter subscribe(List<Integer> idClassrooms, LocalDateTime start, LocalDateTime finish) {
+		if (idClassrooms == null || idClassrooms.isEmpty()) {
+			throw new InvalidSubscriptionException("At least one classroom is required");
+		}
+		if (start == null || finish == null || !finish.isAfter(start)) {
+			throw new InvalidSubscriptionException("Finish time must be after start time");
+		}
+		for (int idClassroom : idClassrooms) {
+			if (!classroomCatalogue.snapshot().contains(idClassroom)) {
+				logger.warn("Classroom with ID= {} not found", idClassroom);
+				throw new NoSuchClassroomException("Classroom with ID= " + idClassroom + " not found");
+			}
+		}
+		if (subscriberCount.incrementAndGet() > maxSubscribers) {
+			subscriberCount.decrementAndGet();
+			logger.warn("Availability stream subscription rejected: {} subscribers already connected", maxSubscribers);
+			throw new ServiceNotAvailableException("Too many availability stream subscribers, try again later");
+		}
+		
+		SseEmitter emitter = createEmitter(timeoutMs);
+		Subscription subscription = new Subscription(emitter, Set.copyOf(idClassrooms), start, finish, queueSize);
+		subscriptions.add(subscription);
+		subscription.idClassrooms.forEach(idClassroom -> subscriptionsByClassroom
+				.computeIfAbsent(idClassroom, id -> ConcurrentHashMap.newKeySet())
+				.add(subscription));
+		emitter.onCompletion(() -> unsubscribe(subscription));
+		emitter.onTimeout(emitter::complete);
+		emitter.onError(ex -> unsubscribe(subscription));
+		logger.info("Availability stream subscription for classrooms {} from {} to {}", idClassrooms, start, finish);
+		return emitter;
+	}
+	
+	// Los tests lo sustituyen para simular clientes que no leen a tiempo.
+	//
+	// Tests override it to simulate clients that do not read in time.
+	SseEmitter createEmitter(long timeoutMs) {
+		return new SseEmitter(timeoutMs);
+	}
+	
+	@Override
+	public int subscriberCount() {
+		return subscriberCount.get();
+	}
+	
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onBookingCreated(BookingCreatedEvent event) {
+		publish("book", new AvailabilityChangeDto(event.idClassroom(), event.start(), event.finish(), false));
+	}
+	
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onBookingCancelled(BookingCancelledEvent event) {
+		publish("cancel", new AvailabilityChangeDto(event.idClassroom(), event.start(), event.finish(), true));
+	}
+	
+	private void publish(String eventName, AvailabilityChangeDto change) {
+		Set<Subscription> classroomSubscriptions = subscriptionsByClassroom.get(change.getIdClassroom());
+		if (classroomSubscriptions == null || classroomSubscriptions.isEmpty()) {
+			return;
+		}
+		fanOutThreads[Math.floorMod(change.getIdClassroom(), fanOutThreads.length)].execute(() -> {
+			Set<DataWithMediaType> sseEvent;
+			try {
+				sseEvent = SseEmitter.event()
+						.name(eventName)
+						.data(objectMapper.writeValueAsString(change), MediaType.APPLICATION_JSON)
+						.build();
+			} catch (JsonProcessingException ex) {
+				logger.error("Availability change {} could not be serialized: {}", change, ex.getMessage());
+				return;
+			}
+			int queued = 0;
+			for (Subscription subscription : classroomSubscriptions) {
+				if (subscription.overlaps(change.getStart(), change.getFinish()) && enqueue(subscription, sseEvent)) {
+					queued++;
+				}
+			}
+			logger.debug("Availability change {} queued to {} subscribers", change, queued);
+		});
+	}
+	
+	private void sendHeartbeat() {
+		Set<DataWithMediaType> comment = SseEmitter.event().comment("heartbeat").build();
+		subscriptions.forEach(subscription -> enqueue(subscription, comment));
+	}
+	
+	private boolean enqueue(Subscription subscription, Set<DataWithMediaType> sseEvent) {
+		if (subscription.closed.get()) {
+			return false;
+		}
+		if (!subscription.pending.offer(sseEvent)) {
+			logger.warn("Availability stream subscriber too slow, {} events pending: closing its connection", 
+					queueSize);
+			subscription.pending.clear();
+			subscription.emitter.complete();
+			unsubscribe(subscription);
+			return false;
+		}
+		if (subscription.draining.compareAndSet(false, true)) {
+			writers.execute(() -> drain(subscription));
+		}
+		return true;
+	}
+	
+	// Tras soltar "draining" se vuelve a mirar la cola: un evento encolado justo antes vio 
+	// "draining" a true y no lanzó otro escritor.
+	//
+	// After releasing "draining" the queue is checked again: an event queued just before saw
+	// "draining" as true and did not start another writer.
+	private void drain(Subscription subscription) {
+		do {
+			Set<DataWithMediaType> sseEvent;
+			while ((sseEvent = subscription.pending.poll()) != null) {
+				if (!send(subscription, sseEvent)) {
+					subscription.pending.clear();
+					return;
+				}
+			}
+			subscription.draining.set(false);
+		} while (!subscription.pending.isEmpty() && subscription.draining.compareAndSet(false, true));
+	}
+	
+	private boolean send(Subscription subscription, Set<DataWithMediaType> sseEvent) {
+		try {
+			subscription.emitter.send(sseEvent);
+			return true;
+		} catch (IOException | IllegalStateException ex) {
+			logger.debug("Availability stream subscriber gone: {}", ex.getMessage());
+			subscription.emitter.completeWithError(ex);
+			unsubscribe(subscription);
+			return false;
+		}
+	}
+	
+	private void unsubscribe(Subscription subscription) {
+		if (!subscription.closed.compareAndSet(false, true)) {
+			return;
+		}
+		subscriptions.remove(subscription);
+		subscription.idClassrooms.forEach(idClassroom -> {
+			Set<Subscription> classroomSubscriptions = subscriptionsByClassroom.get(idClassroom);
+			if (classroomSubscriptions != null) {
+				classroomSubscriptions.remove(subscription);
+			}
+		});
+		subscriberCount.decrementAndGet();
+	}
+}
@@ -0,0 +1,19 @@
+package dev.jcasaslopez.booking.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import dev.jcasaslopez.booking.enums.BookingFileFormat;
+
+public interface BookingExportService {
+	
+	// Escribe en "outputStream" todas las reservas que empiezan dentro del período dado, a medida 
+	// que se leen de la base de datos. Devuelve el número de reservas exportadas.
+	//
+	// Writes every booking starting within the given period to "outputStream", as they are read 
+	// from the database. Returns the number of bookings exported.
+	long exportBookings(LocalDateTime start, LocalDateTime finish, BookingFileFormat format, 
+			OutputStream outputStream) throws IOException;
+
+}
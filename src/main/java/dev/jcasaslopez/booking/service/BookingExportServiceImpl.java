@@ -0,0 +1,156 @@
+package dev.jcasaslopez.booking.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.enums.BookingFileFormat;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+import jakarta.persistence.EntityManager;
+
+// Exporta las reservas sin cargarlas todas en memoria: se recorren con el Stream de 
+// BookingRepository.streamBookingsByPeriod(), cada fila se escribe en cuanto se lee y la entidad
+// se separa (detach) del contexto de persistencia a continuación. Así, el consumo de memoria no
+// depende del número de reservas exportadas.
+//
+// Exports bookings without loading all of them into memory: they are walked through with the
+// BookingRepository.streamBookingsByPeriod() Stream, each row is written as soon as it is read,
+// and the entity is then detached from the persistence context. This way, memory usage does not
+// depend on the number of bookings exported.
+@Service
+public class BookingExportServiceImpl implements BookingExportService {
+	
+	private static final Logger logger = LoggerFactory.getLogger(BookingExportServiceImpl.class);
+	
+	private static final String CSV_HEADER = "idBooking,idClassroom,idUser,start,finish,timestamp,status,comment";
+	
+	// Cada cuántas filas se vacía el buffer hacia el cliente.
+	//
+	// How many rows are written before flushing the buffer to the client.
+	private static final int FLUSH_INTERVAL = 1000;
+	
+	// Jackson escribe por defecto un espacio entre valores raíz; aquí el separador es el salto de
+	// línea que writeJsonLine() añade a cada fila, así que se desactiva.
+	//
+	// By default Jackson writes a space between root values; here the separator is the line break
+	// writeJsonLine() adds to each row, so it is disabled.
+	private final JsonFactory jsonFactory = new JsonFactoryBuilder().rootValueSeparator((String) null).build();
+	
+	private BookingRepository bookingRepository;
+	private EntityManager entityManager;
+
+	public BookingExportServiceImpl(BookingRepository bookingRepository, EntityManager entityManager) {
+		this.bookingRepository = bookingRepository;
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long exportBookings(LocalDateTime start, LocalDateTime finish, BookingFileFormat format,
+			OutputStream outputStream) throws IOException {
+		logger.info("Exporting bookings from {} to {} as {}", start, finish, format);
+		Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		JsonGenerator jsonGenerator = jsonFactory.createGenerator(writer);
+		long exportedBookings = 0;
+		
+		if (format == BookingFileFormat.CSV) {
+			writer.write(CSV_HEADER);
+			writer.write('\n');
+		}
+		
+		try (Stream<Booking> bookings = bookingRepository.streamBookingsByPeriod(start, finish)) {
+			Iterator<Booking> iterator = bookings.iterator();
+			while (iterator.hasNext()) {
+				Booking booking = iterator.next();
+				if (format == BookingFileFormat.CSV) {
+					writeCsvRow(writer, booking);
+				} else {
+					writeJsonLine(jsonGenerator, booking);
+				}
+				entityManager.detach(booking);
+				exportedBookings++;
+				if (exportedBookings % FLUSH_INTERVAL == 0) {
+					jsonGenerator.flush();
+					writer.flush();
+				}
+			}
+		}
+		jsonGenerator.flush();
+		writer.flush();
+		logger.info("Exported {} bookings from {} to {}", exportedBookings, start, finish);
+		return exportedBookings;
+	}
+	
+	private void writeCsvRow(Writer writer, Booking booking) throws IOException {
+		writer.write(String.valueOf(booking.getIdBooking()));
+		writer.write(',');
+		writer.write(String.valueOf(booking.getIdClassroom()));
+		writer.write(',');
+		writer.write(String.valueOf(booking.getIdUser()));
+		writer.write(',');
+		writer.write(toText(booking.getStart()));
+		writer.write(',');
+		writer.write(toText(booking.getFinish()));
+		writer.write(',');
+		writer.write(toText(booking.getTimestamp()));
+		writer.write(',');
+		writer.write(booking.getStatus() != null ? booking.getStatus().name() : "");
+		writer.write(',');
+		writer.write(escapeCsv(booking.getComment()));
+		writer.write('\n');
+	}
+	
+	private void writeJsonLine(JsonGenerator jsonGenerator, Booking booking) throws IOException {
+		jsonGenerator.writeStartObject();
+		jsonGenerator.writeNumberField("idBooking", booking.getIdBooking());
+		jsonGenerator.writeNumberField("idClassroom", booking.getIdClassroom());
+		jsonGenerator.writeNumberField("idUser", booking.getIdUser());
+		jsonGenerator.writeStringField("start", toNullableText(booking.getStart()));
+		jsonGenerator.writeStringField("finish", toNullableText(booking.getFinish()));
+		jsonGenerator.writeStringField("timestamp", toNullableText(booking.getTimestamp()));
+		jsonGenerator.writeStringField("status", booking.getStatus() != null ? booking.getStatus().name() : null);
+		jsonGenerator.writeStringField("comment", booking.getComment());
+		jsonGenerator.writeEndObject();
+		jsonGenerator.writeRaw('\n');
+	}
+	
+	private String toText(LocalDateTime dateTime) {
+		return dateTime != null ? dateTime.toString() : "";
+	}
+	
+	private String toNullableText(LocalDateTime dateTime) {
+		return dateTime != null ? dateTime.toString() : null;
+	}
+	
+	// Los comentarios pueden contener comas, comillas o saltos de línea, así que se entrecomillan
+	// y se duplican sus comillas, según RFC 4180.
+	//
+	// Comments may contain commas, quotes or line breaks, so they are quoted and their quotes
+	// are doubled, as per RFC 4180.
+	private String escapeCsv(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+			return "\"" + value.replace("\"", "\"\"") + "\"";
+		}
+		return value;
+	}
+
+}
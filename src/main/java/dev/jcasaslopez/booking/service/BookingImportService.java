@@ -0,0 +1,18 @@
+package dev.jcasaslopez.booking.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import dev.jcasaslopez.booking.dto.BookingImportReportDto;
+import dev.jcasaslopez.booking.enums.BookingFileFormat;
+
+public interface BookingImportService {
+	
+	// Guarda las reservas leídas de "inputStream" que sean válidas y no se solapen con otras, y 
+	// devuelve cuántas se han guardado junto con las filas rechazadas y su motivo.
+	//
+	// Stores the bookings read from "inputStream" that are valid and do not overlap with others,
+	// and returns how many have been stored along with the rejected rows and the reason.
+	BookingImportReportDto importBookings(InputStream inputStream, BookingFileFormat format) throws IOException;
+
+}
@@ -0,0 +1,360 @@
+package dev.jcasaslopez.booking.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.jcasaslopez.booking.dto.BookingDto;
+import dev.jcasaslopez.booking.dto.BookingImportRejectionDto;
+import dev.jcasaslopez.booking.dto.BookingImportReportDto;
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.entity.DailyOccupancyId;
+import dev.jcasaslopez.booking.enums.BookingFileFormat;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.exception.InvalidImportFileException;
+import dev.jcasaslopez.booking.model.BookingInterval;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+import dev.jcasaslopez.booking.slot.SlotManager;
+import dev.jcasaslopez.booking.util.CsvRecordReader;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Importa muchas reservas de una vez (por ejemplo, el horario de un cuatrimestre) sin pasar por
+// book() fila a fila:
+// 1. Cada fila se valida con las mismas reglas que BookingDto aplica en POST /bookings/book, y 
+//    se rechaza si cae fuera del horario de apertura, como en book().
+// 2. Las filas válidas se agrupan por aula y cada aula se comprueba en paralelo: una sola consulta
+//    trae las reservas activas del aula para todo el período del fichero, y las filas se comparan
+//    con ellas y con las filas anteriores del mismo fichero (gana la primera).
+// 3. Las filas aceptadas se insertan con JDBC en lotes, en una sola transacción que también 
+//    actualiza DailyOccupancy. Esa transacción bloquea primero los días afectados de cada aula
+//    (igual que book()) y vuelve a comprobar las filas contra las reservas activas, por si se ha
+//    confirmado alguna reserva entre la comprobación del paso 2 y el bloqueo.
+// No se envían notificaciones: el usuario que importa no es quien reserva, y miles de peticiones
+// HTTP al servicio de usuarios dominarían el tiempo de la importación.
+//
+// Imports many bookings at once (for example, a term's timetable) without going through book()
+// row by row:
+// 1. Each row is validated with the same rules BookingDto applies in POST /bookings/book, and it
+//    is rejected if it falls outside opening hours, as in book().
+// 2. Valid rows are grouped by classroom and each classroom is checked in parallel: a single query
+//    fetches the classroom's active bookings for the whole period of the file, and rows are
+//    compared against them and against earlier rows of the same file (the first one wins).
+// 3. Accepted rows are inserted with JDBC in batches, in a single transaction that also updates
+//    DailyOccupancy. That transaction first locks the affected days of each classroom (just like
+//    book()) and checks the rows again against the active bookings, in case a booking was 
+//    committed between the check in step 2 and the lock.
+// No notifications are sent: the user importing is not the one booking, and thousands of HTTP
+// requests to the user service would dominate the import time.
+@Service
+public class BookingImportServiceImpl implements BookingImportService {
+	
+	private static final Logger logger = LoggerFactory.getLogger(BookingImportServiceImpl.class);
+	
+	private static final String INSERT_BOOKING = """
+			INSERT INTO bookings (idClassroom, idUser, start, finish, timestamp, comment, status)
+			VALUES (?, ?, ?, ?, ?, ?, ?)
+			""";
+	
+	private static final List<String> REQUIRED_CSV_COLUMNS = List.of("idClassroom", "idUser", "start", "finish");
+	
+	private BookingRepository bookingRepository;
+	private DailyOccupancyService dailyOccupancyService;
+	private SlotManager slotManager;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate transactionTemplate;
+	private Validator validator;
+	private ObjectMapper objectMapper;
+	private ExecutorService classroomCheckExecutor;
+	private int batchSize;
+
+	public BookingImportServiceImpl(BookingRepository bookingRepository, 
+			DailyOccupancyService dailyOccupancyService, SlotManager slotManager, JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager, Validator validator, ObjectMapper objectMapper,
+			@Value("${bookings.import.parallelism}") int parallelism, 
+			@Value("${bookings.import.batch-size}") int batchSize) {
+		this.bookingRepository = bookingRepository;
+		this.dailyOccupancyService = dailyOccupancyService;
+		this.slotManager = slotManager;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.validator = validator;
+		this.objectMapper = objectMapper;
+		this.classroomCheckExecutor = Executors.newFixedThreadPool(parallelism);
+		this.batchSize = batchSize;
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		classroomCheckExecutor.shutdown();
+	}
+	
+	private record ImportRow(int row, BookingDto bookingDto) {}
+	
+	// Hueco ocupado en un aula: "row" es la fila del fichero que lo ocupa, o 0 si es una reserva
+	// que ya existía.
+	//
+	// Occupied slot in a classroom: "row" is the file row occupying it, or 0 if it is a booking
+	// that already existed.
+	private record OccupiedInterval(LocalDateTime finish, int row) {}
+	
+	private record ClassroomCheck(List<ImportRow> accepted, List<BookingImportRejectionDto> rejections) {}
+
+	@Override
+	public BookingImportReportDto importBookings(InputStream inputStream, BookingFileFormat format) throws IOException {
+		List<BookingImportRejectionDto> rejections = new ArrayList<>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+		List<ImportRow> rows = format == BookingFileFormat.CSV ? 
+				readCsv(reader, rejections) : readNdjson(reader, rejections);
+		logger.info("Importing {} bookings ({} rows could not be read)", rows.size(), rejections.size());
+		
+		Map<Integer, List<ImportRow>> validRowsByClassroom = new LinkedHashMap<>();
+		for (ImportRow importRow : rows) {
+			String violations = validate(importRow.bookingDto());
+			if (violations != null) {
+				rejections.add(new BookingImportRejectionDto(importRow.row(), violations));
+			} else if (!slotManager.isWithinOpeningHours(importRow.bookingDto().getStart(), 
+					importRow.bookingDto().getFinish())) {
+				rejections.add(new BookingImportRejectionDto(importRow.row(), "Classrooms are closed from " 
+						+ importRow.bookingDto().getStart() + " to " + importRow.bookingDto().getFinish()));
+			} else {
+				validRowsByClassroom.computeIfAbsent(importRow.bookingDto().getIdClassroom(), 
+						idClassroom -> new ArrayList<>()).add(importRow);
+			}
+		}
+		
+		List<ImportRow> accepted = new ArrayList<>();
+		for (ClassroomCheck check : checkClassroomsInParallel(validRowsByClassroom)) {
+			accepted.addAll(check.accepted());
+			rejections.addAll(check.rejections());
+		}
+		accepted = insertInBatches(accepted, rejections);
+		
+		rejections.sort(Comparator.comparingInt(BookingImportRejectionDto::getRow));
+		logger.info("Bookings import finished: {} imported, {} rejected", accepted.size(), rejections.size());
+		return new BookingImportReportDto(accepted.size(), rejections);
+	}
+	
+	// Las columnas se identifican por el nombre de la cabecera, así que se acepta tal cual un 
+	// fichero generado por la exportación (las columnas que sobran se ignoran).
+	//
+	// Columns are identified by the header name, so a file produced by the export is accepted
+	// as-is (extra columns are ignored).
+	private List<ImportRow> readCsv(BufferedReader reader, List<BookingImportRejectionDto> rejections) 
+			throws IOException {
+		CsvRecordReader csvReader = new CsvRecordReader(reader);
+		List<String> header = csvReader.readRecord();
+		if (header == null || !header.containsAll(REQUIRED_CSV_COLUMNS)) {
+			throw new InvalidImportFileException("The CSV header must include the columns " + REQUIRED_CSV_COLUMNS);
+		}
+		Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < header.size(); i++) {
+			columns.put(header.get(i).trim(), i);
+		}
+		
+		List<ImportRow> rows = new ArrayList<>();
+		int row = 0;
+		List<String> fields;
+		while ((fields = csvReader.readRecord()) != null) {
+			row++;
+			if (fields.size() == 1 && fields.get(0).isBlank()) {
+				continue;
+			}
+			try {
+				BookingDto bookingDto = new BookingDto();
+				bookingDto.setIdClassroom(Integer.valueOf(field(fields, columns, "idClassroom")));
+				bookingDto.setIdUser(Integer.valueOf(field(fields, columns, "idUser")));
+				bookingDto.setStart(LocalDateTime.parse(field(fields, columns, "start")));
+				bookingDto.setFinish(LocalDateTime.parse(field(fields, columns, "finish")));
+				String comment = columns.containsKey("comment") ? field(fields, columns, "comment") : "";
+				bookingDto.setComment(comment.isEmpty() ? null : comment);
+				rows.add(new ImportRow(row, bookingDto));
+			} catch (NumberFormatException | DateTimeParseException | IndexOutOfBoundsException ex) {
+				rejections.add(new BookingImportRejectionDto(row, "Malformed row: " + ex.getMessage()));
+			}
+		}
+		return rows;
+	}
+	
+	private String field(List<String> fields, Map<String, Integer> columns, String column) {
+		return fields.get(columns.get(column)).trim();
+	}
+	
+	private List<ImportRow> readNdjson(BufferedReader reader, List<BookingImportRejectionDto> rejections) 
+			throws IOException {
+		List<ImportRow> rows = new ArrayList<>();
+		int row = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			row++;
+			if (line.isBlank()) {
+				continue;
+			}
+			try {
+				rows.add(new ImportRow(row, objectMapper.readValue(line, BookingDto.class)));
+			} catch (JsonProcessingException ex) {
+				rejections.add(new BookingImportRejectionDto(row, "Malformed JSON: " + ex.getOriginalMessage()));
+			}
+		}
+		return rows;
+	}
+	
+	private String validate(BookingDto bookingDto) {
+		var violations = validator.validate(bookingDto);
+		if (violations.isEmpty()) {
+			return null;
+		}
+		return violations.stream()
+				.map(ConstraintViolation::getMessage)
+				.sorted()
+				.collect(Collectors.joining("; "));
+	}
+	
+	private List<ClassroomCheck> checkClassroomsInParallel(Map<Integer, List<ImportRow>> rowsByClassroom) {
+		List<Future<ClassroomCheck>> futures = new ArrayList<>();
+		rowsByClassroom.forEach((idClassroom, classroomRows) -> 
+			futures.add(classroomCheckExecutor.submit(() -> checkClassroom(idClassroom, classroomRows))));
+		
+		List<ClassroomCheck> checks = new ArrayList<>();
+		try {
+			for (Future<ClassroomCheck> future : futures) {
+				checks.add(future.get());
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Bookings import interrupted", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException("Bookings import failed", ex.getCause());
+		}
+		return checks;
+	}
+	
+	// Las reservas existentes se leen en una transacción de lectura-escritura para que, con la 
+	// réplica activada, la comprobación se haga siempre contra la base de datos principal.
+	//
+	// Existing bookings are read in a read-write transaction so that, with the replica enabled, 
+	// the check is always made against the primary database.
+	private ClassroomCheck checkClassroom(int idClassroom, List<ImportRow> classroomRows) {
+		LocalDateTime periodStart = classroomRows.stream().map(r -> r.bookingDto().getStart())
+				.min(Comparator.naturalOrder()).orElseThrow();
+		LocalDateTime periodFinish = classroomRows.stream().map(r -> r.bookingDto().getFinish())
+				.max(Comparator.naturalOrder()).orElseThrow();
+		List<BookingInterval> existingBookings = transactionTemplate.execute(status -> 
+			bookingRepository.findActiveBookingIntervalsForClassroomByPeriod(idClassroom, periodStart, periodFinish));
+		
+		TreeMap<LocalDateTime, OccupiedInterval> occupied = new TreeMap<>();
+		existingBookings.forEach(b -> occupied.put(b.start(), new OccupiedInterval(b.finish(), 0)));
+		
+		List<ImportRow> accepted = new ArrayList<>();
+		List<BookingImportRejectionDto> rejections = new ArrayList<>();
+		for (ImportRow importRow : classroomRows) {
+			LocalDateTime start = importRow.bookingDto().getStart();
+			LocalDateTime finish = importRow.bookingDto().getFinish();
+			Map.Entry<LocalDateTime, OccupiedInterval> overlapping = findOverlapping(occupied, start, finish);
+			if (overlapping == null) {
+				occupied.put(start, new OccupiedInterval(finish, importRow.row()));
+				accepted.add(importRow);
+			} else if (overlapping.getValue().row() == 0) {
+				rejections.add(new BookingImportRejectionDto(importRow.row(), "Classroom " + idClassroom 
+						+ " is already booked between " + overlapping.getKey() + " and " + overlapping.getValue().finish()));
+			} else {
+				rejections.add(new BookingImportRejectionDto(importRow.row(), "Overlaps with row " 
+						+ overlapping.getValue().row() + " for classroom " + idClassroom));
+			}
+		}
+		return new ClassroomCheck(accepted, rejections);
+	}
+	
+	// Los intervalos de "occupied" no se solapan entre sí, así que basta con mirar el que empieza
+	// justo antes (o a la vez) y el que empieza justo después.
+	//
+	// Intervals in "occupied" do not overlap each other, so it is enough to look at the one that 
+	// starts just before (or at the same time) and the one that starts just after.
+	private Map.Entry<LocalDateTime, OccupiedInterval> findOverlapping(TreeMap<LocalDateTime, OccupiedInterval> occupied,
+			LocalDateTime start, LocalDateTime finish) {
+		Map.Entry<LocalDateTime, OccupiedInterval> previous = occupied.floorEntry(start);
+		if (previous != null && previous.getValue().finish().isAfter(start)) {
+			return previous;
+		}
+		Map.Entry<LocalDateTime, OccupiedInterval> next = occupied.higherEntry(start);
+		if (next != null && next.getKey().isBefore(finish)) {
+			return next;
+		}
+		return null;
+	}
+	
+	// Devuelve las filas insertadas: las aceptadas menos las que ahora se solapan con una reserva
+	// confirmada después de la comprobación en paralelo, que se añaden a "rejections". Las filas 
+	// aceptadas no se solapan entre sí, así que basta con compararlas con las reservas existentes.
+	//
+	// Returns the inserted rows: the accepted ones minus those that now overlap a booking committed
+	// after the parallel check, which are added to "rejections". Accepted rows do not overlap each
+	// other, so it is enough to compare them with the existing bookings.
+	private List<ImportRow> insertInBatches(List<ImportRow> accepted, List<BookingImportRejectionDto> rejections) {
+		LocalDateTime now = LocalDateTime.now();
+		return transactionTemplate.execute(status -> {
+			dailyOccupancyService.lockClassroomDays(accepted.stream()
+					.map(r -> new DailyOccupancyId(r.bookingDto().getIdClassroom(), r.bookingDto().getStart().toLocalDate()))
+					.toList());
+			
+			List<ImportRow> inserted = new ArrayList<>();
+			Map<Integer, List<ImportRow>> acceptedByClassroom = accepted.stream()
+					.collect(Collectors.groupingBy(r -> r.bookingDto().getIdClassroom(), LinkedHashMap::new, 
+							Collectors.toList()));
+			acceptedByClassroom.forEach((idClassroom, classroomRows) -> {
+				ClassroomCheck recheck = checkClassroom(idClassroom, classroomRows);
+				inserted.addAll(recheck.accepted());
+				rejections.addAll(recheck.rejections());
+			});
+			
+			List<Booking> bookings = inserted.stream()
+					.map(ImportRow::bookingDto)
+					.map(b -> new Booking(0, b.getIdClassroom(), b.getIdUser(), b.getStart(), b.getFinish(), now,
+							b.getComment(), BookingStatus.ACTIVE))
+					.toList();
+			jdbcTemplate.batchUpdate(INSERT_BOOKING, bookings, batchSize, (ps, booking) -> {
+				ps.setInt(1, booking.getIdClassroom());
+				ps.setInt(2, booking.getIdUser());
+				ps.setObject(3, booking.getStart());
+				ps.setObject(4, booking.getFinish());
+				ps.setObject(5, booking.getTimestamp());
+				ps.setString(6, booking.getComment());
+				ps.setString(7, booking.getStatus().name());
+			});
+			dailyOccupancyService.recordBookings(bookings);
+			return inserted;
+		});
+	}
+
+}
@@ -1,8 +1,7 @@
 package dev.jcasaslopez.booking.service;
 
-import java.util.List;
-
 import dev.jcasaslopez.booking.dto.BookingDto;
+import dev.jcasaslopez.booking.dto.CursorPageDto;
 import dev.jcasaslopez.booking.entity.Booking;
 import dev.jcasaslopez.booking.enums.BookingStatus;
 
@@ -10,7 +9,7 @@ public interface BookingService {
 	
 	BookingDto book(BookingDto bookingDto);
 	void cancel(Long idBooking, BookingStatus bookingStatus);
-	List<Booking> bookingsByUser(int idUser);
+	CursorPageDto<Booking> bookingsByUser(int idUser, String cursor, Integer pageSize);
 	void markBookingsAsCompleted();
 	
 }
@@ -2,24 +2,29 @@ package dev.jcasaslopez.booking.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import dev.jcasaslopez.booking.dto.BookingDto;
+import dev.jcasaslopez.booking.dto.CursorPageDto;
 import dev.jcasaslopez.booking.entity.Booking;
-import dev.jcasaslopez.booking.entity.WatchAlert;
+import dev.jcasaslopez.booking.entity.DailyOccupancyId;
 import dev.jcasaslopez.booking.enums.BookingStatus;
-import dev.jcasaslopez.booking.enums.NotificationType;
+import dev.jcasaslopez.booking.event.BookingCancelledEvent;
+import dev.jcasaslopez.booking.event.BookingCreatedEvent;
 import dev.jcasaslopez.booking.exception.ClassroomNotAvailableException;
 import dev.jcasaslopez.booking.exception.NoSuchBookingException;
 import dev.jcasaslopez.booking.mapper.BookingMapper;
 import dev.jcasaslopez.booking.repository.BookingRepository;
-import dev.jcasaslopez.booking.repository.WatchAlertRepository;
 import dev.jcasaslopez.booking.slot.SlotManager;
+import dev.jcasaslopez.booking.util.KeysetCursor;
+import dev.jcasaslopez.booking.util.KeysetPaginator;
 
 @Service
 public class BookingServiceImpl implements BookingService {
@@ -29,16 +34,19 @@ public class BookingServiceImpl implements BookingService {
 	private BookingRepository bookingRepository;
 	private BookingMapper bookingMapper; 
 	private SlotManager slotManager;
-	private NotificationService notificationService;
-	private WatchAlertRepository watchAlertRepository;
+	private KeysetPaginator keysetPaginator;
+	private DailyOccupancyService dailyOccupancyService;
+	private ApplicationEventPublisher eventPublisher;
 	
 	public BookingServiceImpl(BookingRepository bookingRepository, BookingMapper bookingMapper, SlotManager slotManager,
-			NotificationService notificationService, WatchAlertRepository watchAlertRepository) {
+			KeysetPaginator keysetPaginator, DailyOccupancyService dailyOccupancyService, 
+			ApplicationEventPublisher eventPublisher) {
 		this.bookingRepository = bookingRepository;
 		this.bookingMapper = bookingMapper;
 		this.slotManager = slotManager;
-		this.notificationService = notificationService;
-		this.watchAlertRepository = watchAlertRepository;
+		this.keysetPaginator = keysetPaginator;
+		this.dailyOccupancyService = dailyOccupancyService;
+		this.eventPublisher = eventPublisher;
 	}
 
 	@Override
@@ -47,6 +55,13 @@ public class BookingServiceImpl implements BookingService {
 		int idClassroom = bookingDto.getIdClassroom();
 		LocalDateTime start = bookingDto.getStart();
 		LocalDateTime finish = bookingDto.getFinish();
+		
+		// El bloqueo del día del aula impide que otra reserva o una importación simultánea pasen la
+		// misma comprobación y se solapen con esta.
+		//
+		// Locking the classroom's day prevents a simultaneous booking or import from passing the 
+		// same check and overlapping with this one.
+		dailyOccupancyService.lockClassroomDays(List.of(new DailyOccupancyId(idClassroom, start.toLocalDate())));
 	
 		boolean isAvailable = slotManager.isClassroomAvailableDuringPeriod(idClassroom, start, finish);
 		
@@ -54,10 +69,14 @@ public class BookingServiceImpl implements BookingService {
 			Booking returnedBooking = bookingRepository.save(bookingMapper.bookingDtoToBooking(bookingDto));
 			logger.info("Booking created: Classroom ID= {}, User ID= {}, Start= {}, Finish= {}", returnedBooking.getIdClassroom(),
 					returnedBooking.getIdUser(), returnedBooking.getStart(), returnedBooking.getFinish());
+			dailyOccupancyService.recordBookings(List.of(returnedBooking));
 			
-			logger.info("Sending booking confirmation notification to User ID= {}", bookingDto.getIdUser());
-			notificationService.sendNotification(NotificationType.BOOK, bookingDto.getIdUser(), 
-					idClassroom, start, finish);
+			// Los efectos secundarios (como la notificación de confirmación) se suscriben al 
+			// evento (ver BookingNotificationListener).
+			//
+			// Side effects (such as the confirmation notification) subscribe to the event 
+			// (see BookingNotificationListener).
+			eventPublisher.publishEvent(BookingCreatedEvent.of(returnedBooking));
 			
 			return bookingMapper.bookingToBookingDto(returnedBooking);
 		}
@@ -69,57 +88,46 @@ public class BookingServiceImpl implements BookingService {
 	@Transactional
 	public void cancel(Long idBooking, BookingStatus bookingStatus) {
 	    logger.info("Attempting to cancel booking with ID: {}", idBooking);
-	    bookingRepository.findById(idBooking)
+	    Booking booking = bookingRepository.findById(idBooking)
 	        .orElseThrow(() -> {
 	            logger.warn("Booking not found with ID: {}", idBooking);
 	            return new NoSuchBookingException("No such booking or incorrect idBooking");
 	        });
 	    bookingRepository.cancelBooking(idBooking, bookingStatus);
+	    dailyOccupancyService.releaseBooking(booking);
 	    logger.info("Booking cancelled successfully with ID: {}", idBooking);
 	    
-	    // Este método delega el envío de la notificación correspondiente porque, a diferencia de 
-	    // book(), dicho envío incluye lógica de negocio.
+	    // Los avisos a los usuarios con watch alerts afectados se preparan después del commit 
+	    // (ver BookingNotificationListener).
 	    // 
-	    // This method delegates the sending of the corresponding notification because, unlike in 
-	    // book(), it involves business logic.
-	    notifyUsersAboutCancellation(idBooking);
-	}
-	
-	// Encuentra la lista de watch alerts que se ven afectados por la cancelación, y manda la
-	// correspondiente notificación al usuario que creó el watch alert.
-	// 
-	// Find the list of watch alerts affected by the cancellation and send the corresponding 
-	// notification to the user who created the watch alert.
-	public void notifyUsersAboutCancellation(Long idBooking){		
-		Booking cancelledBooking =  bookingRepository.findById(idBooking)
-		        .orElseThrow(() -> {
-		            logger.warn("Booking not found with ID: {}", idBooking);
-		            return new NoSuchBookingException("No such booking or incorrect idBooking");
-		        });
-		List<WatchAlert> affectedWatchAlerts  = watchAlertRepository.findWatchAlertsByTimePeriodAndClassroom
-				(cancelledBooking.getIdClassroom(), cancelledBooking.getStart(), 
-						cancelledBooking.getFinish());
-		
-		if (affectedWatchAlerts.isEmpty()) {
-		    logger.info("No watch alerts affected for cancelled booking ID: {}", idBooking);
-		} else {
-			logger.info("Sending watch alert notifications for cancelled booking ID: {}", idBooking);
-		}
-		
-		for(WatchAlert w:affectedWatchAlerts) {
-			notificationService.sendNotification(NotificationType.WATCH_ALERT, w.getIdUser(), 
-					w.getIdClassroom(), w.getStart(), w.getFinish());
-		}	
+	    // Alerts to users with affected watch alerts are prepared after commit 
+	    // (see BookingNotificationListener).
+	    eventPublisher.publishEvent(BookingCancelledEvent.of(booking, bookingStatus));
 	}
 
+	// Devuelve las reservas del usuario de página en página (paginación keyset). Sin cursor se
+	// obtiene la primera página; con el cursor de una página, la siguiente.
+	//
+	// Returns the user's bookings page by page (keyset pagination). Without a cursor, the first
+	// page is returned; with the cursor of a page, the next one.
 	@Override
-	public List<Booking> bookingsByUser(int idUser) {
+	public CursorPageDto<Booking> bookingsByUser(int idUser, String cursor, Integer pageSize) {
 	    logger.info("Searching for bookings of user ID: {}", idUser);
-	    List<Booking> bookings = bookingRepository.findBookingsByUser(idUser);
+	    int resolvedPageSize = keysetPaginator.resolvePageSize(pageSize);
+	    List<Booking> bookings;
+	    if (cursor == null || cursor.isBlank()) {
+	    	bookings = bookingRepository.findBookingsByUserFirstPage(idUser, 
+	    			keysetPaginator.limitFor(resolvedPageSize));
+	    } else {
+	    	KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+	    	bookings = bookingRepository.findBookingsByUserAfterCursor(idUser, keysetCursor.start(), 
+	    			keysetCursor.id(), keysetPaginator.limitFor(resolvedPageSize));
+	    }
 	    if (bookings.isEmpty()) {
 	        logger.warn("No bookings found for user ID: {}", idUser);
 	    }
-	    return bookings;
+	    return keysetPaginator.toPage(bookings, resolvedPageSize, 
+	    		b -> new KeysetCursor(b.getStart(), b.getIdBooking()), Function.identity());
 	}
 
 	@Override
@@ -131,6 +139,7 @@ public class BookingServiceImpl implements BookingService {
 	public void markBookingsAsCompleted() {
 		LocalDateTime now = LocalDateTime.now();
 	    logger.info("Marking all past bookings as COMPLETED from now: {}", now);
+	    dailyOccupancyService.recordCompletions(bookingRepository.sumMinutesToCompleteByClassroomAndDay(now));
 	    bookingRepository.markCompletedBookings(now); 
 	}
 
@@ -0,0 +1,10 @@
+package dev.jcasaslopez.booking.service;
+
+public interface ClassroomSyncService {
+	
+	// Copia el catálogo de aulas en la tabla local "classrooms".
+	//
+	// Copies the classroom catalogue into the local "classrooms" table.
+	void synchronizeClassrooms();
+
+}
@@ -0,0 +1,62 @@
+package dev.jcasaslopez.booking.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.jcasaslopez.booking.entity.Classroom;
+import dev.jcasaslopez.booking.model.ClassroomCatalogue;
+import dev.jcasaslopez.booking.repository.ClassroomRepository;
+
+// La tabla se rellena al arrancar la aplicación, y ClassroomCatalogueLoader la vuelve a 
+// sincronizar cada vez que un refresco (cada classrooms.catalogue.refresh-interval-ms) trae un 
+// catálogo distinto. La sincronización cada 24h es solo una red de seguridad, por si alguna de
+// esas sincronizaciones hubiera fallado. Las aulas que ya no están en el catálogo se borran.
+//
+// The table is filled when the application starts, and ClassroomCatalogueLoader synchronizes it
+// again whenever a refresh (every classrooms.catalogue.refresh-interval-ms) brings a different 
+// catalogue. The synchronization every 24 hours is only a safety net, in case any of those 
+// synchronizations had failed. Classrooms that are no longer in the catalogue are deleted.
+@Service
+public class ClassroomSyncServiceImpl implements ClassroomSyncService {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ClassroomSyncServiceImpl.class);
+	
+	private ClassroomCatalogue classroomCatalogue;
+	private ClassroomRepository classroomRepository;
+
+	public ClassroomSyncServiceImpl(ClassroomCatalogue classroomCatalogue, ClassroomRepository classroomRepository) {
+		this.classroomCatalogue = classroomCatalogue;
+		this.classroomRepository = classroomRepository;
+	}
+	
+	// Un catálogo vacío se interpreta como un fallo al obtenerlo, y la tabla se deja como estaba
+	// en lugar de vaciarla.
+	//
+	// An empty catalogue is taken as a failure to fetch it, and the table is left as it was 
+	// instead of emptying it.
+	@Override
+	@Transactional
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedRate = 86_400_000, initialDelay = 86_400_000)
+	public void synchronizeClassrooms() {
+		List<Classroom> classrooms = classroomCatalogue.snapshot().all().stream()
+				.map(c -> new Classroom(c.getIdClassroom(), c.getName(), c.getSeats(), c.getProjector(), 
+						c.getSpeakers()))
+				.toList();
+		if (classrooms.isEmpty()) {
+			logger.warn("The classroom catalogue is empty, local classrooms left unchanged");
+			return;
+		}
+		classroomRepository.saveAll(classrooms);
+		int deleted = classroomRepository.deleteAllExcept(classrooms.stream().map(Classroom::getIdClassroom).toList());
+		logger.info("Classrooms synchronized: {} in the catalogue, {} removed", classrooms.size(), deleted);
+	}
+
+}
@@ -0,0 +1,43 @@
+package dev.jcasaslopez.booking.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.entity.DailyOccupancy;
+import dev.jcasaslopez.booking.entity.DailyOccupancyId;
+import dev.jcasaslopez.booking.model.ClassroomDailyUsage;
+
+public interface DailyOccupancyService {
+	
+	// Los tres primeros métodos deben llamarse dentro de la transacción que crea, cancela o 
+	// completa las reservas, para que el resumen nunca se desvíe de la tabla de reservas.
+	//
+	// The first three methods must be called within the transaction that creates, cancels or 
+	// completes the bookings, so that the summary never drifts from the bookings table.
+	void recordBookings(List<Booking> bookings);
+	void releaseBooking(Booking booking);
+	void recordCompletions(List<ClassroomDailyUsage> completedMinutes);
+	
+	// Bloquea hasta el final de la transacción las filas de esas aulas y días (creándolas si no
+	// existen). Quien crea reservas lo llama antes de comprobar si el aula está libre, de modo que
+	// dos escrituras en el mismo aula y día no pueden comprobar a la vez y solaparse.
+	//
+	// Locks the rows of those classrooms and days until the end of the transaction (creating them 
+	// if they do not exist). Whoever creates bookings calls it before checking whether the 
+	// classroom is free, so that two writes on the same classroom and day cannot check at the 
+	// same time and overlap.
+	void lockClassroomDays(Collection<DailyOccupancyId> classroomDays);
+	
+	List<DailyOccupancy> occupancyByClassroomAndMonth(int idClassroom, YearMonth month);
+	
+	// Vuelve a calcular el resumen de los días entre "from" y "to" (ambos incluidos) a partir de 
+	// las reservas, por ejemplo, para las reservas anteriores a la creación de la tabla.
+	//
+	// Recalculates the summary of the days between "from" and "to" (both included) from the 
+	// bookings, for example, for bookings made before the table was created.
+	void rebuild(LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,217 @@
+package dev.jcasaslopez.booking.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.entity.DailyOccupancy;
+import dev.jcasaslopez.booking.entity.DailyOccupancyId;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.model.ClassroomDailyUsage;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+import dev.jcasaslopez.booking.repository.DailyOccupancyRepository;
+import jakarta.persistence.EntityManager;
+
+@Service
+public class DailyOccupancyServiceImpl implements DailyOccupancyService {
+	
+	private static final Logger logger = LoggerFactory.getLogger(DailyOccupancyServiceImpl.class);
+	
+	private static final int SLOT_MINUTES = 30;
+	
+	private DailyOccupancyRepository dailyOccupancyRepository;
+	private BookingRepository bookingRepository;
+	private EntityManager entityManager;
+	private JdbcTemplate jdbcTemplate;
+	private String insertEmptyOccupancy;
+	
+	private static final String INSERT_EMPTY_OCCUPANCY = """
+			INSERT INTO daily_occupancy (idClassroom, occupancyDate, bookedMinutes, completedMinutes, slotMask)
+			VALUES (?, ?, 0, 0, 0)
+			""";
+
+	public DailyOccupancyServiceImpl(DailyOccupancyRepository dailyOccupancyRepository,
+			BookingRepository bookingRepository, EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+		this.dailyOccupancyRepository = dailyOccupancyRepository;
+		this.bookingRepository = bookingRepository;
+		this.entityManager = entityManager;
+		this.jdbcTemplate = jdbcTemplate;
+		
+		// En MySQL, ON DUPLICATE KEY UPDATE bloquea en exclusiva la fila duplicada. Un INSERT que 
+		// falla por clave duplicada solo la bloquearía en modo compartido, y dos transacciones que
+		// luego pidieran el bloqueo exclusivo se bloquearían mutuamente.
+		//
+		// In MySQL, ON DUPLICATE KEY UPDATE takes an exclusive lock on the duplicate row. An INSERT
+		// failing on the duplicate key would only take a shared lock, and two transactions later 
+		// asking for the exclusive lock would deadlock.
+		String databaseProduct = jdbcTemplate.execute((ConnectionCallback<String>) connection -> 
+				connection.getMetaData().getDatabaseProductName());
+		this.insertEmptyOccupancy = "MySQL".equalsIgnoreCase(databaseProduct) 
+				? INSERT_EMPTY_OCCUPANCY + " ON DUPLICATE KEY UPDATE bookedMinutes = bookedMinutes"
+				: INSERT_EMPTY_OCCUPANCY;
+	}
+
+	// Las reservas se agrupan primero por aula y día, de modo que una importación masiva bloquea
+	// y actualiza cada fila del resumen una sola vez.
+	//
+	// Bookings are grouped by classroom and day first, so that a bulk import locks and updates 
+	// each summary row only once.
+	@Override
+	@Transactional
+	public void recordBookings(List<Booking> bookings) {
+		Map<DailyOccupancyId, DailyOccupancy> increments = new LinkedHashMap<>();
+		bookings.forEach(booking -> addBooking(increments, booking));
+		
+		increments.forEach((id, increment) -> {
+			DailyOccupancy dailyOccupancy = lockCreatingIfAbsent(id);
+			dailyOccupancy.setBookedMinutes(dailyOccupancy.getBookedMinutes() + increment.getBookedMinutes());
+			dailyOccupancy.setSlotMask(dailyOccupancy.getSlotMask() | increment.getSlotMask());
+		});
+	}
+	
+	// Las filas se bloquean siempre en el mismo orden (aula y día), para que dos transacciones que
+	// bloquean varias no se esperen mutuamente.
+	//
+	// Rows are always locked in the same order (classroom and day), so that two transactions 
+	// locking several of them do not wait for each other.
+	@Override
+	@Transactional
+	public void lockClassroomDays(Collection<DailyOccupancyId> classroomDays) {
+		classroomDays.stream()
+				.distinct()
+				.sorted(Comparator.comparingInt(DailyOccupancyId::getIdClassroom)
+						.thenComparing(DailyOccupancyId::getOccupancyDate))
+				.forEach(this::lockCreatingIfAbsent);
+	}
+	
+	// Si la fila no existe no hay nada que bloquear, y dos reservas simultáneas del mismo aula y día
+	// la insertarían las dos: una fallaría por clave duplicada y arrastraría a su reserva. Por eso
+	// la fila vacía se inserta primero sin fallar si ya existe (ON DUPLICATE KEY en MySQL; en H2 se
+	// ignora el error, que no invalida la transacción), y después findForUpdate siempre la encuentra
+	// y la bloquea. La comprobación previa ahorra la inserción en el caso habitual.
+	//
+	// If the row does not exist there is nothing to lock, and two simultaneous bookings of the same
+	// classroom and day would both insert it: one would fail on the duplicate key and drag its 
+	// booking down with it. So the empty row is inserted first without failing if it already exists
+	// (ON DUPLICATE KEY in MySQL; in H2 the error is ignored, as it does not invalidate the 
+	// transaction), and then findForUpdate always finds it and locks it. The previous check saves
+	// the insert in the usual case.
+	private DailyOccupancy lockCreatingIfAbsent(DailyOccupancyId id) {
+		if (!dailyOccupancyRepository.existsById(id)) {
+			try {
+				jdbcTemplate.update(insertEmptyOccupancy, id.getIdClassroom(), id.getOccupancyDate());
+			} catch (DuplicateKeyException ex) {
+				logger.debug("Daily occupancy for classroom {} on {} created concurrently", 
+						id.getIdClassroom(), id.getOccupancyDate());
+			}
+		}
+		return dailyOccupancyRepository.findForUpdate(id.getIdClassroom(), id.getOccupancyDate()).orElseThrow();
+	}
+
+	@Override
+	@Transactional
+	public void releaseBooking(Booking booking) {
+		if (booking.getStatus() == BookingStatus.CANCELLED) {
+			return;
+		}
+		LocalDate date = booking.getStart().toLocalDate();
+		dailyOccupancyRepository.findForUpdate(booking.getIdClassroom(), date).ifPresentOrElse(dailyOccupancy -> {
+			int minutes = bookedMinutes(booking);
+			dailyOccupancy.setBookedMinutes(Math.max(0, dailyOccupancy.getBookedMinutes() - minutes));
+			if (booking.getStatus() == BookingStatus.COMPLETED) {
+				dailyOccupancy.setCompletedMinutes(Math.max(0, dailyOccupancy.getCompletedMinutes() - minutes));
+			}
+			dailyOccupancy.setSlotMask(dailyOccupancy.getSlotMask() & ~slotMask(booking));
+		}, () -> logger.warn("No daily occupancy found for classroom {} on {}", booking.getIdClassroom(), date));
+	}
+
+	@Override
+	@Transactional
+	public void recordCompletions(List<ClassroomDailyUsage> completedMinutes) {
+		for (ClassroomDailyUsage usage : completedMinutes) {
+			dailyOccupancyRepository.findForUpdate(usage.idClassroom(), usage.date()).ifPresent(dailyOccupancy -> 
+				dailyOccupancy.setCompletedMinutes(Math.min(dailyOccupancy.getBookedMinutes(), 
+						dailyOccupancy.getCompletedMinutes() + (int) usage.bookedMinutes())));
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<DailyOccupancy> occupancyByClassroomAndMonth(int idClassroom, YearMonth month) {
+		return dailyOccupancyRepository.findByClassroomAndPeriod(idClassroom, month.atDay(1), month.atEndOfMonth());
+	}
+
+	// Las reservas se recorren en streaming y se separan del contexto de persistencia una a una,
+	// como en BookingExportServiceImpl; en memoria solo queda una fila por aula y día.
+	//
+	// Bookings are streamed and detached from the persistence context one by one, as in 
+	// BookingExportServiceImpl; only one row per classroom and day is kept in memory.
+	@Override
+	@Transactional
+	public void rebuild(LocalDate from, LocalDate to) {
+		logger.info("Rebuilding daily occupancy from {} to {}", from, to);
+		Map<DailyOccupancyId, DailyOccupancy> rebuilt = new LinkedHashMap<>();
+		try (Stream<Booking> bookings = bookingRepository.streamBookingsByPeriod(from.atStartOfDay(), 
+				to.plusDays(1).atStartOfDay())) {
+			Iterator<Booking> iterator = bookings.iterator();
+			while (iterator.hasNext()) {
+				Booking booking = iterator.next();
+				if (booking.getStatus() != BookingStatus.CANCELLED) {
+					addBooking(rebuilt, booking);
+				}
+				entityManager.detach(booking);
+			}
+		}
+		dailyOccupancyRepository.deleteByPeriod(from, to);
+		dailyOccupancyRepository.saveAll(rebuilt.values());
+		logger.info("Daily occupancy rebuilt: {} classroom-days from {} to {}", rebuilt.size(), from, to);
+	}
+	
+	private void addBooking(Map<DailyOccupancyId, DailyOccupancy> occupancies, Booking booking) {
+		LocalDate date = booking.getStart().toLocalDate();
+		DailyOccupancy dailyOccupancy = occupancies.computeIfAbsent(
+				new DailyOccupancyId(booking.getIdClassroom(), date),
+				id -> new DailyOccupancy(booking.getIdClassroom(), date, 0, 0, 0));
+		int minutes = bookedMinutes(booking);
+		dailyOccupancy.setBookedMinutes(dailyOccupancy.getBookedMinutes() + minutes);
+		if (booking.getStatus() == BookingStatus.COMPLETED) {
+			dailyOccupancy.setCompletedMinutes(dailyOccupancy.getCompletedMinutes() + minutes);
+		}
+		dailyOccupancy.setSlotMask(dailyOccupancy.getSlotMask() | slotMask(booking));
+	}
+	
+	private int bookedMinutes(Booking booking) {
+		return (int) Duration.between(booking.getStart(), booking.getFinish()).toMinutes();
+	}
+	
+	// Bits de las franjas de 30 minutos que ocupa la reserva. Ejemplo: 9:00-10:00 → bits 18 y 19.
+	//
+	// Bits of the 30-minute slots the booking takes up. Example: 9:00-10:00 → bits 18 and 19.
+	static long slotMask(Booking booking) {
+		int firstSlot = minuteOfDay(booking.getStart()) / SLOT_MINUTES;
+		int lastSlot = (minuteOfDay(booking.getFinish()) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+		return ((1L << lastSlot) - 1) & ~((1L << firstSlot) - 1);
+	}
+	
+	private static int minuteOfDay(LocalDateTime dateTime) {
+		return dateTime.getHour() * 60 + dateTime.getMinute();
+	}
+
+}
@@ -0,0 +1,14 @@
+package dev.jcasaslopez.booking.service;
+
+import java.time.LocalDateTime;
+
+import dev.jcasaslopez.booking.enums.NotificationType;
+
+public interface NotificationOutboxService {
+	
+	void enqueue(NotificationType notificationType, int idUser, int idClassroom, LocalDateTime start,
+			LocalDateTime finish);
+	int dispatchPending();
+	int replayDeadLetters();
+
+}
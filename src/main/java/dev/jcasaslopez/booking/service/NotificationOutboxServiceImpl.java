@@ -0,0 +1,402 @@
+package dev.jcasaslopez.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.jcasaslopez.booking.entity.DeadLetterNotification;
+import dev.jcasaslopez.booking.entity.OutboxNotification;
+import dev.jcasaslopez.booking.enums.BatchDeliveryStatus;
+import dev.jcasaslopez.booking.enums.NotificationType;
+import dev.jcasaslopez.booking.model.ClassroomPeriod;
+import dev.jcasaslopez.booking.repository.DeadLetterNotificationRepository;
+import dev.jcasaslopez.booking.repository.OutboxNotificationRepository;
+import dev.jcasaslopez.booking.util.NotificationRetryPolicy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Las notificaciones se guardan en la tabla notification_outbox dentro de la transacción de la 
+// reserva o la cancelación, y un hilo propio las envía después del commit. Así, ni la duración
+// de la reserva ni el tiempo que retiene la conexión dependen del servicio de usuarios, y una 
+// reserva deshecha no llega a notificarse.
+// El hilo se despierta tras cada commit y, además, revisa la tabla cada 
+// notifications.outbox.poll-interval-ms por si quedan envíos fallidos o de antes de un reinicio.
+// La entrega es "al menos una vez": si el servicio cae entre el envío y el borrado de la fila,
+// la notificación se volverá a enviar.
+//
+// Notifications are stored in the notification_outbox table within the booking or cancellation 
+// transaction, and a dedicated thread sends them after commit. This way, neither the booking 
+// latency nor the time it holds its connection depend on the user service, and a rolled-back 
+// booking is never notified.
+// The thread wakes up after each commit and also checks the table every 
+// notifications.outbox.poll-interval-ms for failed deliveries or ones left over from a restart.
+// Delivery is "at least once": if the service goes down between sending and deleting the row, 
+// the notification will be sent again.
+//
+// Cada lote se envía en una sola petición al endpoint de lotes del servicio de usuarios. Tras un
+// commit, el hilo espera notifications.outbox.batch-window-ms antes de enviar, para reunir en el
+// mismo lote las notificaciones de otras reservas y cancelaciones cercanas. Si el servicio no 
+// tiene el endpoint de lotes, las notificaciones se envían una a una y el endpoint se vuelve a 
+// probar pasado notifications.outbox.batch-endpoint-recheck-ms.
+//
+// Each batch is sent in a single request to the user service's batch endpoint. After a commit, 
+// the thread waits notifications.outbox.batch-window-ms before sending, to gather notifications 
+// from other nearby bookings and cancellations into the same batch. If the service does not have
+// the batch endpoint, notifications are sent one by one and the endpoint is tried again after 
+// notifications.outbox.batch-endpoint-recheck-ms.
+//
+// Los envíos uno a uno se reparten entre notifications.outbox.max-concurrent-sends hilos, con un
+// plazo total de notifications.outbox.fan-out-timeout-ms para todo el lote: los que no terminan a
+// tiempo se cancelan y se reintentan más tarde, como los fallidos.
+//
+// One-by-one deliveries are spread over notifications.outbox.max-concurrent-sends threads, with an
+// overall deadline of notifications.outbox.fan-out-timeout-ms for the whole batch: those that do 
+// not finish in time are cancelled and retried later, like the failed ones.
+//
+// Cada notificación fallida espera antes del siguiente intento según NotificationRetryPolicy; 
+// cuando agota los intentos pasa a la tabla notification_dead_letters, desde donde se puede 
+// volver a poner en cola con replayDeadLetters(). Los reintentos los hace el mismo hilo, así que 
+// una caída del servicio de usuarios no acumula hilos.
+//
+// Each failed notification waits before the next attempt according to NotificationRetryPolicy; 
+// when it runs out of attempts it is moved to the notification_dead_letters table, from where it
+// can be queued again with replayDeadLetters(). Retries are made by the same thread, so an outage 
+// of the user service does not pile up threads.
+//
+// Las notificaciones del mismo usuario y tipo que llegan dentro de notifications.digest.window-ms
+// se envían juntas en un único mensaje de resumen, para no saturar al usuario cuando, por 
+// ejemplo, se cancelan varias reservas que vigilaba. Con una ventana de 0 no se agrupan.
+//
+// Notifications of the same user and type arriving within notifications.digest.window-ms are sent
+// together in a single digest message, so as not to flood the user when, for example, several 
+// bookings they were watching are cancelled. With a window of 0 they are not grouped.
+@Service
+public class NotificationOutboxServiceImpl implements NotificationOutboxService {
+	
+	private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxServiceImpl.class);
+	
+	private OutboxNotificationRepository outboxNotificationRepository;
+	private DeadLetterNotificationRepository deadLetterNotificationRepository;
+	private NotificationService notificationService;
+	private NotificationRetryPolicy notificationRetryPolicy;
+	private TransactionTemplate transactionTemplate;
+	private int batchSize;
+	private long pollIntervalMs;
+	private long batchWindowMs;
+	private long batchEndpointRecheckMs;
+	private long fanOutTimeoutMs;
+	private long digestWindowMs;
+	
+	private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "notification-outbox-dispatcher");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final ExecutorService senders;
+	private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+	private volatile long batchEndpointUnavailableUntil;
+
+	public NotificationOutboxServiceImpl(OutboxNotificationRepository outboxNotificationRepository,
+			DeadLetterNotificationRepository deadLetterNotificationRepository, NotificationService notificationService,
+			NotificationRetryPolicy notificationRetryPolicy, PlatformTransactionManager transactionManager,
+			@Value("${notifications.outbox.batch-size}") int batchSize,
+			@Value("${notifications.outbox.poll-interval-ms}") long pollIntervalMs,
+			@Value("${notifications.outbox.batch-window-ms}") long batchWindowMs,
+			@Value("${notifications.outbox.batch-endpoint-recheck-ms}") long batchEndpointRecheckMs,
+			@Value("${notifications.outbox.max-concurrent-sends}") int maxConcurrentSends,
+			@Value("${notifications.outbox.fan-out-timeout-ms}") long fanOutTimeoutMs,
+			@Value("${notifications.digest.window-ms}") long digestWindowMs) {
+		this.outboxNotificationRepository = outboxNotificationRepository;
+		this.deadLetterNotificationRepository = deadLetterNotificationRepository;
+		this.notificationService = notificationService;
+		this.notificationRetryPolicy = notificationRetryPolicy;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.pollIntervalMs = pollIntervalMs;
+		this.batchWindowMs = batchWindowMs;
+		this.batchEndpointRecheckMs = batchEndpointRecheckMs;
+		this.fanOutTimeoutMs = fanOutTimeoutMs;
+		this.digestWindowMs = digestWindowMs;
+		AtomicInteger senderNumber = new AtomicInteger();
+		this.senders = Executors.newFixedThreadPool(maxConcurrentSends, runnable -> {
+			Thread thread = new Thread(runnable, "notification-sender-" + senderNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	@PostConstruct
+	public void start() {
+		dispatcher.scheduleWithFixedDelay(this::dispatchSafely, pollIntervalMs, pollIntervalMs, 
+				TimeUnit.MILLISECONDS);
+	}
+	
+	@PreDestroy
+	public void stop() {
+		dispatcher.shutdownNow();
+		senders.shutdownNow();
+	}
+
+	// MANDATORY: la notificación solo tiene sentido dentro de la transacción que la origina.
+	//
+	// MANDATORY: the notification only makes sense within the transaction that triggers it.
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueue(NotificationType notificationType, int idUser, int idClassroom, LocalDateTime start,
+			LocalDateTime finish) {
+		LocalDateTime now = LocalDateTime.now();
+		outboxNotificationRepository.save(new OutboxNotification(0, notificationType, idUser, idClassroom,
+				start, finish, now, 0, digestDueTime(notificationType, idUser, now)));
+		logger.debug("{} notification for user {} stored in the outbox", notificationType, idUser);
+		requestDispatchAfterCommit();
+	}
+	
+	// Vuelve a poner en cola todas las notificaciones de la tabla de dead letters, con los 
+	// intentos a cero.
+	//
+	// Queues again every notification in the dead letters table, with attempts reset to zero.
+	@Override
+	@Transactional
+	public int replayDeadLetters() {
+		List<DeadLetterNotification> deadLetters = deadLetterNotificationRepository.findAll();
+		LocalDateTime now = LocalDateTime.now();
+		outboxNotificationRepository.saveAll(deadLetters.stream()
+				.map(deadLetter -> new OutboxNotification(0, deadLetter.getNotificationType(), deadLetter.getIdUser(),
+						deadLetter.getIdClassroom(), deadLetter.getStart(), deadLetter.getFinish(), 
+						deadLetter.getCreatedAt(), 0, now))
+				.toList());
+		deadLetterNotificationRepository.deleteAllInBatch(deadLetters);
+		logger.info("{} dead letter notifications queued again", deadLetters.size());
+		requestDispatchAfterCommit();
+		return deadLetters.size();
+	}
+	
+	// La primera notificación de un usuario y tipo abre una ventana de notifications.digest.window-ms; 
+	// las que llegan dentro de ella comparten su hora de envío, de modo que salen juntas en un 
+	// único resumen. Así, un aviso nunca se retrasa más que la ventana.
+	//
+	// The first notification of a user and type opens a window of notifications.digest.window-ms; 
+	// those arriving within it share its sending time, so that they go out together in a single 
+	// digest. This way, a notification is never delayed by more than the window.
+	private LocalDateTime digestDueTime(NotificationType notificationType, int idUser, LocalDateTime now) {
+		if (digestWindowMs <= 0) {
+			return now;
+		}
+		LocalDateTime openWindowDueTime = outboxNotificationRepository.findOpenDigestDueTime(idUser, 
+				notificationType, now);
+		return openWindowDueTime != null ? openWindowDueTime : now.plusNanos(digestWindowMs * 1_000_000);
+	}
+	
+	private void requestDispatchAfterCommit() {
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				requestDispatch();
+			}
+		});
+	}
+	
+	// Los commits que llegan durante la ventana de espera comparten el mismo envío.
+	//
+	// Commits that arrive during the waiting window share the same dispatch.
+	private void requestDispatch() {
+		if (dispatchRequested.compareAndSet(false, true)) {
+			dispatcher.schedule(() -> {
+				dispatchRequested.set(false);
+				dispatchSafely();
+			}, Math.max(batchWindowMs, digestWindowMs), TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	private void dispatchSafely() {
+		try {
+			dispatchPending();
+		} catch (RuntimeException ex) {
+			logger.error("Error while dispatching outbox notifications: {}", ex.getMessage(), ex);
+		}
+	}
+
+	// Envía las notificaciones pendientes por lotes, fuera de cualquier transacción. Las entregadas
+	// se borran; las fallidas se reprograman (o pasan a dead letters), y el envío se detiene al 
+	// terminar ese lote para no insistir contra un servicio caído.
+	//
+	// Sends the pending notifications in batches, outside any transaction. Delivered ones are 
+	// deleted; failed ones are rescheduled (or moved to dead letters), and sending stops at the end
+	// of that batch so as not to keep hammering a service that is down.
+	@Override
+	public synchronized int dispatchPending() {
+		int delivered = 0;
+		while (true) {
+			List<OutboxNotification> pending = transactionTemplate.execute(status -> 
+					outboxNotificationRepository.findPending(LocalDateTime.now(), PageRequest.of(0, batchSize)));
+			if (pending.isEmpty()) {
+				return delivered;
+			}
+			
+			List<Long> deliveredIds = new ArrayList<>();
+			List<Long> failedIds = new ArrayList<>();
+			List<OutgoingMessage> messages = buildMessages(pending, failedIds);
+			if (messages.size() > 1 && System.currentTimeMillis() >= batchEndpointUnavailableUntil) {
+				deliverAsBatch(messages, deliveredIds, failedIds);
+			} else {
+				deliverOneByOne(messages, deliveredIds, failedIds);
+			}
+			transactionTemplate.executeWithoutResult(status -> {
+				outboxNotificationRepository.deleteAllByIdInBatch(deliveredIds);
+				recordFailedAttempts(failedIds);
+			});
+			delivered += deliveredIds.size();
+			
+			if (!failedIds.isEmpty()) {
+				return delivered;
+			}
+		}
+	}
+	
+	private void recordFailedAttempts(List<Long> failedIds) {
+		if (failedIds.isEmpty()) {
+			return;
+		}
+		LocalDateTime now = LocalDateTime.now();
+		List<OutboxNotification> exhausted = new ArrayList<>();
+		for (OutboxNotification notification : outboxNotificationRepository.findAllById(failedIds)) {
+			notification.setAttempts(notification.getAttempts() + 1);
+			if (notificationRetryPolicy.isExhausted(notification.getAttempts())) {
+				exhausted.add(notification);
+			} else {
+				notification.setNextAttemptAt(notificationRetryPolicy.nextAttemptAt(notification.getAttempts(), now));
+			}
+		}
+		deadLetterNotificationRepository.saveAll(exhausted.stream()
+				.map(notification -> new DeadLetterNotification(0, notification.getNotificationType(), 
+						notification.getIdUser(), notification.getIdClassroom(), notification.getStart(),
+						notification.getFinish(), notification.getCreatedAt(), notification.getAttempts(), now))
+				.toList());
+		outboxNotificationRepository.deleteAllInBatch(exhausted);
+		
+		logger.warn("{} outbox notifications could not be delivered: {} will be retried, {} moved to dead letters",
+				failedIds.size(), failedIds.size() - exhausted.size(), exhausted.size());
+	}
+	
+	// Las notificaciones del mismo usuario y tipo se reúnen en un único mensaje de resumen.
+	//
+	// Notifications of the same user and type are merged into a single digest message.
+	private List<OutgoingMessage> buildMessages(List<OutboxNotification> pending, List<Long> failedIds) {
+		Map<DigestKey, List<OutboxNotification>> digests = pending.stream().collect(Collectors.groupingBy(
+				notification -> new DigestKey(notification.getIdUser(), notification.getNotificationType()),
+				LinkedHashMap::new, Collectors.toList()));
+		
+		List<OutgoingMessage> messages = new ArrayList<>();
+		digests.forEach((key, notifications) -> {
+			List<Long> idNotifications = notifications.stream().map(OutboxNotification::getIdNotification).toList();
+			try {
+				messages.add(new OutgoingMessage(idNotifications, key.idUser(), notificationService.messageBuilder(
+						key.notificationType(), key.idUser(), notifications.stream()
+								.map(notification -> new ClassroomPeriod(notification.getIdClassroom(), 
+										notification.getStart(), notification.getFinish()))
+								.toList())));
+			} catch (RuntimeException ex) {
+				logger.error("Outbox notifications {} could not be built: {}", idNotifications, ex.getMessage());
+				failedIds.addAll(idNotifications);
+			}
+		});
+		if (messages.size() < pending.size() - failedIds.size()) {
+			logger.info("{} outbox notifications merged into {} messages", pending.size() - failedIds.size(), 
+					messages.size());
+		}
+		return messages;
+	}
+	
+	private void deliverAsBatch(List<OutgoingMessage> messages, List<Long> deliveredIds, List<Long> failedIds) {
+		BatchDeliveryStatus status = notificationService.sendNotificationBatch(messages.stream()
+				.map(OutgoingMessage::message)
+				.toList());
+		switch (status) {
+			case DELIVERED -> messages.forEach(message -> deliveredIds.addAll(message.idNotifications()));
+			case FAILED -> messages.forEach(message -> failedIds.addAll(message.idNotifications()));
+			case UNSUPPORTED -> {
+				batchEndpointUnavailableUntil = System.currentTimeMillis() + batchEndpointRecheckMs;
+				deliverOneByOne(messages, deliveredIds, failedIds);
+			}
+		}
+	}
+	
+	private void deliverOneByOne(List<OutgoingMessage> messages, List<Long> deliveredIds, List<Long> failedIds) {
+		List<Callable<Boolean>> deliveries = messages.stream()
+				.<Callable<Boolean>>map(message -> () -> deliver(message))
+				.toList();
+		List<Future<Boolean>> results;
+		try {
+			results = senders.invokeAll(deliveries, fanOutTimeoutMs, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			messages.forEach(message -> failedIds.addAll(message.idNotifications()));
+			return;
+		}
+		
+		int failed = 0;
+		int timedOut = 0;
+		for (int i = 0; i < messages.size(); i++) {
+			List<Long> idNotifications = messages.get(i).idNotifications();
+			try {
+				if (results.get(i).get()) {
+					deliveredIds.addAll(idNotifications);
+					continue;
+				}
+				failed++;
+			} catch (CancellationException ex) {
+				timedOut++;
+			} catch (ExecutionException ex) {
+				failed++;
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				failed++;
+			}
+			failedIds.addAll(idNotifications);
+		}
+		logger.info("Notifications sent one by one: {} sent, {} failed, {} timed out", 
+				messages.size() - failed - timedOut, failed, timedOut);
+	}
+	
+	private boolean deliver(OutgoingMessage message) {
+		try {
+			return notificationService.sendMessage(message.idUser(), message.message());
+		} catch (RuntimeException ex) {
+			logger.error("Outbox notifications {} could not be sent: {}", message.idNotifications(), ex.getMessage());
+			return false;
+		}
+	}
+	
+	private record DigestKey(int idUser, NotificationType notificationType) {}
+	
+	// Mensaje para el servicio de usuarios y filas del outbox que cubre (varias si es un resumen).
+	//
+	// Message for the user service and the outbox rows it covers (several if it is a digest).
+	private record OutgoingMessage(List<Long> idNotifications, int idUser, Map<String, String> message) {}
+
+}
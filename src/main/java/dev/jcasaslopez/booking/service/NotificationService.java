@@ -1,15 +1,21 @@
 package dev.jcasaslopez.booking.service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
+import dev.jcasaslopez.booking.enums.BatchDeliveryStatus;
 import dev.jcasaslopez.booking.enums.NotificationType;
+import dev.jcasaslopez.booking.model.ClassroomPeriod;
 
 public interface NotificationService {
 
 	Map<String, String> messageBuilder(NotificationType notificationType, int idUser, int idClassroom,
 			LocalDateTime start, LocalDateTime finish);
-	void sendNotification(NotificationType notificationType, int idUser, int idClassroom,
+	Map<String, String> messageBuilder(NotificationType notificationType, int idUser, List<ClassroomPeriod> periods);
+	boolean sendNotification(NotificationType notificationType, int idUser, int idClassroom,
 			LocalDateTime start, LocalDateTime finish);
+	boolean sendMessage(int idUser, Map<String, String> message);
+	BatchDeliveryStatus sendNotificationBatch(List<Map<String, String>> messages);
 	
 }
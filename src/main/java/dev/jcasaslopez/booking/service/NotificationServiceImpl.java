@@ -2,7 +2,9 @@ package dev.jcasaslopez.booking.service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -10,61 +12,123 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import dev.jcasaslopez.booking.enums.BatchDeliveryStatus;
 import dev.jcasaslopez.booking.enums.NotificationType;
 import dev.jcasaslopez.booking.exception.NoSuchClassroomException;
-import dev.jcasaslopez.booking.model.ClassroomsList;
+import dev.jcasaslopez.booking.exception.ServiceNotAvailableException;
+import dev.jcasaslopez.booking.model.ClassroomCatalogue;
+import dev.jcasaslopez.booking.model.ClassroomPeriod;
+import dev.jcasaslopez.booking.resilience.UsersServiceGuard;
+import dev.jcasaslopez.booking.util.MessageTemplate;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
 	
 	private static final Logger logger = LoggerFactory.getLogger(NotificationServiceImpl.class);
 	
+	// Las plantillas y los formateadores se preparan una sola vez; los mensajes se componen en 
+	// StringBuilder reutilizados por cada hilo (ver MessageTemplate).
+	//
+	// Templates and formatters are prepared only once; messages are composed in StringBuilders 
+	// reused by each thread (see MessageTemplate).
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy", Locale.ENGLISH);
+	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+	
+	private static final String BOOK_SUBJECT = "Booking confirmed";
+	private static final MessageTemplate BOOK_MESSAGE = MessageTemplate.compile(
+			"We are pleased to confirm your booking for classroom {0} {1}.");
+	private static final String WATCH_ALERT_SUBJECT = "A spot you were watching has opened up!";
+	private static final MessageTemplate WATCH_ALERT_MESSAGE = MessageTemplate.compile(
+			"A booking for classroom {0} {1} has been cancelled. Hurry up and book it before someone else does!");
+	
+	private static final MessageTemplate BOOK_DIGEST_SUBJECT = MessageTemplate.compile("{0} bookings confirmed");
+	private static final String BOOK_DIGEST_HEADER = "We are pleased to confirm your bookings:";
+	private static final MessageTemplate WATCH_ALERT_DIGEST_SUBJECT = MessageTemplate.compile(
+			"{0} spots you were watching have opened up!");
+	private static final String WATCH_ALERT_DIGEST_HEADER = "The following bookings have been cancelled:";
+	private static final String WATCH_ALERT_DIGEST_FOOTER = "Hurry up and book them before someone else does!";
+	private static final MessageTemplate DIGEST_LINE = MessageTemplate.compile("- Classroom {0} {1}");
+	
+	private static final int MAX_REUSABLE_BUILDER_CAPACITY = 16 * 1024;
+	private static final ThreadLocal<StringBuilder> MESSAGE_BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+	private static final ThreadLocal<StringBuilder> PERIOD_BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(64));
+	
 	@Autowired
-	private ClassroomsList classroomsList;
+	private ClassroomCatalogue classroomCatalogue;
 	
 	@Autowired
 	private RestClient restClient;
 	
+	@Autowired
+	private UsersServiceGuard usersServiceGuard;
+	
 	@Value("${users.service.url}")
     private String usersServiceUrl;
 
 	@Override
 	public Map<String, String> messageBuilder(NotificationType notificationType, int idUser, int idClassroom,
 			LocalDateTime start, LocalDateTime finish) {
-		Map<String, String> message = new HashMap<>();
-        String classroomName = getClassroomName(idClassroom);
-        String dateTimeString = formatLocalDateTimesToString(start, finish);
-
-        message.put("Recipient", String.valueOf(idUser));
-
-        switch (notificationType) {
-            case BOOK:
-            	message.put("Subject", "Booking confirmed");
-            	message.put("Message", String.format(
-                        "We are pleased to confirm your booking for classroom %s %s.",
-                        classroomName, dateTimeString));
-                break;
-            case WATCH_ALERT:
-            	message.put("Subject", "A spot you were watching has opened up!");
-            	message.put("Message", String.format(
-                        "A booking for classroom %s %s has been cancelled. "
-                        + "Hurry up and book it before someone else does!",
-                        classroomName, dateTimeString));
-                break;
-        }
+		String classroomName = getClassroomName(idClassroom);
+		StringBuilder period = appendPeriod(reusableBuilder(PERIOD_BUILDER), start, finish);
+		
+		Map<String, String> message = switch (notificationType) {
+			case BOOK -> Map.of(
+					"Recipient", String.valueOf(idUser),
+					"Subject", BOOK_SUBJECT,
+					"Message", BOOK_MESSAGE.appendTo(reusableBuilder(MESSAGE_BUILDER), classroomName, period).toString());
+			case WATCH_ALERT -> Map.of(
+					"Recipient", String.valueOf(idUser),
+					"Subject", WATCH_ALERT_SUBJECT,
+					"Message", WATCH_ALERT_MESSAGE.appendTo(reusableBuilder(MESSAGE_BUILDER), classroomName, period).toString());
+		};
         logger.debug("Generated message: {}", message);
         return message;
     }
+	
+	// Mensaje de resumen con varias aulas y periodos para el mismo usuario, ordenados por fecha de 
+	// inicio. Con un solo periodo, el mensaje es el mismo que el de una notificación individual.
+	//
+	// Digest message with several classrooms and periods for the same user, sorted by start date. 
+	// With a single period, the message is the same as that of an individual notification.
+	@Override
+	public Map<String, String> messageBuilder(NotificationType notificationType, int idUser, 
+			List<ClassroomPeriod> periods) {
+		if (periods.size() == 1) {
+			ClassroomPeriod period = periods.get(0);
+			return messageBuilder(notificationType, idUser, period.idClassroom(), period.start(), period.finish());
+		}
+		
+		List<ClassroomPeriod> sortedPeriods = new ArrayList<>(periods);
+		sortedPeriods.sort(Comparator.comparing(ClassroomPeriod::start).thenComparing(ClassroomPeriod::idClassroom));
+		StringBuilder body = reusableBuilder(MESSAGE_BUILDER);
+		body.append(notificationType == NotificationType.BOOK ? BOOK_DIGEST_HEADER : WATCH_ALERT_DIGEST_HEADER);
+		for (ClassroomPeriod period : sortedPeriods) {
+			DIGEST_LINE.appendTo(body.append('\n'), getClassroomName(period.idClassroom()), 
+					appendPeriod(reusableBuilder(PERIOD_BUILDER), period.start(), period.finish()));
+		}
+		if (notificationType == NotificationType.WATCH_ALERT) {
+			body.append('\n').append(WATCH_ALERT_DIGEST_FOOTER);
+		}
+		
+		String count = String.valueOf(periods.size());
+		Map<String, String> message = Map.of(
+				"Recipient", String.valueOf(idUser),
+				"Subject", (notificationType == NotificationType.BOOK ? BOOK_DIGEST_SUBJECT : WATCH_ALERT_DIGEST_SUBJECT)
+						.appendTo(reusableBuilder(PERIOD_BUILDER), count).toString(),
+				"Message", body.toString());
+		logger.debug("Generated digest message: {}", message);
+		return message;
+	}
 
 	public String getClassroomName(int idClassroom) {
-		return classroomsList.getClassroomsList().stream()
-							.filter(c -> c.getIdClassroom() == idClassroom)
+		return classroomCatalogue.snapshot().findById(idClassroom)
 							.map(c -> c.getName())
-							.findFirst()
 							.orElseThrow(() -> {
 			                    logger.warn("Classroom with ID {} not found", idClassroom);
 			                    return new NoSuchClassroomException("Classroom with ID " + idClassroom + " not found");
@@ -72,38 +136,109 @@ public class NotificationServiceImpl implements NotificationService {
 	}
 	
 	public String formatLocalDateTimesToString(LocalDateTime start, LocalDateTime finish) {
-		DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy", Locale.ENGLISH);
-		DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-
-		return String.format("on %s from %s to %s", 
-				start.format(dateFormatter), 
-				start.format(timeFormatter),
-				finish.format(timeFormatter));
+		return appendPeriod(new StringBuilder(48), start, finish).toString();
+	}
+	
+	// Escribe "on <fecha> from <hora> to <hora>" directamente en el StringBuilder, sin crear 
+	// cadenas intermedias.
+	//
+	// Writes "on <date> from <time> to <time>" straight into the StringBuilder, without creating
+	// intermediate strings.
+	private static StringBuilder appendPeriod(StringBuilder target, LocalDateTime start, LocalDateTime finish) {
+		target.append("on ");
+		DATE_FORMATTER.formatTo(start, target);
+		target.append(" from ");
+		TIME_FORMATTER.formatTo(start, target);
+		target.append(" to ");
+		TIME_FORMATTER.formatTo(finish, target);
+		return target;
 	}
 	
+	// Cada hilo reutiliza sus propios StringBuilder. Si un resumen muy largo los ha hecho crecer
+	// demasiado, se sustituyen para no retener esa memoria.
+	//
+	// Each thread reuses its own StringBuilders. If a very long digest has made them grow too 
+	// much, they are replaced so as not to hold on to that memory.
+	private static StringBuilder reusableBuilder(ThreadLocal<StringBuilder> builder) {
+		StringBuilder reusable = builder.get();
+		if (reusable.capacity() > MAX_REUSABLE_BUILDER_CAPACITY) {
+			reusable = new StringBuilder(256);
+			builder.set(reusable);
+		}
+		reusable.setLength(0);
+		return reusable;
+	}
+	
+	// Devuelve true si el servicio de usuarios ha aceptado la notificación.
+	//
+	// Returns true if the user service has accepted the notification.
 	@Override
-	public void sendNotification(NotificationType notificationType, int idUser, int idClassroom,
+	public boolean sendNotification(NotificationType notificationType, int idUser, int idClassroom,
 			LocalDateTime start, LocalDateTime finish) {
+		return sendMessage(idUser, messageBuilder(notificationType, idUser, idClassroom, start, finish));
+	}
+	
+	@Override
+	public boolean sendMessage(int idUser, Map<String, String> message) {
         String url = usersServiceUrl + "/notifications/send";
-		Map<String, String> message = new HashMap<>();
 		logger.info("Sending notification to user {} at URL: {}", idUser, url);
-		message = messageBuilder(notificationType, idUser, idClassroom, start, finish);
 		
 		try {
-            ResponseEntity<String> response = restClient.post()
+            ResponseEntity<String> response = usersServiceGuard.callForNotifications(() -> restClient.post()
                     .uri(url)
                     .body(message)
                     .retrieve()
-                    .toEntity(String.class);
+                    .toEntity(String.class), 
+                    result -> result.getStatusCode().is5xxServerError());
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 logger.info("Notification successfully sent to user {}.", idUser);
+                return true;
             } else {
                 logger.error("Failed to send notification to user {}. HTTP Status: {}", idUser, response.getStatusCode());
             }
             
+        } catch (ServiceNotAvailableException ex) {
+            logger.warn("Notification to user {} not sent: {}", idUser, ex.getMessage());
         } catch (Exception ex) {
             logger.error("Error while connecting to the user service: {}", ex.getMessage(), ex);
         }
+        return false;
     }
-}
\ No newline at end of file
+
+	// Envía varios mensajes en una sola petición. Un 404, 405 o 501 se interpreta como que el 
+	// servicio de usuarios todavía no tiene el endpoint de lotes.
+	//
+	// Sends several messages in a single request. A 404, 405 or 501 is taken to mean that the 
+	// user service does not have the batch endpoint yet.
+	@Override
+	public BatchDeliveryStatus sendNotificationBatch(List<Map<String, String>> messages) {
+		String url = usersServiceUrl + "/notifications/sendBatch";
+		logger.info("Sending {} notifications in a single request to URL: {}", messages.size(), url);
+		
+		try {
+			HttpStatusCode statusCode = usersServiceGuard.callForNotifications(() -> restClient.post()
+					.uri(url)
+					.body(messages)
+					.exchange((request, response) -> response.getStatusCode()),
+					HttpStatusCode::is5xxServerError);
+			
+			if (statusCode.is2xxSuccessful()) {
+				logger.info("{} notifications successfully sent.", messages.size());
+				return BatchDeliveryStatus.DELIVERED;
+			}
+			if (statusCode.isSameCodeAs(HttpStatus.NOT_FOUND) || statusCode.isSameCodeAs(HttpStatus.METHOD_NOT_ALLOWED)
+					|| statusCode.isSameCodeAs(HttpStatus.NOT_IMPLEMENTED)) {
+				logger.warn("The user service does not support batch notifications. HTTP Status: {}", statusCode);
+				return BatchDeliveryStatus.UNSUPPORTED;
+			}
+			logger.error("Failed to send {} notifications. HTTP Status: {}", messages.size(), statusCode);
+			
+		} catch (ServiceNotAvailableException ex) {
+			logger.warn("{} notifications not sent: {}", messages.size(), ex.getMessage());
+		} catch (Exception ex) {
+			logger.error("Error while connecting to the user service: {}", ex.getMessage(), ex);
+		}
+		return BatchDeliveryStatus.FAILED;
+	}
+}
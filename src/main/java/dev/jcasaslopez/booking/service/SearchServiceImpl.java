@@ -6,67 +6,60 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import dev.jcasaslopez.booking.dto.ClassroomDto;
 import dev.jcasaslopez.booking.dto.SlotDto;
 import dev.jcasaslopez.booking.exception.OutOfOpeningHoursException;
-import dev.jcasaslopez.booking.model.ClassroomsList;
-import dev.jcasaslopez.booking.repository.BookingRepository;
+import dev.jcasaslopez.booking.repository.ClassroomRepository;
 import dev.jcasaslopez.booking.slot.SlotManager;
 
+// Todas las búsquedas son transacciones de solo lectura, de modo que pueden enviarse a la 
+// réplica de lectura si está activada (ver ReplicaDataSourceConfig).
+//
+// All searches are read-only transactions, so they can be sent to the read replica when it is 
+// enabled (see ReplicaDataSourceConfig).
 @Service
 public class SearchServiceImpl implements SearchService {
 	
 	private static final Logger logger = LoggerFactory.getLogger(SearchServiceImpl.class);
 	
-	private ClassroomsList classroomsList;
+	private ClassroomRepository classroomRepository;
 	private SlotManager slotManager;
-	private BookingRepository bookingRepository;
 
-	public SearchServiceImpl(ClassroomsList classroomsList, SlotManager slotManager,
-			BookingRepository bookingRepository) {
-		this.classroomsList = classroomsList;
+	public SearchServiceImpl(ClassroomRepository classroomRepository, SlotManager slotManager) {
+		this.classroomRepository = classroomRepository;
 		this.slotManager = slotManager;
-		this.bookingRepository = bookingRepository;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<SlotDto> availabilityCalendarByClassroom(int idClassroom, LocalDateTime start, LocalDateTime finish) {
 		return slotManager.createCalendar(idClassroom, start, finish);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<ClassroomDto> classroomsAvailableByPeriod(LocalDateTime start, LocalDateTime finish) {
+		return classroomsAvailableByPeriodAndFeatures(start, finish, 0, false, false);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ClassroomDto> classroomsAvailableByPeriodAndFeatures(LocalDateTime start, LocalDateTime finish,
+			int seats, boolean projector, boolean speakers) {
 		if(!slotManager.isWithinOpeningHours(start, finish)){
 			throw new OutOfOpeningHoursException("Classrooms closed from " + start + " to " + finish);
 		}
 		logger.info("Obtaining list of available classrooms from {} to {}", start, finish);
-		List<Integer> listsByIdClassroom = bookingRepository.findOccupiedClassroomsbyPeriod(start, finish);
-		List<ClassroomDto> availableClassrooms =  classroomsList.getClassroomsList().stream()
-										.filter(c -> !listsByIdClassroom.contains(c.getIdClassroom()))
-										.toList();
+		// Los filtros por disponibilidad y por características se resuelven en una sola consulta
+		// sobre la tabla local de aulas (ver ClassroomRepository.findAvailableClassrooms()).
+		//
+		// Availability and feature filters are resolved in a single query on the local classrooms
+		// table (see ClassroomRepository.findAvailableClassrooms()).
+		List<ClassroomDto> availableClassrooms = classroomRepository.findAvailableClassrooms(start, finish, 
+				seats, projector, speakers);
 		logger.info("Found {} available classrooms from {} to {}", availableClassrooms.size(), start, finish);
 		return availableClassrooms;
 	}
-
-	@Override
-	public List<ClassroomDto> classroomsAvailableByPeriodAndFeatures(LocalDateTime start, LocalDateTime finish,
-			int seats, boolean projector, boolean speakers) {
-		return classroomsAvailableByPeriod(start, finish).stream()
-						.filter(c -> c.getSeats() >= seats)
-						.filter(c -> projector ? c.getProjector() : true)
-						.filter(c -> speakers ? c.getSpeakers() : true)
-						.toList();
-	}
-	
-	// Cada 24h llama al servicio "classroom" para obtener la lista actualizada de aulas,
-	// a partir de la cual se obtendrá la lista de aulas disponibles en los métodos de este service.
-	//
-	// Every 24 hours, calls the "classroom" service to get the updated list of classrooms,
-	// which will be used to obtain the list of available classrooms in the methods of this service.
-	
-	/*@Scheduled(fixedRate = 86_400_000)
-	public void updateClassroomList() {
-		classroomsList.updateClassroomsList();
-	}*/
 }
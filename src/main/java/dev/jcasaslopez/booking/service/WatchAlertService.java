@@ -3,12 +3,14 @@ package dev.jcasaslopez.booking.service;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import dev.jcasaslopez.booking.dto.CursorPageDto;
 import dev.jcasaslopez.booking.dto.WatchAlertDto;
 
 public interface WatchAlertService {
 	
 	WatchAlertDto addWatchAlert(WatchAlertDto watchAlertDto);
-	List<WatchAlertDto> watchAlertsListByUser(int idUser);
+	List<WatchAlertDto> addWatchAlerts(List<WatchAlertDto> watchAlertDtos);
+	CursorPageDto<WatchAlertDto> watchAlertsListByUser(int idUser, String cursor, Integer pageSize);
 	List<WatchAlertDto> watchAlertsListByTimePeriodAndClassroom(int idClassroom, LocalDateTime start, 
 			LocalDateTime finish);
 	
@@ -1,18 +1,41 @@
 package dev.jcasaslopez.booking.service;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import dev.jcasaslopez.booking.dto.CursorPageDto;
 import dev.jcasaslopez.booking.dto.WatchAlertDto;
 import dev.jcasaslopez.booking.entity.WatchAlert;
+import dev.jcasaslopez.booking.exception.InvalidWatchAlertException;
 import dev.jcasaslopez.booking.exception.NoSuchClassroomException;
 import dev.jcasaslopez.booking.mapper.WatchAlertMapper;
-import dev.jcasaslopez.booking.model.ClassroomsList;
+import dev.jcasaslopez.booking.model.ClassroomCatalogue;
+import dev.jcasaslopez.booking.model.WatchAlertIndex;
 import dev.jcasaslopez.booking.repository.WatchAlertRepository;
+import dev.jcasaslopez.booking.util.KeysetCursor;
+import dev.jcasaslopez.booking.util.KeysetPaginator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 // No validamos la existencia del usuario en estos métodos porque requeriría una llamada a otro 
 // microservicio, lo que afectaría el rendimiento y complicaría la mantenibilidad. 
@@ -30,6 +53,10 @@ import dev.jcasaslopez.booking.repository.WatchAlertRepository;
 // No unit tests have been implemented for this class as it does not contain business logic,  
 // only delegates calls to other layers (repository and mapper).  
 // These dependencies have already been thoroughly tested, so additional tests would be redundant.
+//
+// addWatchAlerts() es la excepción y sí tiene tests (WatchAlertBulkTest), porque elimina duplicados.
+//
+// addWatchAlerts() is the exception and does have tests (WatchAlertBulkTest), as it removes duplicates.
 @Service
 public class WatchAlertServiceImpl implements WatchAlertService {
 	
@@ -37,15 +64,39 @@ public class WatchAlertServiceImpl implements WatchAlertService {
 	
 	private WatchAlertRepository watchAlertRepository;
 	private WatchAlertMapper watchAlertMapper;
-	private ClassroomsList classroomsList;
-	
+	private ClassroomCatalogue classroomCatalogue;
+	private KeysetPaginator keysetPaginator;
+	private WatchAlertIndex watchAlertIndex;
+	private JdbcTemplate jdbcTemplate;
+	private Validator validator;
+	private int maxBulkAlerts;
+	private int batchSize;
+
+	private static final String INSERT_WATCH_ALERT = """
+			INSERT INTO watch_alerts (idClassroom, idUser, start, finish, timestamp)
+			VALUES (?, ?, ?, ?, ?)
+			""";
+
 	public WatchAlertServiceImpl(WatchAlertRepository watchAlertRepository, WatchAlertMapper watchAlertMapper,
-			ClassroomsList classroomsList) {
+			ClassroomCatalogue classroomCatalogue, KeysetPaginator keysetPaginator, WatchAlertIndex watchAlertIndex,
+			JdbcTemplate jdbcTemplate, Validator validator,
+			@Value("${watch-alerts.bulk.max-alerts}") int maxBulkAlerts,
+			@Value("${watch-alerts.bulk.batch-size}") int batchSize) {
 		this.watchAlertRepository = watchAlertRepository;
 		this.watchAlertMapper = watchAlertMapper;
-		this.classroomsList = classroomsList;
+		this.classroomCatalogue = classroomCatalogue;
+		this.keysetPaginator = keysetPaginator;
+		this.watchAlertIndex = watchAlertIndex;
+		this.jdbcTemplate = jdbcTemplate;
+		this.validator = validator;
+		this.maxBulkAlerts = maxBulkAlerts;
+		this.batchSize = batchSize;
 	}
 
+	private record UserClassroom(int idUser, int idClassroom) {}
+	
+	private record Period(LocalDateTime start, LocalDateTime finish) {}
+
 	@Override
 	public WatchAlertDto addWatchAlert(WatchAlertDto watchAlertDto) {
 		logger.info("Creating watch alert: Classroom ID= {}, User ID= {}, Start= {}, Finish= {}", 
@@ -54,21 +105,174 @@ public class WatchAlertServiceImpl implements WatchAlertService {
 		validateClassroomExists(watchAlertDto.getIdClassroom());
 		WatchAlert savedWatchAlert = watchAlertRepository.save(
 				watchAlertMapper.WatchAlertDtoToWatchAlert(watchAlertDto));
+		watchAlertIndex.add(savedWatchAlert);
 		logger.info("Watch alert created: Classroom ID= {}, User ID= {}, Start= {}, Finish= {}", 
 				savedWatchAlert.getIdClassroom(), savedWatchAlert.getIdUser(), savedWatchAlert.getStart(), 
 				savedWatchAlert.getFinish());
 		return watchAlertMapper.watchAlertToWatchAlertDto(savedWatchAlert);
 	}
 
+	// Crea muchos watch alerts de una vez:
+	// 1. Cada alerta se valida con las mismas reglas que WatchAlertDto aplica en POST
+	//    alerts/createAlert, y su aula se busca en ClassroomCatalogue. Un solo error rechaza toda
+	//    la petición.
+	// 2. Las alertas se agrupan por usuario y aula, y dentro de cada grupo se fusionan las que se
+	//    solapan. Como todas duran exactamente 30 minutos y empiezan en punto o y media, solaparse
+	//    es repetir el mismo período, así que fusionar es eliminar duplicados. Las alertas 
+	//    contiguas (10:00-10:30 y 10:30-11:00) no se fusionan: una fila de más de 30 minutos no 
+	//    cumpliría las reglas de WatchAlertDto.
+	// 3. Una sola consulta por grupo trae los watch alerts ya guardados en el período que cubre el
+	//    grupo. Un período que ya está guardado no se vuelve a insertar; si estaba guardado varias
+	//    veces, se conserva el más antiguo y se borran los demás.
+	// 4. Los períodos nuevos se insertan con JDBC en lotes. WatchAlertIndex se actualiza después 
+	//    del commit.
+	// Devuelve los watch alerts resultantes, uno por período distinto.
+	//
+	// Creates many watch alerts at once:
+	// 1. Each alert is validated with the same rules WatchAlertDto applies in POST
+	//    alerts/createAlert, and its classroom is looked up in ClassroomCatalogue. A single error
+	//    rejects the whole request.
+	// 2. Alerts are grouped by user and classroom, and within each group those that overlap are 
+	//    merged. As they all last exactly 30 minutes and start on the hour or half past, 
+	//    overlapping means repeating the same period, so merging means removing duplicates. 
+	//    Adjacent alerts (10:00-10:30 and 10:30-11:00) are not merged: a row longer than 30 
+	//    minutes would not meet the WatchAlertDto rules.
+	// 3. A single query per group fetches the watch alerts already stored within the period the 
+	//    group covers. A period already stored is not inserted again; if it was stored several 
+	//    times, the oldest one is kept and the rest are deleted.
+	// 4. New periods are inserted with JDBC in batches. WatchAlertIndex is updated after commit.
+	// Returns the resulting watch alerts, one per distinct period.
 	@Override
-	public List<WatchAlertDto> watchAlertsListByUser(int idUser) {
-		logger.info("Searching watch alerts for user {}", idUser);
-		List<WatchAlertDto> watchAlertsByUser = watchAlertRepository.findWatchAlertsByUser(idUser)
-				.stream()
+	@Transactional
+	public List<WatchAlertDto> addWatchAlerts(List<WatchAlertDto> watchAlertDtos) {
+		logger.info("Creating {} watch alerts in bulk", watchAlertDtos.size());
+		if (watchAlertDtos.isEmpty() || watchAlertDtos.size() > maxBulkAlerts) {
+			throw new InvalidWatchAlertException("Between 1 and " + maxBulkAlerts
+					+ " watch alerts can be created at once");
+		}
+
+		Map<UserClassroom, Set<Period>> requestedByUserClassroom = new LinkedHashMap<>();
+		for (int i = 0; i < watchAlertDtos.size(); i++) {
+			WatchAlertDto watchAlertDto = watchAlertDtos.get(i);
+			String violations = validate(watchAlertDto);
+			if (violations != null) {
+				logger.warn("Watch alert {} rejected: {}", i + 1, violations);
+				throw new InvalidWatchAlertException("Watch alert " + (i + 1) + ": " + violations);
+			}
+			validateClassroomExists(watchAlertDto.getIdClassroom());
+			requestedByUserClassroom.computeIfAbsent(
+					new UserClassroom(watchAlertDto.getIdUser(), watchAlertDto.getIdClassroom()),
+					key -> new LinkedHashSet<>())
+					.add(new Period(watchAlertDto.getStart(), watchAlertDto.getFinish()));
+		}
+
+		List<WatchAlert> result = new ArrayList<>();
+		List<WatchAlert> toInsert = new ArrayList<>();
+		List<WatchAlert> toDelete = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
+		requestedByUserClassroom.forEach((userClassroom, requested) ->
+			deduplicate(userClassroom, requested, now, result, toInsert, toDelete));
+
+		if (!toDelete.isEmpty()) {
+			watchAlertRepository.deleteAllByIdInBatch(toDelete.stream().map(WatchAlert::getIdWatchAlert).toList());
+			toDelete.forEach(watchAlertIndex::remove);
+		}
+		insertInBatches(toInsert);
+		toInsert.forEach(watchAlertIndex::add);
+
+		logger.info("Bulk creation finished: {} watch alerts requested, {} resulting ({} inserted, {} duplicates deleted)",
+				watchAlertDtos.size(), result.size(), toInsert.size(), toDelete.size());
+		return result.stream()
 				.map(a -> watchAlertMapper.watchAlertToWatchAlertDto(a))
 				.toList();
-		logger.info("Found {} watch alerts for user {}", watchAlertsByUser.size(), idUser);
-		return watchAlertsByUser;
+	}
+
+	private void deduplicate(UserClassroom userClassroom, Set<Period> requested, LocalDateTime now,
+			List<WatchAlert> result, List<WatchAlert> toInsert, List<WatchAlert> toDelete) {
+		LocalDateTime envelopeStart = requested.stream().map(Period::start).min(Comparator.naturalOrder()).get();
+		LocalDateTime envelopeFinish = requested.stream().map(Period::finish).max(Comparator.naturalOrder()).get();
+		Map<Period, List<WatchAlert>> storedByPeriod = watchAlertRepository
+				.findWatchAlertsByUserClassroomAndPeriod(userClassroom.idUser(), userClassroom.idClassroom(),
+						envelopeStart, envelopeFinish)
+				.stream()
+				.sorted(Comparator.comparingLong(WatchAlert::getIdWatchAlert))
+				.collect(Collectors.groupingBy(a -> new Period(a.getStart(), a.getFinish())));
+
+		for (Period period : requested) {
+			List<WatchAlert> stored = storedByPeriod.getOrDefault(period, List.of());
+			if (stored.isEmpty()) {
+				WatchAlert watchAlert = new WatchAlert(0, userClassroom.idClassroom(), userClassroom.idUser(),
+						period.start(), period.finish(), now);
+				result.add(watchAlert);
+				toInsert.add(watchAlert);
+			} else {
+				result.add(stored.get(0));
+				toDelete.addAll(stored.subList(1, stored.size()));
+			}
+		}
+	}
+
+	// Las claves generadas se asignan a cada WatchAlert para poder devolverlos y añadirlos al índice.
+	//
+	// Generated keys are assigned to each WatchAlert so they can be returned and added to the index.
+	private void insertInBatches(List<WatchAlert> watchAlerts) {
+		for (int from = 0; from < watchAlerts.size(); from += batchSize) {
+			List<WatchAlert> batch = watchAlerts.subList(from, Math.min(from + batchSize, watchAlerts.size()));
+			KeyHolder keyHolder = new GeneratedKeyHolder();
+			jdbcTemplate.batchUpdate(
+					connection -> connection.prepareStatement(INSERT_WATCH_ALERT, Statement.RETURN_GENERATED_KEYS),
+					new BatchPreparedStatementSetter() {
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							WatchAlert watchAlert = batch.get(i);
+							ps.setInt(1, watchAlert.getIdClassroom());
+							ps.setInt(2, watchAlert.getIdUser());
+							ps.setObject(3, watchAlert.getStart());
+							ps.setObject(4, watchAlert.getFinish());
+							ps.setObject(5, watchAlert.getTimestamp());
+						}
+
+						@Override
+						public int getBatchSize() {
+							return batch.size();
+						}
+					}, keyHolder);
+			List<Map<String, Object>> keys = keyHolder.getKeyList();
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).setIdWatchAlert(((Number) keys.get(i).values().iterator().next()).longValue());
+			}
+		}
+	}
+
+	private String validate(WatchAlertDto watchAlertDto) {
+		var violations = validator.validate(watchAlertDto);
+		if (violations.isEmpty()) {
+			return null;
+		}
+		return violations.stream()
+				.map(ConstraintViolation::getMessage)
+				.sorted()
+				.collect(Collectors.joining("; "));
+	}
+
+	@Override
+	public CursorPageDto<WatchAlertDto> watchAlertsListByUser(int idUser, String cursor, Integer pageSize) {
+		logger.info("Searching watch alerts for user {}", idUser);
+		int resolvedPageSize = keysetPaginator.resolvePageSize(pageSize);
+		List<WatchAlert> watchAlertsByUser;
+		if (cursor == null || cursor.isBlank()) {
+			watchAlertsByUser = watchAlertRepository.findWatchAlertsByUserFirstPage(idUser, 
+					keysetPaginator.limitFor(resolvedPageSize));
+		} else {
+			KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+			watchAlertsByUser = watchAlertRepository.findWatchAlertsByUserAfterCursor(idUser, 
+					keysetCursor.start(), keysetCursor.id(), keysetPaginator.limitFor(resolvedPageSize));
+		}
+		CursorPageDto<WatchAlertDto> page = keysetPaginator.toPage(watchAlertsByUser, resolvedPageSize,
+				a -> new KeysetCursor(a.getStart(), a.getIdWatchAlert()),
+				a -> watchAlertMapper.watchAlertToWatchAlertDto(a));
+		logger.info("Found {} watch alerts for user {}", page.getItems().size(), idUser);
+		return page;
 	}
 
 	@Override
@@ -87,9 +291,7 @@ public class WatchAlertServiceImpl implements WatchAlertService {
 	}
 	
 	public void validateClassroomExists(int idClassroom) {
-	    if (classroomsList.getClassroomsList()
-	            .stream()
-	            .noneMatch(c -> c.getIdClassroom() == idClassroom)) {
+	    if (!classroomCatalogue.snapshot().contains(idClassroom)) {
 	        logger.warn("Classroom with ID= {} not found", idClassroom);
 	        throw new NoSuchClassroomException("Classroom with ID= " + idClassroom + " not found");
 	    }
@@ -10,10 +10,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import dev.jcasaslopez.booking.dto.SlotDto;
-import dev.jcasaslopez.booking.entity.Booking;
 import dev.jcasaslopez.booking.exception.NoSuchSlotException;
+import dev.jcasaslopez.booking.model.BookingInterval;
 import dev.jcasaslopez.booking.model.OpeningHours;
 import dev.jcasaslopez.booking.model.WeeklySchedule;
 import dev.jcasaslopez.booking.repository.BookingRepository;
@@ -30,21 +31,28 @@ public class SlotManagerImpl implements SlotManager {
 	private BookingRepository bookingRepository;
 
 	// Esta implementación:
-	// - Obtiene del repositorio la lista de reservas para un aula y un período determinado.
+	// - Obtiene del repositorio el inicio y el fin de las reservas para un aula y un período 
+	// determinado (no necesita el resto de campos de Booking).
 	// - createEmptyCalendar(): crea la lista de slots "en blanco" (es decir, todos disponibles por 
 	// defecto) para el mismo período.
 	// - updateSlotsAvailability(): actualiza la lista de slots "en blanco" en función de las reservas.
+	// Al ser de solo lectura, puede servirse desde la réplica de lectura si se llama fuera de 
+	// otra transacción.
 	//
 	// This implementation:
-	// - Retrieves the list of bookings for a classroom and a given period from the repository.
+	// - Retrieves the start and finish of the bookings for a classroom and a given period from the 
+	// repository (it does not need the rest of the Booking fields).
 	// - createEmptyCalendar(): creates a list of "blank" slots (i.e., all available by default) 
 	// for the same period.
 	// - updateSlotsAvailability(): updates the "blank" slots list based on the bookings.
+	// Being read-only, it can be served from the read replica when called outside another 
+	// transaction.
 	@Override
+	@Transactional(readOnly = true)
 	public List<SlotDto> createCalendar(int idClassroom, LocalDateTime start, LocalDateTime finish) {
         logger.info("Creating calendar for classroom {} from {} to {}", idClassroom, start, finish);
-		List<Booking> bookingsByClassroomAndPeriod = bookingRepository.findActiveBookingsForClassroomByPeriod
-				(idClassroom, start, finish);
+		List<BookingInterval> bookingsByClassroomAndPeriod = bookingRepository
+				.findActiveBookingIntervalsForClassroomByPeriod(idClassroom, start, finish);
 		List<SlotDto> emptyCalendarByClassroom = createEmptyCalendar(idClassroom, start, finish);
 		logger.debug("Found {} bookings for classroom {}", bookingsByClassroomAndPeriod.size(), idClassroom);
 		return updateSlotsAvailability(emptyCalendarByClassroom, bookingsByClassroomAndPeriod);
@@ -102,14 +110,14 @@ public class SlotManagerImpl implements SlotManager {
 	// Actualiza la disponibilidad de una lista de slots en base a las reservas activas.
 	//
 	// Updates the availability of a list of slots based on active bookings.
-	public List<SlotDto> updateSlotsAvailability(List<SlotDto> emptyCalendar, List<Booking> bookings) {
+	public List<SlotDto> updateSlotsAvailability(List<SlotDto> emptyCalendar, List<BookingInterval> bookings) {
         logger.info("Updating slot availability based on {} bookings", bookings.size());
 
 		// Recorre cada reserva de principio a fin en bloques de 30 minutos.
 		//
 		// It goes from beginning to end of each booking in 30-minute blocks.
-		for(Booking booking:bookings) {
-			for(LocalDateTime time = booking.getStart(); time.isBefore(booking.getFinish());
+		for(BookingInterval booking:bookings) {
+			for(LocalDateTime time = booking.start(); time.isBefore(booking.finish());
 					time = time.plusMinutes(30)) {
 				
 				// Hace creer al compilador que la variable es efectiva final.
@@ -240,19 +248,17 @@ public class SlotManagerImpl implements SlotManager {
 			return false;
 		}
 		
-		List<Booking> listBookings = bookingRepository.findActiveBookingsForClassroomByPeriod(idClassroom, 
-				start, finish);
-
-		// Si la lista está vacía es que no hay ninguna reserva que se solape con
-		// esos horarios especificados, luego el aula está disponible.
+		// Si no existe ninguna reserva que se solape con esos horarios especificados, el aula está 
+		// disponible. No hace falta cargar las reservas: basta con saber si hay al menos una.
 		//
-		// If the list is empty, it means that no bookings overlap the period of time passed in,
-		// hence the classroom is available.
-		boolean isAvailable = listBookings.isEmpty();
+		// If no booking overlaps the period of time passed in, the classroom is available. 
+		// There is no need to load the bookings: it is enough to know whether there is at least one.
+		boolean isAvailable = !bookingRepository.existsActiveBookingForClassroomByPeriod(idClassroom, 
+				start, finish);
 		if(isAvailable) {
-			logger.info("Classroom {} is available");
+			logger.info("Classroom {} is available", idClassroom);
 		} else {
-			logger.warn("Classroom {} is not available");
+			logger.warn("Classroom {} is not available", idClassroom);
 		}
 		return isAvailable;
 	}
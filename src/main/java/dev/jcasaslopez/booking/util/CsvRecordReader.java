@@ -0,0 +1,61 @@
+package dev.jcasaslopez.booking.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Lee registros CSV (RFC 4180) de uno en uno: los campos entre comillas pueden contener comas,
+// saltos de línea y comillas duplicadas (""), igual que los que escribe BookingExportServiceImpl.
+//
+// Reads CSV records (RFC 4180) one at a time: quoted fields may contain commas, line breaks and
+// doubled quotes (""), just like the ones written by BookingExportServiceImpl.
+public class CsvRecordReader {
+	
+	private final Reader reader;
+	private int nextChar;
+
+	public CsvRecordReader(Reader reader) throws IOException {
+		this.reader = reader;
+		this.nextChar = reader.read();
+	}
+
+	// Devuelve los campos del siguiente registro, o null al llegar al final.
+	//
+	// Returns the fields of the next record, or null when the end is reached.
+	public List<String> readRecord() throws IOException {
+		if (nextChar == -1) {
+			return null;
+		}
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		
+		while (nextChar != -1) {
+			char c = (char) nextChar;
+			nextChar = reader.read();
+			if (quoted) {
+				if (c == '"' && nextChar == '"') {
+					field.append('"');
+					nextChar = reader.read();
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\n') {
+				break;
+			} else if (c != '\r') {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+}
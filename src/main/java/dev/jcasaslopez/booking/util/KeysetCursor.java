@@ -0,0 +1,40 @@
+package dev.jcasaslopez.booking.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import dev.jcasaslopez.booking.exception.InvalidCursorException;
+
+// Cursor de paginación por keyset: guarda la clave (start, id) de la última fila devuelta, de
+// modo que la página siguiente empieza justo después de ella sin usar OFFSET. Así, el coste de
+// una página profunda es el mismo que el de la primera.
+// Se codifica en Base64 para que el cliente lo trate como un valor opaco.
+//
+// Keyset pagination cursor: it holds the (start, id) key of the last row returned, so the
+// next page starts right after it without using OFFSET. This way, a deep page costs the same
+// as the first one.
+// It is encoded in Base64 so that the client treats it as an opaque value.
+public record KeysetCursor(LocalDateTime start, long id) {
+
+	private static final String SEPARATOR = ",";
+
+	public String encode() {
+		String rawCursor = start + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static KeysetCursor decode(String cursor) {
+		try {
+			String rawCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = rawCursor.split(SEPARATOR);
+			if (parts.length != 2) {
+				throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+			}
+			return new KeysetCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+		} catch (IllegalArgumentException | DateTimeParseException ex) {
+			throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package dev.jcasaslopez.booking.util;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import dev.jcasaslopez.booking.dto.CursorPageDto;
+
+// Centraliza las reglas de la paginación keyset: el tamaño de página por defecto, el tamaño 
+// máximo permitido y la construcción de cada página con su cursor.
+//
+// Centralizes the keyset pagination rules: the default page size, the maximum page size 
+// allowed, and how each page is built along with its cursor.
+@Component
+public class KeysetPaginator {
+	
+	@Value("${pagination.default-page-size}")
+	private int defaultPageSize;
+	
+	@Value("${pagination.max-page-size}")
+	private int maxPageSize;
+
+	// Si no se especifica tamaño de página se usa el de por defecto, y nunca se supera el máximo.
+	//
+	// If no page size is given, the default one is used, and the maximum is never exceeded.
+	public int resolvePageSize(Integer requestedPageSize) {
+		if (requestedPageSize == null || requestedPageSize < 1) {
+			return defaultPageSize;
+		}
+		return Math.min(requestedPageSize, maxPageSize);
+	}
+	
+	// Se pide una fila más de las que caben en la página: si llega, sabemos que hay una página 
+	// siguiente sin necesidad de una consulta COUNT.
+	//
+	// One more row than fits in the page is requested: if it comes back, we know there is a 
+	// next page without the need for a COUNT query.
+	public Pageable limitFor(int pageSize) {
+		return PageRequest.ofSize(pageSize + 1);
+	}
+
+	public <T, R> CursorPageDto<R> toPage(List<T> rows, int pageSize, Function<T, KeysetCursor> keyExtractor,
+			Function<T, R> mapper) {
+		boolean hasNextPage = rows.size() > pageSize;
+		List<T> pageRows = hasNextPage ? rows.subList(0, pageSize) : rows;
+		String nextCursor = hasNextPage ? keyExtractor.apply(pageRows.get(pageSize - 1)).encode() : null;
+		return new CursorPageDto<>(pageRows.stream().map(mapper).toList(), nextCursor);
+	}
+}
@@ -0,0 +1,68 @@
+package dev.jcasaslopez.booking.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Plantilla de mensaje con huecos numerados ("{0}", "{1}"...), que se analiza una sola vez al 
+// crearla. Al rellenarla solo se copian los trozos de texto fijo y los valores en el 
+// StringBuilder de destino, sin volver a analizar el patrón como hace String.format.
+// Es inmutable, así que se puede compartir entre hilos.
+//
+// Message template with numbered placeholders ("{0}", "{1}"...), parsed only once when it is 
+// created. Filling it in only copies the fixed text pieces and the values into the target 
+// StringBuilder, without parsing the pattern again as String.format does.
+// It is immutable, so it can be shared between threads.
+public final class MessageTemplate {
+	
+	// literals tiene un elemento más que placeholders: literal, hueco, literal, ..., literal.
+	//
+	// literals has one more element than placeholders: literal, placeholder, literal, ..., literal.
+	private final String[] literals;
+	private final int[] placeholders;
+	private final int argumentCount;
+	
+	private MessageTemplate(String[] literals, int[] placeholders) {
+		this.literals = literals;
+		this.placeholders = placeholders;
+		int maxIndex = -1;
+		for (int placeholder : placeholders) {
+			maxIndex = Math.max(maxIndex, placeholder);
+		}
+		this.argumentCount = maxIndex + 1;
+	}
+	
+	public static MessageTemplate compile(String pattern) {
+		List<String> literals = new ArrayList<>();
+		List<Integer> placeholders = new ArrayList<>();
+		int literalStart = 0;
+		int open = pattern.indexOf('{');
+		while (open >= 0) {
+			int close = pattern.indexOf('}', open);
+			if (close < 0) {
+				throw new IllegalArgumentException("Unclosed placeholder in template: " + pattern);
+			}
+			literals.add(pattern.substring(literalStart, open));
+			try {
+				placeholders.add(Integer.parseInt(pattern.substring(open + 1, close)));
+			} catch (NumberFormatException ex) {
+				throw new IllegalArgumentException("Invalid placeholder in template: " + pattern, ex);
+			}
+			literalStart = close + 1;
+			open = pattern.indexOf('{', literalStart);
+		}
+		literals.add(pattern.substring(literalStart));
+		return new MessageTemplate(literals.toArray(String[]::new), 
+				placeholders.stream().mapToInt(Integer::intValue).toArray());
+	}
+	
+	public StringBuilder appendTo(StringBuilder target, CharSequence... values) {
+		if (values.length < argumentCount) {
+			throw new IllegalArgumentException("Template expects " + argumentCount + " values, got " + values.length);
+		}
+		target.append(literals[0]);
+		for (int i = 0; i < placeholders.length; i++) {
+			target.append(values[placeholders[i]]).append(literals[i + 1]);
+		}
+		return target;
+	}
+}
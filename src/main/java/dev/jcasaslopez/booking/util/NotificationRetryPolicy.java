@@ -0,0 +1,47 @@
+package dev.jcasaslopez.booking.util;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Reglas de reintento de las notificaciones: la espera se duplica con cada intento fallido, hasta
+// notifications.retry.max-backoff-ms, y una notificación se da por perdida tras 
+// notifications.retry.max-attempts intentos. La espera real es aleatoria entre la mitad y el 
+// total, para que las notificaciones que fallaron a la vez no se reintenten todas a la vez.
+//
+// Notification retry rules: the wait doubles with each failed attempt, up to 
+// notifications.retry.max-backoff-ms, and a notification is given up after 
+// notifications.retry.max-attempts attempts. The actual wait is random between half and the 
+// whole of it, so that notifications that failed together are not all retried together.
+@Component
+public class NotificationRetryPolicy {
+	
+	private long initialBackoffMs;
+	private long maxBackoffMs;
+	private int maxAttempts;
+
+	public NotificationRetryPolicy(@Value("${notifications.retry.initial-backoff-ms}") long initialBackoffMs,
+			@Value("${notifications.retry.max-backoff-ms}") long maxBackoffMs,
+			@Value("${notifications.retry.max-attempts}") int maxAttempts) {
+		this.initialBackoffMs = initialBackoffMs;
+		this.maxBackoffMs = maxBackoffMs;
+		this.maxAttempts = maxAttempts;
+	}
+	
+	public boolean isExhausted(int failedAttempts) {
+		return failedAttempts >= maxAttempts;
+	}
+	
+	public long backoffMs(int failedAttempts) {
+		int doublings = Math.min(Math.max(failedAttempts - 1, 0), 30);
+		long backoff = Math.min(initialBackoffMs << doublings, maxBackoffMs);
+		return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+	}
+	
+	public LocalDateTime nextAttemptAt(int failedAttempts, LocalDateTime now) {
+		return now.plusNanos(backoffMs(failedAttempts) * 1_000_000);
+	}
+
+}
@@ -0,0 +1,128 @@
+package dev.jcasaslopez.booking.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import dev.jcasaslopez.booking.dto.BookingDto;
+import dev.jcasaslopez.booking.dto.ClassroomDto;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+import dev.jcasaslopez.booking.service.BookingService;
+import dev.jcasaslopez.booking.service.SearchService;
+
+// Se usan dos bases de datos H2 independientes como principal y réplica. Como no hay replicación
+// real entre ellas, cada test escribe directamente en la réplica los datos y el heartbeat que
+// necesita, de modo que se puede saber de qué base de datos ha leído cada consulta.
+// El heartbeat programado se retrasa una hora para que no interfiera con los tests.
+//
+// Two independent H2 databases are used as primary and replica. As there is no real replication
+// between them, each test writes the data and the heartbeat it needs straight into the replica,
+// so it is possible to tell which database each query has read from.
+// The scheduled heartbeat is delayed by one hour so that it does not interfere with the tests.
+@SpringBootTest(properties = {
+		"replica.enabled=true",
+		"replica.datasource.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+		"replica.datasource.username=sa",
+		"replica.datasource.password=",
+		"replica.max-lag-ms=5000",
+		"replica.heartbeat-interval-ms=3600000"
+})
+public class ReplicaRoutingTest {
+
+	// Lunes / Monday
+	private static final LocalDateTime START = LocalDateTime.of(2030, 3, 18, 10, 0);
+	private static final LocalDateTime FINISH = LocalDateTime.of(2030, 3, 18, 11, 0);
+
+	@Autowired
+	private SearchService searchService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private ReplicaLagMonitor replicaLagMonitor;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	private JdbcTemplate replicaJdbcTemplate;
+
+	// La réplica tiene una reserva activa del aula 1 que la base de datos principal no tiene.
+	//
+	// The replica holds an active booking for classroom 1 that the primary database does not have.
+	@BeforeEach
+	void setUp() {
+		bookingRepository.deleteAll();
+		replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+		replicaJdbcTemplate.update("DELETE FROM bookings");
+		replicaJdbcTemplate.update("DELETE FROM replication_heartbeat");
+		replicaJdbcTemplate.update("INSERT INTO bookings (idClassroom, idUser, start, finish, timestamp, status) "
+				+ "VALUES (1, 10, ?, ?, ?, 'ACTIVE')", START, FINISH, LocalDateTime.now());
+	}
+
+	private void setReplicaHeartbeat(LocalDateTime beat) {
+		replicaJdbcTemplate.update("DELETE FROM replication_heartbeat");
+		replicaJdbcTemplate.update("INSERT INTO replication_heartbeat (id, beat) VALUES (1, ?)", beat);
+		replicaLagMonitor.checkReplicaLag();
+	}
+
+	private boolean isClassroom1Available() {
+		return searchService.classroomsAvailableByPeriod(START, FINISH).stream()
+				.map(ClassroomDto::getIdClassroom)
+				.anyMatch(id -> id == 1);
+	}
+
+	@Test
+	@DisplayName("Searches read from the replica when its lag is within the tolerance")
+	void search_WhenReplicaUpToDate_ShouldReadFromReplica() {
+		// Arrange
+		setReplicaHeartbeat(LocalDateTime.now());
+
+		// Act & Assert
+		assertTrue(replicaLagMonitor.isReplicaUsable(), "The replica should be usable");
+		assertFalse(isClassroom1Available(), "The search should have seen the booking stored in the replica");
+	}
+
+	@Test
+	@DisplayName("Searches read from the primary when the replica lags behind")
+	void search_WhenReplicaLagsBehind_ShouldReadFromPrimary() {
+		// Arrange
+		setReplicaHeartbeat(LocalDateTime.now().minusMinutes(1));
+
+		// Act & Assert
+		assertFalse(replicaLagMonitor.isReplicaUsable(), "The replica should not be usable");
+		assertTrue(isClassroom1Available(), "The search should have read from the primary database");
+	}
+
+	@Test
+	@DisplayName("book() checks availability against the primary even when the replica is usable")
+	void book_WhenReplicaUpToDate_ShouldReadFromPrimary() {
+		// Arrange
+		setReplicaHeartbeat(LocalDateTime.now());
+		BookingDto bookingDto = new BookingDto(0, 1, 20, START, FINISH, null, null, BookingStatus.ACTIVE);
+
+		// Act
+		bookingService.book(bookingDto);
+
+		// Assert
+		assertEquals(1, bookingRepository.count(), "The booking should have been stored in the primary database");
+	}
+
+}
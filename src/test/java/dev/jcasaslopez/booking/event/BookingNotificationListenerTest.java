@@ -0,0 +1,105 @@
+package dev.jcasaslopez.booking.event;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.enums.NotificationType;
+import dev.jcasaslopez.booking.model.IndexedWatchAlert;
+import dev.jcasaslopez.booking.model.WatchAlertIndex;
+import dev.jcasaslopez.booking.service.NotificationOutboxService;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingNotificationListenerTest {
+	
+	private static final LocalDateTime START = LocalDateTime.of(2025, 3, 17, 9, 0);
+	private static final LocalDateTime FINISH = LocalDateTime.of(2025, 3, 17, 11, 0);
+	
+	@Mock
+	private NotificationOutboxService notificationOutboxService;
+	
+	@Mock
+	private WatchAlertIndex watchAlertIndex;
+	
+	@Mock
+	private PlatformTransactionManager transactionManager;
+	
+	private BookingNotificationListener bookingNotificationListener;
+	
+	@BeforeEach
+	void setUp() {
+		bookingNotificationListener = new BookingNotificationListener(notificationOutboxService, 
+				watchAlertIndex, transactionManager, 1);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		bookingNotificationListener.stop();
+	}
+	
+	@Test
+	@DisplayName("onBookingCreated() queues the booking confirmation")
+	public void onBookingCreated_ShouldQueueConfirmationTest() {
+		// Act
+		bookingNotificationListener.onBookingCreated(new BookingCreatedEvent(1L, 1, 101, START, FINISH));
+		
+		// Assert
+		verify(notificationOutboxService).enqueue(NotificationType.BOOK, 101, 1, START, FINISH);
+	}
+	
+	@Test
+	@DisplayName("notifyUsersAboutCancellation() runs without sending notifications when no alerts exist")
+	public void notifyUsersAboutCancellation_WhenNoAlerts_NoNotificationsSentTest() {
+		// Arrange
+		when(watchAlertIndex.findOverlapping(1, START, FINISH)).thenReturn(Collections.emptyList());
+		
+		// Act 
+		bookingNotificationListener.notifyUsersAboutCancellation(
+				new BookingCancelledEvent(1L, 1, 101, START, FINISH, BookingStatus.CANCELLED));
+		
+		// Assert
+		verify(watchAlertIndex).findOverlapping(1, START, FINISH);
+		verify(notificationOutboxService, never()).enqueue(any(), anyInt(), anyInt(), any(), any());
+	}
+	
+	@Test
+	@DisplayName("notifyUsersAboutCancellation() notifies the freed part of each overlapping alert")
+	public void notifyUsersAboutCancellation_WhenAlerts_SendNotificationsTest() {
+		// Arrange
+		IndexedWatchAlert inside = new IndexedWatchAlert(1L, 1, 200, START, START.plusMinutes(30));
+		IndexedWatchAlert overlappingStart = new IndexedWatchAlert(2L, 1, 201, START.minusHours(1), 
+				START.plusHours(1));
+		when(watchAlertIndex.findOverlapping(1, START, FINISH)).thenReturn(List.of(inside, overlappingStart));
+		
+		// Act 
+		bookingNotificationListener.notifyUsersAboutCancellation(
+				new BookingCancelledEvent(1L, 1, 101, START, FINISH, BookingStatus.CANCELLED));
+		
+		// Assert
+		InOrder inOrder = inOrder(watchAlertIndex, notificationOutboxService);
+		inOrder.verify(watchAlertIndex).findOverlapping(1, START, FINISH);
+		inOrder.verify(notificationOutboxService).enqueue(NotificationType.WATCH_ALERT, 200, 1, START, 
+				START.plusMinutes(30));
+		inOrder.verify(notificationOutboxService).enqueue(NotificationType.WATCH_ALERT, 201, 1, START, 
+				START.plusHours(1));
+	}
+	
+}
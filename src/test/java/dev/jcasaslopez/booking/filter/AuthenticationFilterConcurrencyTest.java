@@ -0,0 +1,152 @@
+package dev.jcasaslopez.booking.filter;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.client.RestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import dev.jcasaslopez.booking.resilience.UsersServiceGuard;
+import dev.jcasaslopez.booking.util.StandardResponseHandler;
+
+// El servicio de usuarios se sustituye por un servidor HTTP local (HttpServer del JDK) que tarda
+// 300 ms en validar cada token y cuenta las peticiones que recibe. La caché de tokens se
+// desactiva (TTL 0) para medir solo el efecto de SingleFlight.
+//
+// The user service is replaced by a local HTTP server (the JDK's HttpServer) that takes 300 ms
+// to validate each token and counts the requests it receives. The token cache is disabled
+// (TTL 0) to measure only the effect of SingleFlight.
+public class AuthenticationFilterConcurrencyTest {
+
+	private static final int CONCURRENT_REQUESTS = 20;
+
+	private HttpServer usersServiceStub;
+	private ExecutorService stubThreads;
+	private ExecutorService clients;
+	private final AtomicInteger authenticationRequests = new AtomicInteger();
+	private AuthenticationFilter authenticationFilter;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		stubThreads = Executors.newCachedThreadPool();
+		clients = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+		usersServiceStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		usersServiceStub.setExecutor(stubThreads);
+		usersServiceStub.createContext("/user/authenticateUser", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			authenticationRequests.incrementAndGet();
+			try {
+				Thread.sleep(300);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = "\"USER_AUTHENTICATED\"".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		usersServiceStub.start();
+
+		authenticationFilter = new AuthenticationFilter(RestClient.create(), new StandardResponseHandler(),
+				new UsersServiceGuard(5, 30_000, 50, 8), new TokenValidationCache(0, 0, 100),
+				new SignedTokenVerifier(false, "", List.of(), 0, new ObjectMapper()),
+				"http://localhost:" + usersServiceStub.getAddress().getPort() + "/user/authenticateUser");
+	}
+
+	@AfterEach
+	void tearDown() {
+		clients.shutdownNow();
+		usersServiceStub.stop(0);
+		stubThreads.shutdownNow();
+	}
+
+	// Lanza todas las peticiones a la vez y devuelve el código de respuesta de cada una, o 0 si
+	// el filtro no dejó pasar la petición.
+	//
+	// Fires every request at once and returns the response status of each one, or 0 if the filter
+	// did not let the request through.
+	private List<Integer> fireConcurrently(List<String> tokens) throws Exception {
+		CountDownLatch startSignal = new CountDownLatch(1);
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (String token : tokens) {
+			futures.add(clients.submit(() -> {
+				MockHttpServletRequest request = new MockHttpServletRequest("POST", "/classroom-booking/bookings/book");
+				request.addHeader("Authorization", token);
+				MockHttpServletResponse response = new MockHttpServletResponse();
+				MockFilterChain filterChain = new MockFilterChain();
+				startSignal.await();
+				authenticationFilter.doFilter(request, response, filterChain);
+				return filterChain.getRequest() != null ? response.getStatus() : 0;
+			}));
+		}
+		startSignal.countDown();
+		List<Integer> statuses = new ArrayList<>();
+		for (Future<Integer> future : futures) {
+			statuses.add(future.get());
+		}
+		return statuses;
+	}
+
+	@Test
+	@DisplayName("Concurrent requests with the same token share a single call to the user service")
+	void doFilter_WhenSameTokenConcurrently_ShouldCallUserServiceOnce() throws Exception {
+		// Arrange
+		List<String> tokens = new ArrayList<>();
+		for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+			tokens.add("Bearer page-load-token");
+		}
+
+		// Act
+		List<Integer> statuses = fireConcurrently(tokens);
+
+		// Assert
+		assertAll(
+				() -> assertTrue(statuses.stream().allMatch(status -> status == 200),
+						"Every request should have been authenticated: " + statuses),
+				() -> assertEquals(1, authenticationRequests.get(), "The user service should have been called once"),
+				() -> assertEquals(CONCURRENT_REQUESTS - 1, authenticationFilter.getSharedAuthenticationCalls())
+				);
+	}
+
+	@Test
+	@DisplayName("Concurrent requests with different tokens are not coalesced")
+	void doFilter_WhenDifferentTokensConcurrently_ShouldCallUserServiceOncePerToken() throws Exception {
+		// Arrange
+		List<String> tokens = new ArrayList<>();
+		for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+			tokens.add("Bearer token-" + (i % 4));
+		}
+
+		// Act
+		List<Integer> statuses = fireConcurrently(tokens);
+
+		// Assert
+		assertAll(
+				() -> assertTrue(statuses.stream().allMatch(status -> status == 200),
+						"Every request should have been authenticated: " + statuses),
+				() -> assertEquals(4, authenticationRequests.get(), "The user service should have been called once per token")
+				);
+	}
+}
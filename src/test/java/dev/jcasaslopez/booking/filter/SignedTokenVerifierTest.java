@@ -0,0 +1,109 @@
+package dev.jcasaslopez.booking.filter;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.jcasaslopez.booking.enums.UserAuthenticationStatus;
+
+public class SignedTokenVerifierTest {
+
+	private static final String ISSUER = "service-user";
+
+	private static KeyPair trustedKeys;
+	private static KeyPair untrustedKeys;
+	private static SignedTokenVerifier signedTokenVerifier;
+
+	// Generar claves RSA es lento, así que se generan una sola vez para toda la clase.
+	//
+	// Generating RSA keys is slow, so they are generated only once for the whole class.
+	@BeforeAll
+	static void setUp() throws GeneralSecurityException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		trustedKeys = generator.generateKeyPair();
+		untrustedKeys = generator.generateKeyPair();
+		signedTokenVerifier = new SignedTokenVerifier(true, ISSUER,
+				List.of(Base64.getEncoder().encodeToString(trustedKeys.getPublic().getEncoded())), 0,
+				new ObjectMapper());
+	}
+
+	private static String encode(String json) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String token(String alg, String issuer, long expiresInSeconds, PrivateKey privateKey)
+			throws GeneralSecurityException {
+		long exp = System.currentTimeMillis() / 1000 + expiresInSeconds;
+		String content = encode("{\"alg\":\"" + alg + "\",\"typ\":\"JWT\"}") + "."
+				+ encode("{\"sub\":\"42\",\"iss\":\"" + issuer + "\",\"exp\":" + exp + "}");
+		Signature signer = Signature.getInstance("SHA256withRSA");
+		signer.initSign(privateKey);
+		signer.update(content.getBytes(StandardCharsets.US_ASCII));
+		return content + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signer.sign());
+	}
+
+	@Test
+	@DisplayName("A token signed with a configured key, not expired and from the expected issuer is accepted")
+	void verify_WhenTokenValid_ShouldAuthenticate() throws GeneralSecurityException {
+		// Arrange
+		String token = token("RS256", ISSUER, 300, trustedKeys.getPrivate());
+
+		// Act & Assert
+		assertEquals(UserAuthenticationStatus.USER_AUTHENTICATED, signedTokenVerifier.verify(token));
+	}
+
+	@Test
+	@DisplayName("Signed tokens with a wrong signature, expiry, issuer or algorithm are rejected")
+	void verify_WhenTokenFailsAnyCheck_ShouldReject() throws GeneralSecurityException {
+		// Arrange
+		String wrongKey = token("RS256", ISSUER, 300, untrustedKeys.getPrivate());
+		String expired = token("RS256", ISSUER, -10, trustedKeys.getPrivate());
+		String wrongIssuer = token("RS256", "someone-else", 300, trustedKeys.getPrivate());
+		String validToken = token("RS256", ISSUER, 300, trustedKeys.getPrivate());
+		String unsigned = encode("{\"alg\":\"none\"}") + "." + validToken.split("\\.")[1] + ".";
+
+		// Act & Assert
+		assertAll(
+				() -> assertEquals(UserAuthenticationStatus.FAILED_AUTHENTICATION, signedTokenVerifier.verify(wrongKey)),
+				() -> assertEquals(UserAuthenticationStatus.FAILED_AUTHENTICATION, signedTokenVerifier.verify(expired)),
+				() -> assertEquals(UserAuthenticationStatus.FAILED_AUTHENTICATION, signedTokenVerifier.verify(wrongIssuer)),
+				() -> assertEquals(UserAuthenticationStatus.FAILED_AUTHENTICATION, signedTokenVerifier.verify(unsigned))
+				);
+	}
+
+	@Test
+	@DisplayName("Opaque tokens are left for the user service to validate")
+	void verify_WhenTokenOpaque_ShouldReturnNull() {
+		// Act & Assert
+		assertAll(
+				() -> assertNull(signedTokenVerifier.verify("3f9a1c7e-opaque-session-token")),
+				() -> assertNull(signedTokenVerifier.verify("not.a.jwt"))
+				);
+	}
+
+	@Test
+	@DisplayName("The verifier cannot be enabled without public keys")
+	void constructor_WhenEnabledWithoutKeys_ShouldThrowException() {
+		// Act & Assert
+		assertThrows(IllegalArgumentException.class,
+				() -> new SignedTokenVerifier(true, ISSUER, List.of(), 0, new ObjectMapper()),
+				"An IllegalArgumentException should have been thrown, but wasn't");
+	}
+}
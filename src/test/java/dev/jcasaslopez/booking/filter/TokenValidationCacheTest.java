@@ -0,0 +1,79 @@
+package dev.jcasaslopez.booking.filter;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dev.jcasaslopez.booking.dto.TokenCacheStatsDto;
+import dev.jcasaslopez.booking.enums.UserAuthenticationStatus;
+
+public class TokenValidationCacheTest {
+
+	// Los tokens válidos se recuerdan 1 minuto y los rechazados 100 ms; caben 2 tokens.
+	//
+	// Valid tokens are remembered for 1 minute and rejected ones for 100 ms; 2 tokens fit.
+	private TokenValidationCache tokenValidationCache = new TokenValidationCache(60_000, 100, 2);
+
+	@Test
+	@DisplayName("A cached token is returned until its TTL expires, and failures use the shorter TTL")
+	void get_WhenTokenCached_ShouldReturnStatusUntilExpired() throws InterruptedException {
+		// Arrange
+		tokenValidationCache.put("Bearer valid", UserAuthenticationStatus.USER_AUTHENTICATED);
+		tokenValidationCache.put("Bearer invalid", UserAuthenticationStatus.FAILED_AUTHENTICATION);
+
+		// Act
+		UserAuthenticationStatus invalidBeforeExpiry = tokenValidationCache.get("Bearer invalid");
+		Thread.sleep(150);
+
+		// Assert
+		assertAll(
+				() -> assertEquals(UserAuthenticationStatus.FAILED_AUTHENTICATION, invalidBeforeExpiry),
+				() -> assertNull(tokenValidationCache.get("Bearer invalid"), "The negative entry should have expired"),
+				() -> assertEquals(UserAuthenticationStatus.USER_AUTHENTICATED, tokenValidationCache.get("Bearer valid"))
+				);
+	}
+
+	@Test
+	@DisplayName("The least recently used token is evicted when the cache is full")
+	void put_WhenCacheFull_ShouldEvictLeastRecentlyUsed() {
+		// Arrange
+		tokenValidationCache.put("Bearer first", UserAuthenticationStatus.USER_AUTHENTICATED);
+		tokenValidationCache.put("Bearer second", UserAuthenticationStatus.USER_AUTHENTICATED);
+		tokenValidationCache.get("Bearer first");
+
+		// Act
+		tokenValidationCache.put("Bearer third", UserAuthenticationStatus.USER_AUTHENTICATED);
+
+		// Assert
+		assertAll(
+				() -> assertNull(tokenValidationCache.get("Bearer second"), "The second token should have been evicted"),
+				() -> assertEquals(UserAuthenticationStatus.USER_AUTHENTICATED, tokenValidationCache.get("Bearer first")),
+				() -> assertEquals(1, tokenValidationCache.stats().getEvictions())
+				);
+	}
+
+	@Test
+	@DisplayName("stats() counts hits and misses and computes the hit rate")
+	void stats_AfterLookups_ShouldReportHitRate() {
+		// Arrange
+		tokenValidationCache.put("Bearer valid", UserAuthenticationStatus.USER_AUTHENTICATED);
+		tokenValidationCache.get("Bearer valid");
+		tokenValidationCache.get("Bearer valid");
+		tokenValidationCache.get("Bearer valid");
+		tokenValidationCache.get("Bearer unknown");
+
+		// Act
+		TokenCacheStatsDto stats = tokenValidationCache.stats();
+
+		// Assert
+		assertAll(
+				() -> assertEquals(3, stats.getHits()),
+				() -> assertEquals(1, stats.getMisses()),
+				() -> assertEquals(0.75, stats.getHitRate()),
+				() -> assertEquals(1, stats.getSize())
+				);
+	}
+}
@@ -0,0 +1,166 @@
+package dev.jcasaslopez.booking.model;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dev.jcasaslopez.booking.dto.ClassroomDto;
+import dev.jcasaslopez.booking.service.ClassroomSyncService;
+
+// El servicio de aulas se sustituye por un servidor HTTP local (HttpServer del JDK) cuya 
+// respuesta se fija en cada test.
+//
+// The classroom service is replaced by a local HTTP server (the JDK's HttpServer) whose 
+// response is set in each test.
+public class ClassroomCatalogueLoaderTest {
+	
+	private static final String CATALOGUE_JSON = """
+			[{"idClassroom":7,"name":"201","seats":40,"projector":true,"speakers":false},
+			 {"idClassroom":8,"name":"202","seats":60,"projector":false,"speakers":true}]
+			""";
+	
+	@TempDir
+	private Path temporaryDirectory;
+	
+	private HttpServer stubServer;
+	private volatile int stubStatus;
+	private volatile String stubBody;
+	private volatile String receivedIfNoneMatch;
+	
+	private ObjectMapper objectMapper = new ObjectMapper();
+	private ClassroomCatalogue classroomCatalogue;
+	private ClassroomSyncService classroomSyncService;
+	private ClassroomCatalogueLoader loader;
+	
+	@BeforeEach
+	void setUp() throws IOException {
+		stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		stubServer.createContext("/classrooms", this::handle);
+		stubServer.start();
+		
+		classroomCatalogue = new ClassroomCatalogue(new ClassroomsList());
+		classroomSyncService = mock(ClassroomSyncService.class);
+		loader = new ClassroomCatalogueLoader(classroomCatalogue, classroomSyncService, objectMapper,
+				"http://localhost:" + stubServer.getAddress().getPort() + "/classrooms",
+				temporaryDirectory.resolve("classrooms.json").toString(), 300_000, 60_000, 2_000, true);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		loader.stop();
+		stubServer.stop(0);
+	}
+	
+	private void handle(HttpExchange exchange) throws IOException {
+		receivedIfNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+		byte[] body = stubBody == null ? new byte[0] : stubBody.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.getResponseHeaders().set("ETag", "\"v1\"");
+		exchange.sendResponseHeaders(stubStatus, body.length == 0 ? -1 : body.length);
+		try (OutputStream outputStream = exchange.getResponseBody()) {
+			outputStream.write(body);
+		}
+	}
+	
+	@Test
+	@DisplayName("refresh() replaces the catalogue, saves it to disk and then sends conditional requests")
+	void refresh_WhenCatalogueChanges_ShouldReplaceItAndSaveSnapshot() {
+		// Arrange
+		stubStatus = 200;
+		stubBody = CATALOGUE_JSON;
+		
+		// Act
+		boolean firstRefresh = loader.refresh();
+		stubStatus = 304;
+		stubBody = null;
+		boolean secondRefresh = loader.refresh();
+		
+		// Assert
+		assertAll(
+				() -> assertTrue(firstRefresh && secondRefresh),
+				() -> assertEquals(List.of(7, 8), classroomCatalogue.snapshot().all().stream()
+						.map(ClassroomDto::getIdClassroom).toList()),
+				() -> assertTrue(Files.exists(temporaryDirectory.resolve("classrooms.json"))),
+				() -> assertEquals("\"v1\"", receivedIfNoneMatch, "The second request should be conditional"),
+				() -> verify(classroomSyncService, times(1)).synchronizeClassrooms()
+				);
+	}
+	
+	@Test
+	@DisplayName("refresh() keeps the current catalogue and backs off when the classroom service fails")
+	void refresh_WhenServiceFails_ShouldKeepCatalogueAndBackOff() {
+		// Arrange
+		stubStatus = 500;
+		stubBody = "{}";
+		
+		// Act
+		boolean firstRefresh = loader.refresh();
+		long firstDelay = loader.nextDelayMs();
+		loader.refresh();
+		long secondDelay = loader.nextDelayMs();
+		
+		// Assert
+		assertAll(
+				() -> assertFalse(firstRefresh),
+				() -> assertEquals(4, classroomCatalogue.snapshot().size(), "The built-in catalogue should be kept"),
+				() -> assertEquals(1_000, firstDelay),
+				() -> assertEquals(2_000, secondDelay)
+				);
+	}
+	
+	@Test
+	@DisplayName("refresh() ignores an empty catalogue")
+	void refresh_WhenCatalogueIsEmpty_ShouldKeepCatalogue() {
+		// Arrange
+		stubStatus = 200;
+		stubBody = "[]";
+		
+		// Act & Assert
+		assertAll(
+				() -> assertFalse(loader.refresh()),
+				() -> assertEquals(4, classroomCatalogue.snapshot().size())
+				);
+	}
+	
+	@Test
+	@DisplayName("loadSnapshotFromDisk() serves the catalogue saved by a previous run")
+	void loadSnapshotFromDisk_WhenSnapshotExists_ShouldReplaceCatalogue() throws IOException {
+		// Arrange
+		Files.writeString(temporaryDirectory.resolve("classrooms.json"), 
+				"{\"etag\":\"\\\"v1\\\"\",\"lastModified\":null,\"classrooms\":" + CATALOGUE_JSON + "}");
+		stubStatus = 304;
+		
+		// Act
+		loader.loadSnapshotFromDisk();
+		loader.refresh();
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(2, classroomCatalogue.snapshot().size()),
+				() -> assertEquals("\"v1\"", receivedIfNoneMatch, "The ETag should have been restored from disk")
+				);
+	}
+
+}
@@ -0,0 +1,53 @@
+package dev.jcasaslopez.booking.model;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dev.jcasaslopez.booking.dto.ClassroomDto;
+
+public class ClassroomCatalogueSnapshotTest {
+	
+	private static final List<ClassroomDto> CATALOGUE = List.of(
+			new ClassroomDto(1, "101", 100, true, true),
+			new ClassroomDto(2, "102", 50, true, false),
+			new ClassroomDto(3, "103", 30, false, true),
+			new ClassroomDto(4, "104", 20, false, false),
+			new ClassroomDto(5, "105", 50, false, true)
+			);
+	
+	private final ClassroomCatalogueSnapshot snapshot = new ClassroomCatalogueSnapshot(CATALOGUE);
+	
+	@Test
+	@DisplayName("findById() and contains() look classrooms up by id")
+	void findById_ReturnsClassroomWhenItExists() {
+		// Act & Assert
+		assertAll(
+				() -> assertEquals("103", snapshot.findById(3).orElseThrow().getName()),
+				() -> assertTrue(snapshot.findById(99).isEmpty()),
+				() -> assertTrue(snapshot.contains(5)),
+				() -> assertFalse(snapshot.contains(99))
+				);
+	}
+	
+	@Test
+	@DisplayName("The snapshot is not affected by later changes to the original classrooms")
+	void snapshot_WhenOriginalClassroomChanges_ShouldNotChange() {
+		// Arrange
+		ClassroomDto original = new ClassroomDto(1, "101", 100, true, true);
+		ClassroomCatalogueSnapshot copy = new ClassroomCatalogueSnapshot(List.of(original));
+		
+		// Act
+		original.setName("Renamed");
+		
+		// Assert
+		assertEquals("101", copy.findById(1).orElseThrow().getName());
+	}
+
+}
@@ -0,0 +1,149 @@
+package dev.jcasaslopez.booking.model;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import dev.jcasaslopez.booking.entity.WatchAlert;
+import dev.jcasaslopez.booking.repository.WatchAlertRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class WatchAlertIndexTest {
+	
+	// Lunes / Monday
+	private static final LocalDateTime NINE = LocalDateTime.of(2031, 3, 17, 9, 0);
+	
+	@Mock
+	private WatchAlertRepository watchAlertRepository;
+	
+	private WatchAlert watchAlert(long idWatchAlert, int idClassroom, LocalDateTime start, LocalDateTime finish) {
+		return new WatchAlert(idWatchAlert, idClassroom, (int) idWatchAlert + 100, start, finish, LocalDateTime.now());
+	}
+	
+	private List<Long> ids(List<IndexedWatchAlert> watchAlerts) {
+		return watchAlerts.stream().map(IndexedWatchAlert::idWatchAlert).sorted().toList();
+	}
+	
+	@Test
+	@DisplayName("findOverlapping() returns the alerts inside, partially overlapping and covering the period")
+	void findOverlapping_WhenAlertsOverlap_ShouldReturnThem() {
+		// Arrange
+		when(watchAlertRepository.findWatchAlertsFinishingAfter(any())).thenReturn(List.of(
+				watchAlert(1, 1, NINE.plusMinutes(30), NINE.plusHours(1)),
+				watchAlert(2, 1, NINE.minusHours(1), NINE.plusMinutes(30)),
+				watchAlert(3, 1, NINE.plusMinutes(90), NINE.plusHours(3)),
+				watchAlert(4, 1, NINE.minusHours(8), NINE.plusHours(8)),
+				watchAlert(5, 1, NINE.minusHours(1), NINE),
+				watchAlert(6, 1, NINE.plusHours(2), NINE.plusHours(3)),
+				watchAlert(7, 2, NINE, NINE.plusHours(2))));
+		WatchAlertIndex watchAlertIndex = new WatchAlertIndex(watchAlertRepository);
+		watchAlertIndex.rebuild();
+		
+		// Act
+		List<IndexedWatchAlert> overlapping = watchAlertIndex.findOverlapping(1, NINE, NINE.plusHours(2));
+		
+		// Assert
+		assertEquals(List.of(1L, 2L, 3L, 4L), ids(overlapping), 
+				"Alerts touching the period only at its edges or in another classroom should not match");
+	}
+	
+	@Test
+	@DisplayName("findOverlapping() sees the alerts added after the index was loaded")
+	void findOverlapping_WhenAlertAdded_ShouldReturnIt() {
+		// Arrange
+		when(watchAlertRepository.findWatchAlertsFinishingAfter(any())).thenReturn(List.of());
+		WatchAlertIndex watchAlertIndex = new WatchAlertIndex(watchAlertRepository);
+		watchAlertIndex.rebuild();
+		
+		// Act
+		watchAlertIndex.add(watchAlert(8, 3, NINE, NINE.plusHours(1)));
+		
+		// Assert
+		assertEquals(List.of(8L), ids(watchAlertIndex.findOverlapping(3, NINE.plusMinutes(30), NINE.plusHours(4))));
+	}
+	
+	@Test
+	@DisplayName("rebuild() keeps the alerts committed while the table was being read, whatever their id")
+	void rebuild_WhenAlertsAddedMeanwhile_ShouldKeepThem() {
+		// Arrange
+		WatchAlertIndex watchAlertIndex = new WatchAlertIndex(watchAlertRepository);
+		AtomicInteger reads = new AtomicInteger();
+		
+		// Durante la segunda lectura se confirma un watch alert con un id menor que el último 
+		// leído, porque su transacción empezó antes pero terminó después.
+		//
+		// During the second read, a watch alert with a lower id than the last one read commits, 
+		// as its transaction started earlier but finished later.
+		when(watchAlertRepository.findWatchAlertsFinishingAfter(any())).thenAnswer(invocation -> {
+			if (reads.incrementAndGet() == 2) {
+				watchAlertIndex.add(watchAlert(3, 1, NINE, NINE.plusHours(1)));
+			}
+			return List.of(watchAlert(5, 1, NINE, NINE.plusHours(1)));
+		});
+		watchAlertIndex.rebuild();
+		
+		// Act
+		watchAlertIndex.rebuild();
+		
+		// Assert
+		assertEquals(List.of(3L, 5L), ids(watchAlertIndex.findOverlapping(1, NINE, NINE.plusHours(1))));
+	}
+	
+	@Test
+	@DisplayName("rebuild() drops the alerts deleted while the table was being read")
+	void rebuild_WhenAlertsDeletedMeanwhile_ShouldDropThem() {
+		// Arrange
+		WatchAlert deleted = watchAlert(1, 1, NINE, NINE.plusHours(1));
+		WatchAlertIndex watchAlertIndex = new WatchAlertIndex(watchAlertRepository);
+		AtomicInteger reads = new AtomicInteger();
+		
+		// La segunda lectura aún devuelve el watch alert, que se borra mientras tanto.
+		//
+		// The second read still returns the watch alert, which is deleted meanwhile.
+		when(watchAlertRepository.findWatchAlertsFinishingAfter(any())).thenAnswer(invocation -> {
+			if (reads.incrementAndGet() == 2) {
+				watchAlertIndex.remove(deleted);
+			}
+			return List.of(deleted, watchAlert(2, 1, NINE, NINE.plusHours(1)));
+		});
+		watchAlertIndex.rebuild();
+		
+		// Act
+		watchAlertIndex.rebuild();
+		
+		// Assert
+		assertEquals(List.of(2L), ids(watchAlertIndex.findOverlapping(1, NINE, NINE.plusHours(1))));
+	}
+	
+	@Test
+	@DisplayName("findOverlapping() queries the database while the index has not been loaded")
+	void findOverlapping_WhenNotLoaded_ShouldQueryDatabase() {
+		// Arrange
+		when(watchAlertRepository.findWatchAlertsOverlappingPeriod(1, NINE, NINE.plusHours(1))).thenReturn(
+				List.of(watchAlert(9, 1, NINE, NINE.plusHours(1))));
+		WatchAlertIndex watchAlertIndex = new WatchAlertIndex(watchAlertRepository);
+		
+		// Act
+		List<IndexedWatchAlert> overlapping = watchAlertIndex.findOverlapping(1, NINE, NINE.plusHours(1));
+		
+		// Assert
+		assertAll(
+				() -> assertTrue(!watchAlertIndex.isLoaded(), "The index should not be loaded yet"),
+				() -> assertEquals(List.of(9L), ids(overlapping)),
+				() -> verify(watchAlertRepository).findWatchAlertsOverlappingPeriod(1, NINE, NINE.plusHours(1))
+				);
+	}
+}
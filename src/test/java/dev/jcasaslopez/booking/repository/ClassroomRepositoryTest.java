@@ -0,0 +1,82 @@
+package dev.jcasaslopez.booking.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import dev.jcasaslopez.booking.dto.ClassroomDto;
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.entity.Classroom;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+
+@DataJpaTest
+public class ClassroomRepositoryTest {
+	
+	private static final LocalDateTime START = LocalDateTime.of(2025, 3, 3, 10, 0);
+	private static final LocalDateTime FINISH = LocalDateTime.of(2025, 3, 3, 11, 0);
+	
+	@Autowired
+	private ClassroomRepository classroomRepository;
+	
+	@Autowired
+	private BookingRepository bookingRepository;
+	
+	// ┌────────────┬───────┬───────────┬──────────┬─────────────────────────────┐
+	// │ Classroom  │ Seats │ Projector │ Speakers │ Bookings 10:00-11:00        │
+	// ├────────────┼───────┼───────────┼──────────┼─────────────────────────────┤
+	// │ 1          │ 100   │ yes       │ yes      │ 10:30-11:30 ACTIVE          │
+	// │ 2          │ 50    │ yes       │ no       │ 09:00-10:00 ACTIVE (edge)   │
+	// │ 3          │ 30    │ no        │ yes      │ 10:00-11:00 CANCELLED       │
+	// │ 4          │ 20    │ no        │ no       │ -                           │
+	// └────────────┴───────┴───────────┴──────────┴─────────────────────────────┘
+	@BeforeEach
+	void setUp() {
+		classroomRepository.saveAll(List.of(
+				new Classroom(1, "101", 100, true, true),
+				new Classroom(2, "102", 50, true, false),
+				new Classroom(3, "103", 30, false, true),
+				new Classroom(4, "104", 20, false, false)));
+		bookingRepository.saveAll(List.of(
+				new Booking(0, 1, 10, START.plusMinutes(30), FINISH.plusMinutes(30), LocalDateTime.now(), null, 
+						BookingStatus.ACTIVE),
+				new Booking(0, 2, 10, START.minusHours(1), START, LocalDateTime.now(), null, BookingStatus.ACTIVE),
+				new Booking(0, 3, 10, START, FINISH, LocalDateTime.now(), null, BookingStatus.CANCELLED)));
+	}
+	
+	// (Aulas esperadas, plazas, proyector, altavoces)
+	//
+	// (Expected classrooms, seats, projector, speakers)
+	private static Stream<Arguments> featuresAndExpectedClassrooms() {
+		return Stream.of(
+				Arguments.of(List.of(2, 3, 4), 0, false, false),
+				Arguments.of(List.of(2, 3), 25, false, false),
+				Arguments.of(List.of(2), 0, true, false),
+				Arguments.of(List.of(3), 0, false, true),
+				Arguments.of(List.of(), 0, true, true)
+				);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("featuresAndExpectedClassrooms")
+	@DisplayName("findAvailableClassrooms() returns the free classrooms matching the requested features")
+	void findAvailableClassrooms_ReturnsExpectedClassrooms(List<Integer> expectedClassrooms, int seats,
+			boolean projector, boolean speakers) {
+		// Act
+		List<ClassroomDto> availableClassrooms = classroomRepository.findAvailableClassrooms(START, FINISH, 
+				seats, projector, speakers);
+		
+		// Assert
+		assertEquals(expectedClassrooms, availableClassrooms.stream().map(ClassroomDto::getIdClassroom).toList());
+	}
+
+}
@@ -15,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
 import dev.jcasaslopez.booking.entity.Booking;
 import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.model.BookingInterval;
 import jakarta.persistence.EntityManager;
 
 @DataJpaTest
@@ -122,5 +123,40 @@ public class FindBookingsByPeriodTest {
 				"Expected " + expectedValidBookings + " active bookings for classroom " + idClassroom +
 				" between " + queryStart + " and " + queryFinish + ", but found " + bookingsFound.size());
 	}
+	
+	@ParameterizedTest
+	@MethodSource("bookingPeriodsAndExpectedResults")
+	@DisplayName("Should return the intervals of the expected active bookings for the given classroom and period")
+	void findActiveBookingIntervalsForClassroomByPeriod_ReturnsExpectedResultsTest(int idClassroom, 
+			int expectedValidBookings, LocalDateTime queryStart, LocalDateTime queryFinish) {
+		// Arrange
+		setupTestBookings();
+
+		// Act
+		List<BookingInterval> intervalsFound = bookingRepository.findActiveBookingIntervalsForClassroomByPeriod(
+				idClassroom, queryStart, queryFinish);
+
+		// Assert
+		assertEquals(expectedValidBookings, intervalsFound.size(), 
+				"Expected " + expectedValidBookings + " active booking intervals for classroom " + idClassroom +
+				" between " + queryStart + " and " + queryFinish + ", but found " + intervalsFound.size());
+	}
+	
+	@ParameterizedTest
+	@MethodSource("bookingPeriodsAndExpectedResults")
+	@DisplayName("Should tell whether an active booking exists for the given classroom and period")
+	void existsActiveBookingForClassroomByPeriod_ReturnsExpectedResultsTest(int idClassroom, 
+			int expectedValidBookings, LocalDateTime queryStart, LocalDateTime queryFinish) {
+		// Arrange
+		setupTestBookings();
+
+		// Act
+		boolean bookingExists = bookingRepository.existsActiveBookingForClassroomByPeriod(idClassroom,
+				queryStart, queryFinish);
+
+		// Assert
+		assertEquals(expectedValidBookings > 0, bookingExists, 
+				"Unexpected result for classroom " + idClassroom + " between " + queryStart + " and " + queryFinish);
+	}
 
 }
@@ -0,0 +1,180 @@
+package dev.jcasaslopez.booking.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.entity.WatchAlert;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Benchmark (no test) que mide la latencia de las consultas de BookingRepository y
+// WatchAlertRepository sobre una base de datos H2 en fichero con millones de filas, antes y
+// después de crear los índices declarados en las entidades. Los índices se leen de las
+// anotaciones @Table, así que el benchmark siempre mide las definiciones reales.
+// No se ejecuta con "mvn test" porque su nombre no termina en "Test". Para lanzarlo:
+//   mvn test -Dtest=RepositoryIndexBenchmark -Dbenchmark.rows=2000000
+//
+// Benchmark (not a test) that measures the latency of BookingRepository and WatchAlertRepository
+// queries on a file-based H2 database with millions of rows, before and after creating the
+// indexes declared in the entities. Indexes are read from the @Table annotations, so the
+// benchmark always measures the actual definitions.
+// It is not run by "mvn test" because its name does not end in "Test". To run it:
+//   mvn test -Dtest=RepositoryIndexBenchmark -Dbenchmark.rows=2000000
+public class RepositoryIndexBenchmark {
+
+	private static final Logger logger = LoggerFactory.getLogger(RepositoryIndexBenchmark.class);
+
+	private static final Path DATABASE_DIRECTORY = Path.of("target", "benchmark");
+	private static final String JDBC_URL = "jdbc:h2:file:./target/benchmark/bookings;DB_CLOSE_ON_EXIT=FALSE;OPTIMIZE_REUSE_RESULTS=FALSE";
+	private static final int CLASSROOMS = 500;
+	private static final int USERS = 20_000;
+	private static final int ITERATIONS = 20;
+
+	private static final LocalDateTime QUERY_START = LocalDateTime.of(2023, 5, 10, 10, 0);
+	private static final LocalDateTime QUERY_FINISH = QUERY_START.plusHours(2);
+
+	// Mismas consultas (en SQL) que las de los repositorios, con sus parámetros.
+	//
+	// Same queries (in SQL) as the repository ones, with their parameters.
+	private static final Map<String, BenchmarkQuery> QUERIES = new LinkedHashMap<>();
+	static {
+		QUERIES.put("findActiveBookingsForClassroomByPeriod", new BenchmarkQuery("""
+				SELECT * FROM bookings b WHERE b.idClassroom = ? AND b.status = 'ACTIVE'
+				AND b.start < ? AND b.finish > ?
+				""", 42, QUERY_FINISH, QUERY_START));
+		QUERIES.put("findOccupiedClassroomsbyPeriod", new BenchmarkQuery("""
+				SELECT DISTINCT b.idClassroom FROM bookings b WHERE b.status = 'ACTIVE'
+				AND b.start < ? AND b.finish > ?
+				""", QUERY_FINISH, QUERY_START));
+		QUERIES.put("findBookingsByUser", new BenchmarkQuery("""
+				SELECT * FROM bookings b WHERE b.idUser = ? ORDER BY b.start DESC
+				""", 1234));
+		QUERIES.put("findWatchAlertsByTimePeriodAndClassroom", new BenchmarkQuery("""
+				SELECT * FROM watch_alerts w WHERE w.idClassroom = ? AND w.start >= ? AND w.finish <= ?
+				""", 42, QUERY_START, QUERY_FINISH));
+	}
+
+	private record BenchmarkQuery(String sql, Object... parameters) {}
+
+	@Test
+	@DisplayName("Measures query latency before and after creating the entity indexes")
+	void measureQueryLatencyBeforeAndAfterIndexes() throws SQLException, IOException {
+		int rows = Integer.getInteger("benchmark.rows", 2_000_000);
+		FileSystemUtils.deleteRecursively(DATABASE_DIRECTORY);
+		Files.createDirectories(DATABASE_DIRECTORY);
+
+		try (Connection connection = DriverManager.getConnection(JDBC_URL, "sa", "")) {
+			seedDatabase(connection, rows);
+			Map<String, Double> withoutIndexes = measureQueries(connection);
+			createIndexes(connection, Booking.class);
+			createIndexes(connection, WatchAlert.class);
+			Map<String, Double> withIndexes = measureQueries(connection);
+
+			logger.info("Query latency with {} bookings and {} watch alerts (average of {} runs):",
+					rows, rows / 10, ITERATIONS);
+			QUERIES.keySet().forEach(query -> logger.info("{}: {} ms without indexes, {} ms with indexes",
+					query, String.format("%.3f", withoutIndexes.get(query)),
+					String.format("%.3f", withIndexes.get(query))));
+		}
+	}
+
+	// Genera las filas dentro de H2 con SYSTEM_RANGE, que es mucho más rápido que insertarlas
+	// desde Java. Las reservas se reparten en 4 años de franjas de 30 minutos a 2 horas.
+	//
+	// Generates the rows inside H2 with SYSTEM_RANGE, which is much faster than inserting them
+	// from Java. Bookings are spread over 4 years in 30-minute to 2-hour blocks.
+	private void seedDatabase(Connection connection, int rows) throws SQLException {
+		logger.info("Seeding benchmark database with {} bookings...", rows);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("""
+					CREATE TABLE bookings (idBooking BIGINT AUTO_INCREMENT PRIMARY KEY, idClassroom INT NOT NULL,
+					idUser INT NOT NULL, start TIMESTAMP, finish TIMESTAMP, timestamp TIMESTAMP,
+					comment VARCHAR(255), status VARCHAR(20))
+					""");
+			statement.execute("""
+					CREATE TABLE watch_alerts (idWatchAlert BIGINT AUTO_INCREMENT PRIMARY KEY,
+					idClassroom INT NOT NULL, idUser INT NOT NULL, start TIMESTAMP, finish TIMESTAMP,
+					timestamp TIMESTAMP)
+					""");
+			statement.execute("""
+					INSERT INTO bookings (idClassroom, idUser, start, finish, timestamp, comment, status)
+					SELECT MOD(X, %d) + 1, MOD(X * 7, %d) + 1,
+					DATEADD('MINUTE', MOD(X, 70080) * 30, TIMESTAMP '2022-01-01 09:00:00'),
+					DATEADD('MINUTE', MOD(X, 70080) * 30 + 30 * (MOD(X, 4) + 1), TIMESTAMP '2022-01-01 09:00:00'),
+					CURRENT_TIMESTAMP, 'Benchmark booking ' || X,
+					CASEWHEN(MOD(X, 10) = 0, 'CANCELLED', CASEWHEN(MOD(X, 3) = 0, 'COMPLETED', 'ACTIVE'))
+					FROM SYSTEM_RANGE(1, %d)
+					""".formatted(CLASSROOMS, USERS, rows));
+			statement.execute("""
+					INSERT INTO watch_alerts (idClassroom, idUser, start, finish, timestamp)
+					SELECT MOD(X, %d) + 1, MOD(X * 13, %d) + 1,
+					DATEADD('MINUTE', MOD(X, 70080) * 30, TIMESTAMP '2022-01-01 09:00:00'),
+					DATEADD('MINUTE', MOD(X, 70080) * 30 + 30, TIMESTAMP '2022-01-01 09:00:00'),
+					CURRENT_TIMESTAMP
+					FROM SYSTEM_RANGE(1, %d)
+					""".formatted(CLASSROOMS, USERS, rows / 10));
+			statement.execute("ANALYZE");
+		}
+	}
+
+	private void createIndexes(Connection connection, Class<?> entity) throws SQLException {
+		Table table = entity.getAnnotation(Table.class);
+		try (Statement statement = connection.createStatement()) {
+			for (Index index : table.indexes()) {
+				logger.info("Creating index {} on {} ({})", index.name(), table.name(), index.columnList());
+				statement.execute("CREATE INDEX " + index.name() + " ON " + table.name()
+					+ " (" + index.columnList() + ")");
+			}
+			statement.execute("ANALYZE");
+		}
+	}
+
+	// Devuelve la latencia media en milisegundos de cada consulta, tras una ejecución de
+	// calentamiento.
+	//
+	// Returns the average latency in milliseconds of each query, after a warm-up run.
+	private Map<String, Double> measureQueries(Connection connection) throws SQLException {
+		Map<String, Double> latencies = new LinkedHashMap<>();
+
+		for (Map.Entry<String, BenchmarkQuery> query : QUERIES.entrySet()) {
+			try (PreparedStatement statement = connection.prepareStatement(query.getValue().sql())) {
+				Object[] parameters = query.getValue().parameters();
+				for (int i = 0; i < parameters.length; i++) {
+					statement.setObject(i + 1, parameters[i]);
+				}
+				consume(statement);
+				long begin = System.nanoTime();
+				for (int i = 0; i < ITERATIONS; i++) {
+					consume(statement);
+				}
+				latencies.put(query.getKey(), (System.nanoTime() - begin) / 1_000_000.0 / ITERATIONS);
+			}
+		}
+		return latencies;
+	}
+
+	private void consume(PreparedStatement statement) throws SQLException {
+		try (ResultSet resultSet = statement.executeQuery()) {
+			while (resultSet.next()) {
+				resultSet.getObject(1);
+			}
+		}
+	}
+}
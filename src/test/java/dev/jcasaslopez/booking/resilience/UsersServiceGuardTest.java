@@ -0,0 +1,147 @@
+package dev.jcasaslopez.booking.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import dev.jcasaslopez.booking.enums.CircuitState;
+import dev.jcasaslopez.booking.exception.ServiceNotAvailableException;
+
+public class UsersServiceGuardTest {
+	
+	private static final long OPEN_DURATION_MS = 200;
+	
+	// 3 fallos seguidos abren el circuito; un hueco para autenticación y otro para notificaciones.
+	//
+	// 3 failures in a row open the circuit; one slot for authentication and one for notifications.
+	private UsersServiceGuard usersServiceGuard = new UsersServiceGuard(3, OPEN_DURATION_MS, 1, 1);
+	
+	private String failingCall() {
+		throw new ResourceAccessException("Connection refused");
+	}
+	
+	private void openCircuit() {
+		for (int i = 0; i < 3; i++) {
+			assertThrows(ResourceAccessException.class, () -> usersServiceGuard.callForAuthentication(this::failingCall));
+		}
+	}
+	
+	@Test
+	@DisplayName("The circuit opens after consecutive failures and then fails fast")
+	void call_WhenFailuresReachThreshold_ShouldOpenCircuitAndFailFast() {
+		// Arrange
+		openCircuit();
+		
+		// Act & Assert
+		assertAll(
+				() -> assertEquals(CircuitState.OPEN, usersServiceGuard.status().getCircuitState()),
+				() -> assertThrows(ServiceNotAvailableException.class, 
+						() -> usersServiceGuard.callForNotifications(() -> "sent", result -> false),
+						"Calls should be rejected without reaching the user service"),
+				() -> assertEquals(1, usersServiceGuard.status().getCallsRejectedByCircuitBreaker())
+				);
+	}
+	
+	@Test
+	@DisplayName("A successful probe after the open period closes the circuit")
+	void call_WhenProbeSucceeds_ShouldCloseCircuit() throws InterruptedException {
+		// Arrange
+		openCircuit();
+		Thread.sleep(OPEN_DURATION_MS + 50);
+		
+		// Act
+		String result = usersServiceGuard.callForAuthentication(() -> "authenticated");
+		
+		// Assert
+		assertAll(
+				() -> assertEquals("authenticated", result),
+				() -> assertEquals(CircuitState.CLOSED, usersServiceGuard.status().getCircuitState())
+				);
+	}
+	
+	@Test
+	@DisplayName("A failed probe opens the circuit again")
+	void call_WhenProbeFails_ShouldOpenCircuitAgain() throws InterruptedException {
+		// Arrange
+		openCircuit();
+		Thread.sleep(OPEN_DURATION_MS + 50);
+		
+		// Act
+		assertThrows(ResourceAccessException.class, () -> usersServiceGuard.callForAuthentication(this::failingCall));
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(CircuitState.OPEN, usersServiceGuard.status().getCircuitState()),
+				() -> assertThrows(ServiceNotAvailableException.class, 
+						() -> usersServiceGuard.callForAuthentication(() -> "authenticated"))
+				);
+	}
+	
+	@Test
+	@DisplayName("4xx responses and failure predicates are classified correctly")
+	void call_WhenClientErrorOrFailedResult_ShouldClassifyOutcome() {
+		// Act
+		for (int i = 0; i < 3; i++) {
+			assertThrows(HttpClientErrorException.class, () -> usersServiceGuard.callForAuthentication(() -> {
+				throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
+			}));
+		}
+		CircuitState afterClientErrors = usersServiceGuard.status().getCircuitState();
+		for (int i = 0; i < 3; i++) {
+			usersServiceGuard.callForNotifications(() -> HttpStatus.SERVICE_UNAVAILABLE, 
+					HttpStatus::is5xxServerError);
+		}
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(CircuitState.CLOSED, afterClientErrors, "4xx errors should not open the circuit"),
+				() -> assertEquals(CircuitState.OPEN, usersServiceGuard.status().getCircuitState(), 
+						"5xx responses should open the circuit")
+				);
+	}
+	
+	@Test
+	@DisplayName("A full notifications bulkhead rejects calls without affecting authentication")
+	void call_WhenBulkheadFull_ShouldRejectOnlyThatKindOfCall() throws Exception {
+		// Arrange
+		CountDownLatch callStarted = new CountDownLatch(1);
+		CountDownLatch releaseCall = new CountDownLatch(1);
+		CompletableFuture<String> slowNotification = CompletableFuture.supplyAsync(() -> 
+				usersServiceGuard.callForNotifications(() -> {
+					callStarted.countDown();
+					try {
+						releaseCall.await();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					return "sent";
+				}, result -> false));
+		assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+		
+		// Act & Assert
+		try {
+			assertAll(
+					() -> assertThrows(ServiceNotAvailableException.class, 
+							() -> usersServiceGuard.callForNotifications(() -> "sent", result -> false)),
+					() -> assertEquals("authenticated", usersServiceGuard.callForAuthentication(() -> "authenticated")),
+					() -> assertEquals(1, usersServiceGuard.status().getNotificationCallsInFlight()),
+					() -> assertEquals(1, usersServiceGuard.status().getNotificationCallsRejected())
+					);
+		} finally {
+			releaseCall.countDown();
+		}
+		assertEquals("sent", slowNotification.get(5, TimeUnit.SECONDS));
+	}
+
+}
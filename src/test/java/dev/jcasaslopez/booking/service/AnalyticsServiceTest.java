@@ -0,0 +1,115 @@
+package dev.jcasaslopez.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.jcasaslopez.booking.dto.UtilizationDto;
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.enums.UtilizationGranularity;
+import dev.jcasaslopez.booking.exception.InvalidPeriodException;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+
+// Horario de application.properties: de lunes a viernes de 9:00 a 22:00 (780 minutos), fines de
+// semana cerrado.
+//
+// Opening hours from application.properties: Monday to Friday from 9:00 to 22:00 (780 minutes),
+// closed at weekends.
+@SpringBootTest
+@Transactional
+public class AnalyticsServiceTest {
+	
+	// Lunes / Monday
+	private static final LocalDate MONDAY = LocalDate.of(2033, 5, 2);
+	
+	@Autowired
+	private AnalyticsService analyticsService;
+	
+	@Autowired
+	private BookingRepository bookingRepository;
+	
+	private void saveBooking(int idClassroom, LocalDateTime start, LocalDateTime finish, BookingStatus status) {
+		bookingRepository.save(new Booking(0, idClassroom, 10, start, finish, LocalDateTime.now(), null, status));
+	}
+	
+	// Aula 1: 60 + 90 minutos el lunes (más una reserva cancelada que no cuenta) y 120 minutos 
+	// completados el miércoles. Aula 2: 30 minutos el martes de la semana siguiente.
+	//
+	// Classroom 1: 60 + 90 minutes on Monday (plus a cancelled booking that does not count) and 
+	// 120 completed minutes on Wednesday. Classroom 2: 30 minutes on the following week's Tuesday.
+	@BeforeEach
+	void setUp() {
+		saveBooking(1, MONDAY.atTime(9, 0), MONDAY.atTime(10, 0), BookingStatus.ACTIVE);
+		saveBooking(1, MONDAY.atTime(10, 0), MONDAY.atTime(11, 30), BookingStatus.ACTIVE);
+		saveBooking(1, MONDAY.atTime(12, 0), MONDAY.atTime(14, 0), BookingStatus.CANCELLED);
+		saveBooking(1, MONDAY.plusDays(2).atTime(16, 0), MONDAY.plusDays(2).atTime(18, 0), BookingStatus.COMPLETED);
+		saveBooking(2, MONDAY.plusDays(8).atTime(9, 0), MONDAY.plusDays(8).atTime(9, 30), BookingStatus.ACTIVE);
+	}
+	
+	private UtilizationDto find(List<UtilizationDto> utilization, int idClassroom, LocalDate periodStart) {
+		return utilization.stream()
+				.filter(u -> u.getIdClassroom() == idClassroom && u.getPeriodStart().equals(periodStart))
+				.findFirst()
+				.orElseThrow();
+	}
+	
+	@Test
+	@DisplayName("utilizationByClassroom() returns one row per classroom and day with booked and opening minutes")
+	void utilizationByClassroom_WhenByDay_ShouldReturnDailyRows() {
+		// Act
+		List<UtilizationDto> utilization = analyticsService.utilizationByClassroom(MONDAY, MONDAY.plusDays(6), 
+				UtilizationGranularity.DAY);
+		
+		// Assert
+		UtilizationDto classroom1Monday = find(utilization, 1, MONDAY);
+		assertAll(
+				// 4 aulas × 7 días / 4 classrooms × 7 days
+				() -> assertEquals(28, utilization.size()),
+				() -> assertEquals(150, classroom1Monday.getBookedMinutes()),
+				() -> assertEquals(780, classroom1Monday.getOpenMinutes()),
+				() -> assertEquals(150.0 / 780, classroom1Monday.getUtilization(), 1e-9),
+				() -> assertEquals(120, find(utilization, 1, MONDAY.plusDays(2)).getBookedMinutes()),
+				() -> assertEquals(0, find(utilization, 1, MONDAY.plusDays(5)).getOpenMinutes()),
+				() -> assertEquals(0, find(utilization, 2, MONDAY).getBookedMinutes())
+				);
+	}
+	
+	@Test
+	@DisplayName("utilizationByClassroom() adds up the days of each week when grouping by week")
+	void utilizationByClassroom_WhenByWeek_ShouldAddUpDays() {
+		// Act
+		List<UtilizationDto> utilization = analyticsService.utilizationByClassroom(MONDAY, MONDAY.plusDays(13), 
+				UtilizationGranularity.WEEK);
+		
+		// Assert
+		assertAll(
+				// 4 aulas × 2 semanas / 4 classrooms × 2 weeks
+				() -> assertEquals(8, utilization.size()),
+				() -> assertEquals(270, find(utilization, 1, MONDAY).getBookedMinutes()),
+				() -> assertEquals(5 * 780, find(utilization, 1, MONDAY).getOpenMinutes()),
+				() -> assertEquals(30, find(utilization, 2, MONDAY.plusDays(7)).getBookedMinutes())
+				);
+	}
+	
+	@Test
+	@DisplayName("utilizationByClassroom() throws an exception when 'from' is after 'to'")
+	void utilizationByClassroom_WhenFromAfterTo_ShouldThrowException() {
+		// Act & Assert
+		assertThrows(InvalidPeriodException.class, 
+				() -> analyticsService.utilizationByClassroom(MONDAY.plusDays(1), MONDAY, UtilizationGranularity.DAY),
+				"An InvalidPeriodException should have been thrown, but wasn't");
+	}
+
+}
@@ -0,0 +1,103 @@
+package dev.jcasaslopez.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.jcasaslopez.booking.event.BookingCreatedEvent;
+import dev.jcasaslopez.booking.model.ClassroomCatalogue;
+import dev.jcasaslopez.booking.model.ClassroomsList;
+
+// Los emisores se sustituyen por unos que no tienen conexión: el del cliente lento se queda
+// bloqueado en send() hasta el final del test, y el del cliente normal guarda lo que recibe.
+//
+// Emitters are replaced by ones without a connection: the slow client's blocks in send() until
+// the end of the test, and the normal client's stores what it receives.
+public class AvailabilityStreamSlowSubscriberTest {
+
+	private static final int QUEUE_SIZE = 2;
+
+	// Lunes / Monday
+	private static final LocalDateTime START = LocalDateTime.of(2033, 3, 14, 10, 0);
+
+	private final CountDownLatch releaseSlowClient = new CountDownLatch(1);
+	private final BlockingQueue<Set<DataWithMediaType>> received = new LinkedBlockingQueue<>();
+	private AvailabilityStreamServiceImpl availabilityStreamService;
+
+	@BeforeEach
+	void setUp() {
+		availabilityStreamService = new AvailabilityStreamServiceImpl(new ClassroomCatalogue(new ClassroomsList()),
+				new ObjectMapper().findAndRegisterModules(), 1, 10, 60_000, 3_600_000, 2, QUEUE_SIZE) {
+			private int emitters;
+
+			@Override
+			SseEmitter createEmitter(long timeoutMs) {
+				boolean slow = emitters++ == 0;
+				return new SseEmitter(timeoutMs) {
+					@Override
+					public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+						if (slow) {
+							try {
+								releaseSlowClient.await();
+							} catch (InterruptedException ex) {
+								Thread.currentThread().interrupt();
+							}
+						} else {
+							received.add(items);
+						}
+					}
+				};
+			}
+		};
+	}
+
+	@AfterEach
+	void tearDown() {
+		releaseSlowClient.countDown();
+		availabilityStreamService.stop();
+	}
+
+	@Test
+	@DisplayName("A subscriber that does not read in time is dropped without delaying the others")
+	void publish_WhenSubscriberStalled_ShouldDropItAndKeepServingOthers() throws InterruptedException {
+		// Arrange
+		availabilityStreamService.subscribe(List.of(1), START, START.plusHours(8));
+		availabilityStreamService.subscribe(List.of(1), START, START.plusHours(8));
+		int events = QUEUE_SIZE + 3;
+
+		// Act & Assert
+		// Cada evento se publica cuando el cliente normal ha recibido el anterior, así que solo se 
+		// puede llenar la cola del cliente lento.
+		//
+		// Each event is published once the normal client has received the previous one, so only 
+		// the slow client's queue can fill up.
+		for (int i = 0; i < events; i++) {
+			availabilityStreamService.onBookingCreated(
+					new BookingCreatedEvent(i, 1, 10, START.plusMinutes(30 * i), START.plusMinutes(30 * (i + 1))));
+			assertNotNull(received.poll(5, TimeUnit.SECONDS), "The normal subscriber should receive every event");
+		}
+		assertAll(
+				() -> assertEquals(1, availabilityStreamService.subscriberCount(),
+						"The slow subscriber should have been dropped"),
+				() -> assertEquals(0, received.size())
+				);
+	}
+}
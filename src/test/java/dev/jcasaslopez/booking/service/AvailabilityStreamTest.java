@@ -0,0 +1,151 @@
+package dev.jcasaslopez.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import dev.jcasaslopez.booking.dto.BookingDto;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+import dev.jcasaslopez.booking.repository.DailyOccupancyRepository;
+import dev.jcasaslopez.booking.repository.OutboxNotificationRepository;
+
+// Se levanta el servidor en un puerto aleatorio y se lee el stream con HttpClient, como lo haría
+// un cliente real. Las líneas recibidas se guardan en una cola para poder esperarlas con plazo.
+//
+// The server is started on a random port and the stream is read with HttpClient, as a real 
+// client would. Received lines are stored in a queue so that they can be awaited with a timeout.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, 
+		properties = "notifications.outbox.poll-interval-ms=3600000")
+public class AvailabilityStreamTest {
+	
+	// Lunes / Monday
+	private static final LocalDateTime START = LocalDateTime.of(2033, 3, 14, 10, 0);
+	private static final LocalDateTime FINISH = START.plusHours(1);
+	
+	@LocalServerPort
+	private int port;
+	
+	@Autowired
+	private BookingService bookingService;
+	
+	@Autowired
+	private AvailabilityStreamService availabilityStreamService;
+	
+	@Autowired
+	private BookingRepository bookingRepository;
+	
+	@Autowired
+	private DailyOccupancyRepository dailyOccupancyRepository;
+	
+	@Autowired
+	private OutboxNotificationRepository outboxNotificationRepository;
+	
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+	
+	@AfterEach
+	void tearDown() {
+		bookingRepository.deleteAll();
+		dailyOccupancyRepository.deleteAll();
+		outboxNotificationRepository.deleteAll();
+	}
+	
+	private URI streamUri(String query) {
+		return URI.create("http://localhost:" + port + "/classroom-booking/search/availabilityStream?" + query);
+	}
+	
+	private BookingDto book(int idClassroom) {
+		return bookingService.book(new BookingDto(0, idClassroom, 30, START, FINISH, null, null, BookingStatus.ACTIVE));
+	}
+	
+	// Devuelve la siguiente línea "event:" y la línea "data:" que la sigue.
+	//
+	// Returns the next "event:" line and the "data:" line following it.
+	private String[] nextEvent(BlockingQueue<String> lines) throws InterruptedException {
+		String line;
+		do {
+			line = lines.poll(5, TimeUnit.SECONDS);
+			assertNotNull(line, "No event received in time");
+		} while (!line.startsWith("event:"));
+		return new String[] { line.substring("event:".length()).trim(), lines.poll(5, TimeUnit.SECONDS) };
+	}
+	
+	@Test
+	@DisplayName("Subscribers receive the book and cancel events of their classrooms only")
+	void availabilityStream_WhenBookingChanges_ShouldPushEvents() throws Exception {
+		// Arrange
+		int subscribersBefore = availabilityStreamService.subscriberCount();
+		BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+		CompletableFuture<HttpResponse<Stream<String>>> response = httpClient.sendAsync(
+				HttpRequest.newBuilder(streamUri("idClassrooms=1&start=" + START.toLocalDate().atStartOfDay() 
+						+ "&finish=" + START.toLocalDate().plusDays(1).atStartOfDay())).build(),
+				HttpResponse.BodyHandlers.ofLines());
+		response.thenAccept(r -> CompletableFuture.runAsync(() -> r.body().forEach(lines::add)));
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (availabilityStreamService.subscriberCount() == subscribersBefore 
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		
+		// Act
+		book(2);
+		BookingDto booking = book(1);
+		bookingService.cancel(booking.getIdBooking(), BookingStatus.CANCELLED);
+		
+		// Assert
+		String[] bookEvent = nextEvent(lines);
+		String[] cancelEvent = nextEvent(lines);
+		response.cancel(true);
+		assertAll(
+				() -> assertEquals("book", bookEvent[0]),
+				() -> assertTrue(bookEvent[1].contains("\"idClassroom\":1") && bookEvent[1].contains("\"available\":false"),
+						"The first event should be the booking of classroom 1, but was: " + bookEvent[1]),
+				() -> assertEquals("cancel", cancelEvent[0]),
+				() -> assertTrue(cancelEvent[1].contains("\"idClassroom\":1") && cancelEvent[1].contains("\"available\":true"),
+						"The second event should be the cancellation in classroom 1, but was: " + cancelEvent[1])
+				);
+	}
+	
+	@Test
+	@DisplayName("A subscription with finish before start is rejected")
+	void availabilityStream_WhenInvalidPeriod_ShouldReturnBadRequest() throws Exception {
+		// Act
+		HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(
+				streamUri("idClassrooms=1&start=" + FINISH + "&finish=" + START)).build(), 
+				HttpResponse.BodyHandlers.ofString());
+		
+		// Assert
+		assertEquals(400, response.statusCode());
+	}
+	
+	@Test
+	@DisplayName("A subscription to an unknown classroom is rejected")
+	void availabilityStream_WhenUnknownClassroom_ShouldReturnNotFound() throws Exception {
+		// Act
+		HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(
+				streamUri("idClassrooms=1,999&start=" + START + "&finish=" + FINISH)).build(), 
+				HttpResponse.BodyHandlers.ofString());
+		
+		// Assert
+		assertEquals(404, response.statusCode());
+	}
+}
@@ -0,0 +1,107 @@
+package dev.jcasaslopez.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.enums.BookingFileFormat;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+
+// @Transactional deshace los datos de prueba al terminar cada test, para no afectar a otras
+// clases de test que comparten la misma base de datos en memoria.
+//
+// @Transactional rolls back the test data after each test, so that other test classes sharing
+// the same in-memory database are not affected.
+@SpringBootTest
+@Transactional
+public class BookingExportServiceTest {
+	
+	private static final LocalDateTime TERM_START = LocalDateTime.of(2031, 9, 1, 0, 0);
+	private static final LocalDateTime TERM_FINISH = LocalDateTime.of(2031, 9, 8, 0, 0);
+	
+	@Autowired
+	private BookingExportService bookingExportService;
+	
+	@Autowired
+	private BookingRepository bookingRepository;
+	
+	// Tres reservas dentro del período (una con un comentario que necesita comillas en CSV) y 
+	// una fuera de él.
+	//
+	// Three bookings within the period (one with a comment that needs quoting in CSV) and one
+	// outside it.
+	@BeforeEach
+	void setUp() {
+		bookingRepository.save(new Booking(0, 2, 20, TERM_START.plusDays(2).withHour(9), 
+				TERM_START.plusDays(2).withHour(10), LocalDateTime.now(), null, BookingStatus.ACTIVE));
+		bookingRepository.save(new Booking(0, 1, 10, TERM_START.plusDays(1).withHour(9), 
+				TERM_START.plusDays(1).withHour(10), LocalDateTime.now(), "Exam, \"room\" A", BookingStatus.ACTIVE));
+		bookingRepository.save(new Booking(0, 3, 30, TERM_START.plusDays(3).withHour(9), 
+				TERM_START.plusDays(3).withHour(10), LocalDateTime.now(), null, BookingStatus.CANCELLED));
+		bookingRepository.save(new Booking(0, 1, 10, TERM_FINISH.plusDays(1).withHour(9), 
+				TERM_FINISH.plusDays(1).withHour(10), LocalDateTime.now(), null, BookingStatus.ACTIVE));
+	}
+	
+	private String export(BookingFileFormat format) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		bookingExportService.exportBookings(TERM_START, TERM_FINISH, format, outputStream);
+		return outputStream.toString(StandardCharsets.UTF_8);
+	}
+	
+	@Test
+	@DisplayName("exportBookings() writes a CSV header and one row per booking in the period, ordered by start")
+	void exportBookings_WhenCsv_ShouldWriteHeaderAndRowsInOrder() throws IOException {
+		// Act
+		List<String> lines = export(BookingFileFormat.CSV).lines().toList();
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(4, lines.size(), "There should be a header and three rows"),
+				() -> assertEquals("idBooking,idClassroom,idUser,start,finish,timestamp,status,comment", lines.get(0)),
+				() -> assertTrue(lines.get(1).contains(",1,10,2031-09-02T09:00,"), "The earliest booking should come first"),
+				() -> assertTrue(lines.get(1).endsWith(",ACTIVE,\"Exam, \"\"room\"\" A\""), "The comment should be quoted"),
+				() -> assertTrue(lines.get(3).contains(",CANCELLED,"), "Bookings of any status should be exported")
+				);
+	}
+	
+	@Test
+	@DisplayName("exportBookings() writes one JSON object per line for each booking in the period")
+	void exportBookings_WhenNdjson_ShouldWriteOneJsonObjectPerLine() throws IOException {
+		// Arrange
+		ObjectMapper objectMapper = new ObjectMapper();
+		
+		// Act
+		List<String> lines = export(BookingFileFormat.NDJSON).lines().toList();
+		
+		// Assert
+		JsonNode first = objectMapper.readTree(lines.get(0));
+		assertAll(
+				() -> assertEquals(3, lines.size()),
+				() -> assertTrue(lines.stream().noneMatch(line -> line.isEmpty() || Character.isWhitespace(line.charAt(0))),
+						"No line should start with whitespace: " + lines),
+				() -> assertEquals(1, first.get("idClassroom").asInt()),
+				() -> assertEquals("2031-09-02T09:00", first.get("start").asText()),
+				() -> assertEquals("Exam, \"room\" A", first.get("comment").asText()),
+				() -> assertTrue(objectMapper.readTree(lines.get(1)).get("comment").isNull())
+				);
+	}
+
+}
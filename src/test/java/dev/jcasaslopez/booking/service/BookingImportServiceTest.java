@@ -0,0 +1,163 @@
+package dev.jcasaslopez.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import dev.jcasaslopez.booking.dto.BookingImportRejectionDto;
+import dev.jcasaslopez.booking.dto.BookingImportReportDto;
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.enums.BookingFileFormat;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.exception.InvalidImportFileException;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+import dev.jcasaslopez.booking.repository.DailyOccupancyRepository;
+
+// No se usa @Transactional: las comprobaciones por aula se hacen en otros hilos, que no verían
+// la reserva existente si esta no se hubiera confirmado. Los datos se borran al terminar cada test.
+//
+// @Transactional is not used: the per-classroom checks run on other threads, which would not see
+// the existing booking unless it had been committed. Data is deleted after each test.
+@SpringBootTest
+public class BookingImportServiceTest {
+	
+	// Lunes / Monday
+	private static final LocalDateTime MONDAY = LocalDateTime.of(2032, 3, 1, 0, 0);
+	
+	@Autowired
+	private BookingImportService bookingImportService;
+	
+	@Autowired
+	private BookingRepository bookingRepository;
+	
+	@Autowired
+	private DailyOccupancyRepository dailyOccupancyRepository;
+	
+	// El aula 1 ya está reservada el lunes de 10:00 a 11:00.
+	//
+	// Classroom 1 is already booked on Monday from 10:00 to 11:00.
+	@BeforeEach
+	void setUp() {
+		bookingRepository.deleteAll();
+		bookingRepository.save(new Booking(0, 1, 10, MONDAY.withHour(10), MONDAY.withHour(11), 
+				LocalDateTime.now(), null, BookingStatus.ACTIVE));
+	}
+	
+	@AfterEach
+	void tearDown() {
+		bookingRepository.deleteAll();
+		dailyOccupancyRepository.deleteAll();
+	}
+	
+	private BookingImportReportDto importFile(String content, BookingFileFormat format) throws IOException {
+		return bookingImportService.importBookings(
+				new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+	}
+	
+	@Test
+	@DisplayName("importBookings() stores valid CSV rows and rejects the rest with the reason")
+	void importBookings_WhenCsv_ShouldStoreValidRowsAndReportRejections() throws IOException {
+		// Arrange
+		String csv = """
+				idClassroom,idUser,start,finish,comment
+				1,20,2032-03-01T09:00,2032-03-01T10:00,"Maths, group A"
+				1,21,2032-03-01T10:30,2032-03-01T11:30,
+				2,22,2032-03-01T09:00,2032-03-01T11:00,
+				2,23,2032-03-01T10:00,2032-03-01T10:30,
+				3,24,2032-03-01T09:00,2032-03-01T09:10,
+				3,25,not-a-date,2032-03-01T10:00,
+				3,26,2032-03-01T12:00,2032-03-01T13:00,
+				""";
+		
+		// Act
+		BookingImportReportDto report = importFile(csv, BookingFileFormat.CSV);
+		
+		// Assert
+		List<Integer> rejectedRows = report.getRejections().stream().map(BookingImportRejectionDto::getRow).toList();
+		assertAll(
+				() -> assertEquals(3, report.getImportedBookings()),
+				() -> assertEquals(List.of(2, 4, 5, 6), rejectedRows),
+				() -> assertTrue(report.getRejections().get(0).getReason().contains("already booked")),
+				() -> assertEquals("Overlaps with row 3 for classroom 2", report.getRejections().get(1).getReason()),
+				() -> assertTrue(report.getRejections().get(2).getReason().contains("shorter than 30 minutes")),
+				() -> assertTrue(report.getRejections().get(3).getReason().startsWith("Malformed row")),
+				() -> assertEquals(4, bookingRepository.count()),
+				() -> assertEquals(3, dailyOccupancyRepository.count(), "Each classroom should have a daily occupancy row"),
+				() -> assertTrue(bookingRepository.findAll().stream()
+						.anyMatch(b -> "Maths, group A".equals(b.getComment())), "Quoted comments should be kept")
+				);
+	}
+	
+	@Test
+	@DisplayName("importBookings() stores valid NDJSON lines and rejects malformed ones")
+	void importBookings_WhenNdjson_ShouldStoreValidLines() throws IOException {
+		// Arrange
+		String ndjson = """
+				{"idClassroom":2,"idUser":20,"start":"2032-03-01T09:00","finish":"2032-03-01T10:00"}
+				{"idClassroom":2,"idUser":21,
+				{"idClassroom":3,"idUser":22,"start":"2032-03-01T09:00","finish":"2032-03-01T10:00","status":"CANCELLED"}
+				""";
+		
+		// Act
+		BookingImportReportDto report = importFile(ndjson, BookingFileFormat.NDJSON);
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(2, report.getImportedBookings()),
+				() -> assertEquals(1, report.getRejections().size()),
+				() -> assertEquals(2, report.getRejections().get(0).getRow()),
+				() -> assertTrue(bookingRepository.findAll().stream().allMatch(b -> b.getStatus() == BookingStatus.ACTIVE),
+						"Imported bookings should always be active")
+				);
+	}
+	
+	@Test
+	@DisplayName("importBookings() rejects rows outside opening hours, as book() does")
+	void importBookings_WhenOutsideOpeningHours_ShouldRejectRows() throws IOException {
+		// Arrange
+		String csv = """
+				idClassroom,idUser,start,finish
+				2,20,2032-03-01T08:00,2032-03-01T09:00
+				2,21,2032-03-06T10:00,2032-03-06T11:00
+				2,22,2032-03-01T12:00,2032-03-01T13:00
+				""";
+
+		// Act
+		BookingImportReportDto report = importFile(csv, BookingFileFormat.CSV);
+
+		// Assert
+		assertAll(
+				() -> assertEquals(1, report.getImportedBookings()),
+				() -> assertEquals(List.of(1, 2), report.getRejections().stream()
+						.map(BookingImportRejectionDto::getRow).toList()),
+				() -> assertTrue(report.getRejections().get(1).getReason().startsWith("Classrooms are closed")),
+				() -> assertEquals(2, bookingRepository.count())
+				);
+	}
+
+	@Test
+	@DisplayName("importBookings() throws an exception when the CSV header lacks required columns")
+	void importBookings_WhenCsvHeaderMissing_ShouldThrowException() {
+		// Arrange
+		String csv = "1,20,2032-03-01T09:00,2032-03-01T10:00\n";
+		
+		// Act & Assert
+		assertThrows(InvalidImportFileException.class, () -> importFile(csv, BookingFileFormat.CSV),
+				"An InvalidImportFileException should have been thrown, but wasn't");
+	}
+
+}
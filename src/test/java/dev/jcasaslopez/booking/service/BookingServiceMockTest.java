@@ -2,13 +2,11 @@ package dev.jcasaslopez.booking.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,17 +18,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import dev.jcasaslopez.booking.dto.BookingDto;
 import dev.jcasaslopez.booking.entity.Booking;
-import dev.jcasaslopez.booking.entity.WatchAlert;
 import dev.jcasaslopez.booking.enums.BookingStatus;
-import dev.jcasaslopez.booking.enums.NotificationType;
+import dev.jcasaslopez.booking.event.BookingCancelledEvent;
+import dev.jcasaslopez.booking.event.BookingCreatedEvent;
 import dev.jcasaslopez.booking.exception.ClassroomNotAvailableException;
 import dev.jcasaslopez.booking.exception.NoSuchBookingException;
 import dev.jcasaslopez.booking.mapper.BookingMapper;
 import dev.jcasaslopez.booking.repository.BookingRepository;
-import dev.jcasaslopez.booking.repository.WatchAlertRepository;
 import dev.jcasaslopez.booking.slot.SlotManagerImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,13 +45,13 @@ public class BookingServiceMockTest {
 	private BookingRepository bookingRepository;
 	
 	@Mock
-	private NotificationServiceImpl notificationServiceImpl;
+	private BookingMapper bookingMapper;
 	
 	@Mock
-	private BookingMapper bookingMapper;
+	private DailyOccupancyServiceImpl dailyOccupancyServiceImpl;
 	
 	@Mock
-	private WatchAlertRepository watchAlertRepository;
+	private ApplicationEventPublisher eventPublisher;
 	
 	@Test
 	@DisplayName("book() creates a booking successfully when the classroom is available")
@@ -91,6 +89,8 @@ public class BookingServiceMockTest {
 		inOrder.verify(bookingMapper).bookingDtoToBooking(bookingDto);
 		inOrder.verify(bookingRepository).save(booking);
 		inOrder.verify(bookingMapper).bookingToBookingDto(booking);
+		verify(dailyOccupancyServiceImpl).recordBookings(List.of(booking));
+		verify(eventPublisher).publishEvent(BookingCreatedEvent.of(booking));
 		assertEquals(bookingDto, returnedBooking, "The returned booking does not match the expected "
 				+ "one. Expected: " + bookingDto + " but got: " + returnedBooking);
 	}
@@ -133,16 +133,16 @@ public class BookingServiceMockTest {
             );
 		
 		when(bookingRepository.findById(idBooking)).thenReturn(Optional.of(booking));
-		doNothing().when(bookingServiceImpl).notifyUsersAboutCancellation(idBooking);
 	
 		// Act 
 		bookingServiceImpl.cancel(1L, BookingStatus.CANCELLED);
 		
 		// Assert
-		InOrder inOrder = inOrder(bookingRepository, bookingServiceImpl);
+		InOrder inOrder = inOrder(bookingRepository, eventPublisher);
 		inOrder.verify(bookingRepository).findById(idBooking);
 		inOrder.verify(bookingRepository).cancelBooking(1L, BookingStatus.CANCELLED);
-		inOrder.verify(bookingServiceImpl).notifyUsersAboutCancellation(1L);
+		inOrder.verify(eventPublisher).publishEvent(BookingCancelledEvent.of(booking, BookingStatus.CANCELLED));
+		verify(dailyOccupancyServiceImpl).releaseBooking(booking);
 	}
 	
 	@Test
@@ -158,74 +158,4 @@ public class BookingServiceMockTest {
 				"Expected NoSuchBookingException, but no exception was thrown.");	
 	}
 	
-	@Test
-	@DisplayName("notifyUsersAboutCancellation() runs without sending notifications when no alerts exist")
-	public void notifyUsersAboutCancellation_WhenNoAlerts_NoNotificationsSentTest() {
-		// Arrange
-		Long idBooking = 1L;
-		
-		Booking cancelledBooking = new Booking(0, 1, 101, 
-                LocalDateTime.of(2025, 3, 17, 9, 0),  
-                LocalDateTime.of(2025, 3, 17, 11, 0),
-                LocalDateTime.now(),
-                null,
-                BookingStatus.ACTIVE
-            );
-		
-		when(bookingRepository.findById(idBooking)).thenReturn(Optional.of(cancelledBooking));
-		when(watchAlertRepository.findWatchAlertsByTimePeriodAndClassroom
-		(cancelledBooking.getIdClassroom(), cancelledBooking.getStart(), 
-				cancelledBooking.getFinish())).thenReturn(Collections.emptyList());
-	
-		// Act 
-		bookingServiceImpl.notifyUsersAboutCancellation(1L);
-		
-		// Assert
-		InOrder inOrder = inOrder(bookingRepository, watchAlertRepository, notificationServiceImpl);
-		inOrder.verify(bookingRepository).findById(idBooking);
-		inOrder.verify(watchAlertRepository).findWatchAlertsByTimePeriodAndClassroom
-				(cancelledBooking.getIdClassroom(), cancelledBooking.getStart(), cancelledBooking.getFinish());
-	}
-	
-	@Test
-	@DisplayName("notifyUsersAboutCancellation() works as expected when there are alerts")
-	public void notifyUsersAboutCancellation_WhenAlerts_SendNotificationsTest() {
-		// Arrange
-		Long idBooking = 1L;
-		
-		Booking cancelledBooking = new Booking(0, 1, 101, 
-                LocalDateTime.of(2025, 3, 17, 9, 0),  
-                LocalDateTime.of(2025, 3, 17, 11, 0),
-                LocalDateTime.now(),
-                null,
-                BookingStatus.ACTIVE
-            );
-		
-		WatchAlert watchAlert = new WatchAlert(
-			    1L,  
-			    101, 
-			    200, 
-			    LocalDateTime.of(2025, 3, 17, 9, 0),  
-			    LocalDateTime.of(2025, 3, 17, 9, 30), 
-			    LocalDateTime.now() 
-			);
-
-		
-		when(bookingRepository.findById(idBooking)).thenReturn(Optional.of(cancelledBooking));
-		when(watchAlertRepository.findWatchAlertsByTimePeriodAndClassroom
-		(cancelledBooking.getIdClassroom(), cancelledBooking.getStart(), 
-				cancelledBooking.getFinish())).thenReturn(List.of(watchAlert));
-	
-		// Act 
-		bookingServiceImpl.notifyUsersAboutCancellation(1L);
-		
-		// Assert
-		InOrder inOrder = inOrder(bookingRepository, watchAlertRepository, notificationServiceImpl);
-		inOrder.verify(bookingRepository).findById(idBooking);
-		inOrder.verify(watchAlertRepository).findWatchAlertsByTimePeriodAndClassroom
-				(cancelledBooking.getIdClassroom(), cancelledBooking.getStart(), cancelledBooking.getFinish());
-		inOrder.verify(notificationServiceImpl).sendNotification(NotificationType.WATCH_ALERT,
-				watchAlert.getIdUser(), watchAlert.getIdClassroom(), watchAlert.getStart(), watchAlert.getFinish());
-	}
-	
 }
@@ -0,0 +1,195 @@
+package dev.jcasaslopez.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.jcasaslopez.booking.dto.BookingDto;
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.entity.DailyOccupancy;
+import dev.jcasaslopez.booking.entity.DailyOccupancyId;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+import dev.jcasaslopez.booking.repository.DailyOccupancyRepository;
+
+// @Transactional deshace los datos de prueba al terminar cada test, para no afectar a otras
+// clases de test que comparten la misma base de datos en memoria.
+//
+// @Transactional rolls back the test data after each test, so that other test classes sharing
+// the same in-memory database are not affected.
+@SpringBootTest
+@Transactional
+public class DailyOccupancyServiceTest {
+	
+	// Lunes / Monday
+	private static final LocalDate MONDAY = LocalDate.of(2034, 6, 5);
+	
+	// Bits 18 y 19 (9:00-10:00) / Bits 18 and 19 (9:00-10:00)
+	private static final long NINE_TO_TEN = 0b11L << 18;
+	
+	// Bits 20, 21 y 22 (10:00-11:30) / Bits 20, 21 and 22 (10:00-11:30)
+	private static final long TEN_TO_ELEVEN_THIRTY = 0b111L << 20;
+	
+	@Autowired
+	private BookingService bookingService;
+	
+	@Autowired
+	private DailyOccupancyService dailyOccupancyService;
+	
+	@Autowired
+	private BookingRepository bookingRepository;
+	
+	@Autowired
+	private DailyOccupancyRepository dailyOccupancyRepository;
+	
+	@BeforeEach
+	void setUp() {
+		dailyOccupancyRepository.deleteAll();
+	}
+	
+	private BookingDto book(int idClassroom, LocalDateTime start, LocalDateTime finish) {
+		return bookingService.book(new BookingDto(0, idClassroom, 10, start, finish, null, null, BookingStatus.ACTIVE));
+	}
+	
+	private DailyOccupancy occupancy(int idClassroom, LocalDate date) {
+		return dailyOccupancyRepository.findById(new DailyOccupancyId(idClassroom, date)).orElseThrow();
+	}
+	
+	@Test
+	@DisplayName("book() adds the booked minutes and slots to the classroom's daily occupancy")
+	void book_ShouldUpdateDailyOccupancy() {
+		// Act
+		book(1, MONDAY.atTime(9, 0), MONDAY.atTime(10, 0));
+		book(1, MONDAY.atTime(10, 0), MONDAY.atTime(11, 30));
+		
+		// Assert
+		DailyOccupancy dailyOccupancy = occupancy(1, MONDAY);
+		assertAll(
+				() -> assertEquals(150, dailyOccupancy.getBookedMinutes()),
+				() -> assertEquals(0, dailyOccupancy.getCompletedMinutes()),
+				() -> assertEquals(NINE_TO_TEN | TEN_TO_ELEVEN_THIRTY, dailyOccupancy.getSlotMask())
+				);
+	}
+	
+	@Test
+	@DisplayName("cancel() removes the booked minutes and slots of the cancelled booking")
+	void cancel_ShouldUpdateDailyOccupancy() {
+		// Arrange
+		BookingDto first = book(1, MONDAY.atTime(9, 0), MONDAY.atTime(10, 0));
+		book(1, MONDAY.atTime(10, 0), MONDAY.atTime(11, 30));
+		
+		// Act
+		bookingService.cancel(first.getIdBooking(), BookingStatus.CANCELLED);
+		
+		// Assert
+		DailyOccupancy dailyOccupancy = occupancy(1, MONDAY);
+		assertAll(
+				() -> assertEquals(90, dailyOccupancy.getBookedMinutes()),
+				() -> assertEquals(TEN_TO_ELEVEN_THIRTY, dailyOccupancy.getSlotMask())
+				);
+	}
+	
+	@Test
+	@DisplayName("markBookingsAsCompleted() adds the completed minutes to the daily occupancy")
+	void markBookingsAsCompleted_ShouldUpdateCompletedMinutes() {
+		// Arrange
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+		Booking pastBooking = bookingRepository.save(new Booking(0, 2, 10, yesterday.atTime(9, 0), 
+				yesterday.atTime(10, 0), LocalDateTime.now(), null, BookingStatus.ACTIVE));
+		dailyOccupancyService.recordBookings(List.of(pastBooking));
+		
+		// Act
+		bookingService.markBookingsAsCompleted();
+		
+		// Assert
+		DailyOccupancy dailyOccupancy = occupancy(2, yesterday);
+		assertAll(
+				() -> assertEquals(60, dailyOccupancy.getBookedMinutes()),
+				() -> assertEquals(60, dailyOccupancy.getCompletedMinutes())
+				);
+	}
+	
+	@Test
+	@DisplayName("rebuild() recalculates the daily occupancy from the bookings, ignoring cancelled ones")
+	void rebuild_ShouldRecalculateFromBookings() {
+		// Arrange
+		bookingRepository.save(new Booking(0, 3, 10, MONDAY.atTime(9, 0), MONDAY.atTime(10, 0), 
+				LocalDateTime.now(), null, BookingStatus.ACTIVE));
+		bookingRepository.save(new Booking(0, 3, 10, MONDAY.atTime(10, 0), MONDAY.atTime(11, 30), 
+				LocalDateTime.now(), null, BookingStatus.CANCELLED));
+		bookingRepository.save(new Booking(0, 3, 10, MONDAY.plusDays(1).atTime(9, 0), MONDAY.plusDays(1).atTime(10, 0), 
+				LocalDateTime.now(), null, BookingStatus.ACTIVE));
+		
+		// Act
+		dailyOccupancyService.rebuild(MONDAY, MONDAY.plusDays(6));
+		
+		// Assert
+		List<DailyOccupancy> month = dailyOccupancyService.occupancyByClassroomAndMonth(3, YearMonth.from(MONDAY));
+		assertAll(
+				() -> assertEquals(2, month.size()),
+				() -> assertEquals(60, month.get(0).getBookedMinutes()),
+				() -> assertEquals(NINE_TO_TEN, month.get(0).getSlotMask()),
+				() -> assertEquals(MONDAY.plusDays(1), month.get(1).getOccupancyDate())
+				);
+	}
+	
+	// Sin transacción de test, para que las dos reservas se confirmen de verdad en paralelo. Los
+	// datos se borran al final.
+	//
+	// Without a test transaction, so that both bookings really commit in parallel. The data is 
+	// deleted at the end.
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	@DisplayName("Two simultaneous first bookings of the same classroom and day both succeed")
+	void book_WhenFirstBookingsOfDayAreConcurrent_ShouldRecordBoth() throws Exception {
+		// Arrange
+		LocalDate day = MONDAY.plusWeeks(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch startSignal = new CountDownLatch(1);
+		
+		try {
+			// Act
+			Future<BookingDto> first = executor.submit(() -> {
+				startSignal.await();
+				return book(4, day.atTime(9, 0), day.atTime(10, 0));
+			});
+			Future<BookingDto> second = executor.submit(() -> {
+				startSignal.await();
+				return book(4, day.atTime(10, 0), day.atTime(11, 30));
+			});
+			startSignal.countDown();
+			first.get();
+			second.get();
+			
+			// Assert
+			DailyOccupancy dailyOccupancy = occupancy(4, day);
+			assertAll(
+					() -> assertEquals(150, dailyOccupancy.getBookedMinutes()),
+					() -> assertEquals(NINE_TO_TEN | TEN_TO_ELEVEN_THIRTY, dailyOccupancy.getSlotMask())
+					);
+		} finally {
+			executor.shutdownNow();
+			bookingRepository.deleteAll(bookingRepository.findAll().stream()
+					.filter(b -> b.getIdClassroom() == 4 && b.getStart().toLocalDate().equals(day))
+					.toList());
+			dailyOccupancyRepository.deleteById(new DailyOccupancyId(4, day));
+		}
+	}
+
+}
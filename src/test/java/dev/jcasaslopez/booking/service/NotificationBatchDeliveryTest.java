@@ -0,0 +1,149 @@
+package dev.jcasaslopez.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dev.jcasaslopez.booking.entity.OutboxNotification;
+import dev.jcasaslopez.booking.enums.NotificationType;
+import dev.jcasaslopez.booking.repository.OutboxNotificationRepository;
+
+// El servicio de usuarios se sustituye por un servidor HTTP local (HttpServer del JDK), que 
+// cuenta las peticiones que recibe en cada endpoint y puede simular que no tiene el de lotes.
+// La revisión periódica del outbox se retrasa una hora para que no interfiera con los tests.
+//
+// The user service is replaced by a local HTTP server (the JDK's HttpServer), which counts the 
+// requests it receives on each endpoint and can pretend not to have the batch one. The periodic
+// outbox check is delayed by one hour so that it does not interfere with the tests.
+@SpringBootTest(properties = "notifications.outbox.poll-interval-ms=3600000")
+public class NotificationBatchDeliveryTest {
+	
+	private static final LocalDateTime START = LocalDateTime.of(2033, 3, 7, 10, 0);
+	
+	private static HttpServer usersServiceStub;
+	private static volatile boolean batchEndpointAvailable;
+	private static final AtomicInteger singleRequests = new AtomicInteger();
+	private static final AtomicInteger batchRequests = new AtomicInteger();
+	private static final AtomicInteger batchedMessages = new AtomicInteger();
+	
+	@Autowired
+	private NotificationOutboxService notificationOutboxService;
+	
+	@Autowired
+	private OutboxNotificationRepository outboxNotificationRepository;
+	
+	@DynamicPropertySource
+	static void usersServiceProperties(DynamicPropertyRegistry registry) throws IOException {
+		usersServiceStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		usersServiceStub.createContext("/users/notifications/send", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			singleRequests.incrementAndGet();
+			respond(exchange, 200);
+		});
+		usersServiceStub.createContext("/users/notifications/sendBatch", exchange -> {
+			byte[] body = exchange.getRequestBody().readAllBytes();
+			if (!batchEndpointAvailable) {
+				respond(exchange, 404);
+				return;
+			}
+			batchRequests.incrementAndGet();
+			List<Map<String, String>> messages = new ObjectMapper().readValue(body, 
+					new TypeReference<List<Map<String, String>>>() {});
+			batchedMessages.addAndGet(messages.size());
+			respond(exchange, 200);
+		});
+		usersServiceStub.start();
+		registry.add("users.service.url", 
+				() -> "http://localhost:" + usersServiceStub.getAddress().getPort() + "/users");
+	}
+	
+	// Los handlers leen siempre el cuerpo antes de responder, para que la conexión se pueda 
+	// reutilizar en la siguiente petición.
+	//
+	// Handlers always read the body before responding, so that the connection can be reused for
+	// the next request.
+	private static void respond(HttpExchange exchange, int status) throws IOException {
+		exchange.sendResponseHeaders(status, -1);
+		exchange.close();
+	}
+	
+	@BeforeEach
+	void setUp() {
+		outboxNotificationRepository.deleteAll();
+		singleRequests.set(0);
+		batchRequests.set(0);
+		batchedMessages.set(0);
+		for (int idUser = 1; idUser <= 5; idUser++) {
+			outboxNotificationRepository.save(new OutboxNotification(0, NotificationType.WATCH_ALERT, idUser, 1, 
+					START, START.plusHours(1), LocalDateTime.now(), 0, LocalDateTime.now()));
+		}
+	}
+	
+	@AfterEach
+	void tearDown() {
+		outboxNotificationRepository.deleteAll();
+	}
+	
+	@Test
+	@DisplayName("dispatchPending() sends the pending notifications in a single batch request")
+	void dispatchPending_WhenBatchEndpointAvailable_ShouldSendOneRequest() {
+		// Arrange
+		batchEndpointAvailable = true;
+		
+		// Act
+		int delivered = notificationOutboxService.dispatchPending();
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(5, delivered),
+				() -> assertEquals(1, batchRequests.get()),
+				() -> assertEquals(5, batchedMessages.get()),
+				() -> assertEquals(0, singleRequests.get()),
+				() -> assertEquals(0, outboxNotificationRepository.count())
+				);
+	}
+	
+	// El dispatcher recuerda que falta el endpoint de lotes, así que el contexto se descarta después.
+	//
+	// The dispatcher remembers that the batch endpoint is missing, so the context is discarded afterwards.
+	@Test
+	@DirtiesContext
+	@DisplayName("dispatchPending() falls back to single requests when the batch endpoint is missing")
+	void dispatchPending_WhenBatchEndpointMissing_ShouldSendOneByOne() {
+		// Arrange
+		batchEndpointAvailable = false;
+		
+		// Act
+		int delivered = notificationOutboxService.dispatchPending();
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(5, delivered),
+				() -> assertEquals(0, batchRequests.get()),
+				() -> assertEquals(5, singleRequests.get()),
+				() -> assertEquals(0, outboxNotificationRepository.count())
+				);
+	}
+
+}
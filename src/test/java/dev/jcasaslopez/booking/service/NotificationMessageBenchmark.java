@@ -0,0 +1,150 @@
+package dev.jcasaslopez.booking.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.management.ThreadMXBean;
+
+import dev.jcasaslopez.booking.dto.ClassroomDto;
+import dev.jcasaslopez.booking.enums.NotificationType;
+import dev.jcasaslopez.booking.model.ClassroomCatalogue;
+import dev.jcasaslopez.booking.model.ClassroomsList;
+
+// Benchmark (no test) que mide la memoria reservada y el tiempo por mensaje al generar los avisos
+// de una cancelación con muchos watch alerts afectados. Compara messageBuilder() con la versión 
+// anterior (String.format, DateTimeFormatter.ofPattern en cada llamada y HashMap), reproducida 
+// abajo como referencia.
+// No se usa JMH porque no es una dependencia del proyecto; como en RepositoryIndexBenchmark, no 
+// se ejecuta con "mvn test" porque su nombre no termina en "Test". Para lanzarlo:
+//   mvn test -Dtest=NotificationMessageBenchmark -Dbenchmark.messages=200000
+//
+// Benchmark (not a test) that measures the memory allocated and the time per message when 
+// generating the alerts of a cancellation with many affected watch alerts. It compares 
+// messageBuilder() with the previous version (String.format, DateTimeFormatter.ofPattern on each
+// call and HashMap), reproduced below as a baseline.
+// JMH is not used because it is not a dependency of the project; as with RepositoryIndexBenchmark,
+// it is not run by "mvn test" because its name does not end in "Test". To run it:
+//   mvn test -Dtest=NotificationMessageBenchmark -Dbenchmark.messages=200000
+public class NotificationMessageBenchmark {
+	
+	private static final Logger logger = LoggerFactory.getLogger(NotificationMessageBenchmark.class);
+	
+	private static final int CLASSROOMS = 50;
+	private static final int WARM_UP_ROUNDS = 3;
+	private static final LocalDateTime FIRST_START = LocalDateTime.of(2030, 3, 18, 9, 0);
+	
+	private record FanOutAlert(int idUser, int idClassroom, LocalDateTime start, LocalDateTime finish) {}
+	
+	@FunctionalInterface
+	private interface MessageFactory {
+		Map<String, String> build(FanOutAlert alert);
+	}
+	
+	@Test
+	@DisplayName("Measures allocations per message for a watch-alert fan-out")
+	void measureAllocationsPerMessage() {
+		int messages = Integer.getInteger("benchmark.messages", 200_000);
+		List<FanOutAlert> alerts = new ArrayList<>(messages);
+		for (int i = 0; i < messages; i++) {
+			LocalDateTime start = FIRST_START.plusMinutes(30L * (i % 500));
+			alerts.add(new FanOutAlert(i + 1, i % CLASSROOMS + 1, start, start.plusHours(1)));
+		}
+		
+		NotificationServiceImpl notificationService = new NotificationServiceImpl();
+		ReflectionTestUtils.setField(notificationService, "classroomCatalogue", catalogue());
+		LegacyMessageBuilder legacy = new LegacyMessageBuilder(notificationService);
+		
+		measure("legacy messageBuilder", alerts, alert -> legacy.messageBuilder(alert.idUser(), 
+				alert.idClassroom(), alert.start(), alert.finish()));
+		measure("messageBuilder", alerts, alert -> notificationService.messageBuilder(NotificationType.WATCH_ALERT, 
+				alert.idUser(), alert.idClassroom(), alert.start(), alert.finish()));
+	}
+	
+	private ClassroomCatalogue catalogue() {
+		List<ClassroomDto> classrooms = new ArrayList<>();
+		for (int i = 1; i <= CLASSROOMS; i++) {
+			classrooms.add(new ClassroomDto(i, String.valueOf(100 + i), 30, true, true));
+		}
+		ClassroomCatalogue catalogue = new ClassroomCatalogue(new ClassroomsList());
+		catalogue.replace(classrooms);
+		return catalogue;
+	}
+	
+	// Tras unas rondas de calentamiento, mide los bytes reservados por el hilo actual y el tiempo 
+	// de una ronda completa.
+	//
+	// After a few warm-up rounds, measures the bytes allocated by the current thread and the time 
+	// of a full round.
+	private void measure(String name, List<FanOutAlert> alerts, MessageFactory messageFactory) {
+		for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+			buildAll(alerts, messageFactory);
+		}
+		ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+		long begin = System.nanoTime();
+		long checksum = buildAll(alerts, messageFactory);
+		long elapsedNanos = System.nanoTime() - begin;
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+		
+		logger.info("{}: {} bytes and {} ns per message over {} messages (checksum {})", name, 
+				allocated / alerts.size(), elapsedNanos / alerts.size(), alerts.size(), checksum);
+	}
+	
+	// La suma de longitudes evita que el JIT descarte los mensajes como código muerto.
+	//
+	// The sum of lengths prevents the JIT from discarding the messages as dead code.
+	private long buildAll(List<FanOutAlert> alerts, MessageFactory messageFactory) {
+		long checksum = 0;
+		for (FanOutAlert alert : alerts) {
+			checksum += messageFactory.build(alert).get("Message").length();
+		}
+		return checksum;
+	}
+	
+	// Versión anterior de messageBuilder() para avisos, como referencia.
+	//
+	// Previous version of messageBuilder() for alerts, as a baseline.
+	private static class LegacyMessageBuilder {
+		
+		private final NotificationServiceImpl notificationService;
+		
+		LegacyMessageBuilder(NotificationServiceImpl notificationService) {
+			this.notificationService = notificationService;
+		}
+		
+		Map<String, String> messageBuilder(int idUser, int idClassroom, LocalDateTime start, LocalDateTime finish) {
+			Map<String, String> message = new HashMap<>();
+			String classroomName = notificationService.getClassroomName(idClassroom);
+			String dateTimeString = formatLocalDateTimesToString(start, finish);
+			message.put("Recipient", String.valueOf(idUser));
+			message.put("Subject", "A spot you were watching has opened up!");
+			message.put("Message", String.format(
+					"A booking for classroom %s %s has been cancelled. "
+					+ "Hurry up and book it before someone else does!",
+					classroomName, dateTimeString));
+			return message;
+		}
+		
+		String formatLocalDateTimesToString(LocalDateTime start, LocalDateTime finish) {
+			DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy", Locale.ENGLISH);
+			DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+			return String.format("on %s from %s to %s", 
+					start.format(dateFormatter), 
+					start.format(timeFormatter),
+					finish.format(timeFormatter));
+		}
+	}
+}
@@ -0,0 +1,427 @@
+package dev.jcasaslopez.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.jcasaslopez.booking.dto.BookingDto;
+import dev.jcasaslopez.booking.dto.WatchAlertDto;
+import dev.jcasaslopez.booking.entity.DeadLetterNotification;
+import dev.jcasaslopez.booking.entity.OutboxNotification;
+import dev.jcasaslopez.booking.enums.BatchDeliveryStatus;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.enums.NotificationType;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+import dev.jcasaslopez.booking.repository.DailyOccupancyRepository;
+import dev.jcasaslopez.booking.repository.DeadLetterNotificationRepository;
+import dev.jcasaslopez.booking.repository.OutboxNotificationRepository;
+import dev.jcasaslopez.booking.repository.WatchAlertRepository;
+import dev.jcasaslopez.booking.util.NotificationRetryPolicy;
+
+// No se usa @Transactional, porque lo que se prueba es precisamente qué ocurre al confirmar o 
+// deshacer la transacción de la reserva. La revisión periódica del outbox se retrasa una hora 
+// para que no interfiera con los tests.
+//
+// @Transactional is not used, because what is tested is precisely what happens when the booking
+// transaction commits or rolls back. The periodic outbox check is delayed by one hour so that it
+// does not interfere with the tests.
+@SpringBootTest(properties = "notifications.outbox.poll-interval-ms=3600000")
+public class NotificationOutboxServiceTest {
+	
+	// Lunes / Monday
+	private static final LocalDateTime START = LocalDateTime.of(2033, 3, 7, 10, 0);
+	private static final LocalDateTime FINISH = START.plusHours(1);
+	
+	@Autowired
+	private BookingService bookingService;
+	
+	@Autowired
+	private NotificationOutboxService notificationOutboxService;
+	
+	@Autowired
+	private BookingRepository bookingRepository;
+	
+	@Autowired
+	private DailyOccupancyRepository dailyOccupancyRepository;
+	
+	@Autowired
+	private OutboxNotificationRepository outboxNotificationRepository;
+	
+	@Autowired
+	private DeadLetterNotificationRepository deadLetterNotificationRepository;
+	
+	@Autowired
+	private WatchAlertRepository watchAlertRepository;
+	
+	@Autowired
+	private WatchAlertService watchAlertService;
+	
+	@Autowired
+	private NotificationRetryPolicy notificationRetryPolicy;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@BeforeEach
+	void setUp() {
+		outboxNotificationRepository.deleteAll();
+		deadLetterNotificationRepository.deleteAll();
+	}
+	
+	@AfterEach
+	void tearDown() {
+		bookingRepository.deleteAll();
+		dailyOccupancyRepository.deleteAll();
+		outboxNotificationRepository.deleteAll();
+		deadLetterNotificationRepository.deleteAll();
+		watchAlertRepository.deleteAll();
+	}
+	
+	private BookingDto bookingDto() {
+		return new BookingDto(0, 1, 30, START, FINISH, null, null, BookingStatus.ACTIVE);
+	}
+	
+	private OutboxNotification pendingNotification(int idUser) {
+		return pendingNotification(idUser, 0);
+	}
+	
+	private OutboxNotification pendingNotification(int idUser, int attempts) {
+		return new OutboxNotification(0, NotificationType.BOOK, idUser, 1, START, FINISH, LocalDateTime.now(), 
+				attempts, LocalDateTime.now());
+	}
+	
+	@Test
+	@DisplayName("book() stores the confirmation in the outbox within the booking transaction")
+	void book_WhenCommitted_ShouldStoreNotificationInOutbox() {
+		// Act
+		bookingService.book(bookingDto());
+		
+		// Assert
+		List<OutboxNotification> outbox = outboxNotificationRepository.findAll();
+		assertAll(
+				() -> assertEquals(1, outbox.size()),
+				() -> assertEquals(NotificationType.BOOK, outbox.get(0).getNotificationType()),
+				() -> assertEquals(30, outbox.get(0).getIdUser())
+				);
+	}
+	
+	@Test
+	@DisplayName("A rolled-back booking leaves no notification in the outbox")
+	void book_WhenRolledBack_ShouldNotStoreNotification() {
+		// Arrange
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		
+		// Act
+		transactionTemplate.executeWithoutResult(status -> {
+			bookingService.book(bookingDto());
+			status.setRollbackOnly();
+		});
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(0, bookingRepository.count()),
+				() -> assertEquals(0, outboxNotificationRepository.count())
+				);
+	}
+	
+	@Test
+	@DisplayName("cancel() queues the watch alerts overlapping the cancelled booking after commit")
+	void cancel_WhenCommitted_ShouldQueueWatchAlertsAfterCommit() throws InterruptedException {
+		// Arrange
+		BookingDto booking = bookingService.book(bookingDto());
+		watchAlertService.addWatchAlert(new WatchAlertDto(0, 1, 31, START.minusMinutes(30), START.plusMinutes(30), 
+				LocalDateTime.now()));
+		
+		// Act
+		bookingService.cancel(booking.getIdBooking(), BookingStatus.CANCELLED);
+		
+		// Assert
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (outboxNotificationRepository.findAll().stream()
+				.noneMatch(notification -> notification.getNotificationType() == NotificationType.WATCH_ALERT)
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		List<OutboxNotification> watchAlerts = outboxNotificationRepository.findAll().stream()
+				.filter(notification -> notification.getNotificationType() == NotificationType.WATCH_ALERT)
+				.toList();
+		assertAll(
+				() -> assertEquals(1, watchAlerts.size()),
+				() -> assertEquals(31, watchAlerts.get(0).getIdUser()),
+				() -> assertEquals(START, watchAlerts.get(0).getStart()),
+				() -> assertEquals(START.plusMinutes(30), watchAlerts.get(0).getFinish())
+				);
+	}
+	
+	@Test
+	@DisplayName("enqueue() refuses to run outside a transaction")
+	void enqueue_WhenNoTransaction_ShouldThrowException() {
+		// Act & Assert
+		assertThrows(IllegalTransactionStateException.class, 
+				() -> notificationOutboxService.enqueue(NotificationType.BOOK, 30, 1, START, FINISH),
+				"An IllegalTransactionStateException should have been thrown, but wasn't");
+	}
+	
+	@Test
+	@DisplayName("dispatchPending() delivers every pending notification in batches and deletes them")
+	void dispatchPending_WhenServiceAvailable_ShouldDeliverAndDeleteAll() {
+		// Arrange
+		NotificationService notificationService = mock(NotificationService.class);
+		when(notificationService.sendNotificationBatch(any())).thenReturn(BatchDeliveryStatus.DELIVERED);
+		when(notificationService.sendMessage(anyInt(), any())).thenReturn(true);
+		NotificationOutboxServiceImpl dispatcher = new NotificationOutboxServiceImpl(outboxNotificationRepository,
+				deadLetterNotificationRepository, notificationService, notificationRetryPolicy, transactionManager,
+				2, 3_600_000, 0, 600_000, 4, 10_000, 0);
+		outboxNotificationRepository.saveAll(List.of(pendingNotification(1), pendingNotification(2), 
+				pendingNotification(3)));
+		
+		// Act
+		int delivered = dispatcher.dispatchPending();
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(3, delivered),
+				() -> assertEquals(0, outboxNotificationRepository.count()),
+				() -> verify(notificationService, times(1)).sendNotificationBatch(any()),
+				() -> verify(notificationService, times(1)).sendMessage(anyInt(), any())
+				);
+	}
+	
+	@Test
+	@DisplayName("dispatchPending() merges the notifications of the same user and type into one digest")
+	void dispatchPending_WhenSameUserAndType_ShouldSendSingleDigest() {
+		// Arrange
+		NotificationService notificationService = mock(NotificationService.class);
+		when(notificationService.sendMessage(anyInt(), any())).thenReturn(true);
+		NotificationOutboxServiceImpl dispatcher = new NotificationOutboxServiceImpl(outboxNotificationRepository,
+				deadLetterNotificationRepository, notificationService, notificationRetryPolicy, transactionManager,
+				10, 3_600_000, 0, 600_000, 4, 10_000, 0);
+		outboxNotificationRepository.saveAll(List.of(pendingNotification(5), pendingNotification(5), 
+				pendingNotification(5)));
+		
+		// Act
+		int delivered = dispatcher.dispatchPending();
+		dispatcher.stop();
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(3, delivered),
+				() -> assertEquals(0, outboxNotificationRepository.count()),
+				() -> verify(notificationService, times(1)).messageBuilder(eq(NotificationType.BOOK), eq(5), 
+						argThat(periods -> periods.size() == 3)),
+				() -> verify(notificationService, times(1)).sendMessage(eq(5), any()),
+				() -> verify(notificationService, never()).sendNotificationBatch(any())
+				);
+	}
+	
+	@Test
+	@DisplayName("enqueue() gives the notifications of a user within the digest window the same sending time")
+	void enqueue_WhenWithinDigestWindow_ShouldShareSendingTime() {
+		// Arrange
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		
+		// Act
+		transactionTemplate.executeWithoutResult(status -> {
+			notificationOutboxService.enqueue(NotificationType.WATCH_ALERT, 40, 1, START, FINISH);
+			notificationOutboxService.enqueue(NotificationType.WATCH_ALERT, 40, 2, START, FINISH);
+			notificationOutboxService.enqueue(NotificationType.BOOK, 40, 1, START, FINISH);
+		});
+		
+		// Assert
+		List<OutboxNotification> outbox = outboxNotificationRepository.findAll();
+		LocalDateTime watchAlertsDueTime = outbox.get(0).getNextAttemptAt();
+		assertAll(
+				() -> assertEquals(3, outbox.size()),
+				() -> assertTrue(watchAlertsDueTime.isAfter(outbox.get(0).getCreatedAt()), 
+						"The first notification should have opened a digest window"),
+				() -> assertEquals(watchAlertsDueTime, outbox.get(1).getNextAttemptAt()),
+				() -> assertTrue(!outbox.get(2).getNextAttemptAt().isBefore(outbox.get(2).getCreatedAt()),
+						"A different type should open its own window")
+				);
+	}
+	
+	@Test
+	@DisplayName("dispatchPending() keeps failed notifications for the next attempt")
+	void dispatchPending_WhenDeliveryFails_ShouldKeepNotification() {
+		// Arrange
+		NotificationService notificationService = mock(NotificationService.class);
+		when(notificationService.sendNotificationBatch(any())).thenReturn(BatchDeliveryStatus.FAILED);
+		NotificationOutboxServiceImpl dispatcher = new NotificationOutboxServiceImpl(outboxNotificationRepository,
+				deadLetterNotificationRepository, notificationService, notificationRetryPolicy, transactionManager,
+				10, 3_600_000, 0, 600_000, 4, 10_000, 0);
+		outboxNotificationRepository.saveAll(List.of(pendingNotification(1), pendingNotification(2)));
+		
+		// Act
+		int delivered = dispatcher.dispatchPending();
+		
+		// Assert
+		List<OutboxNotification> outbox = outboxNotificationRepository.findAll();
+		assertAll(
+				() -> assertEquals(0, delivered),
+				() -> assertEquals(2, outbox.size()),
+				() -> assertTrue(outbox.stream().allMatch(notification -> notification.getAttempts() >= 1), 
+						"The failed attempts should have been recorded")
+				);
+	}
+	
+	@Test
+	@DisplayName("dispatchPending() sends one-by-one notifications concurrently, up to the configured limit")
+	void dispatchPending_WhenSendingOneByOne_ShouldRespectConcurrencyLimit() {
+		// Arrange
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		NotificationService notificationService = mock(NotificationService.class);
+		when(notificationService.sendNotificationBatch(any())).thenReturn(BatchDeliveryStatus.UNSUPPORTED);
+		when(notificationService.sendMessage(anyInt(), any())).thenAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			Thread.sleep(200);
+			inFlight.decrementAndGet();
+			return true;
+		});
+		NotificationOutboxServiceImpl dispatcher = new NotificationOutboxServiceImpl(outboxNotificationRepository,
+				deadLetterNotificationRepository, notificationService, notificationRetryPolicy, transactionManager,
+				10, 3_600_000, 0, 600_000, 2, 10_000, 0);
+		outboxNotificationRepository.saveAll(List.of(pendingNotification(1), pendingNotification(2), 
+				pendingNotification(3), pendingNotification(4)));
+		
+		// Act
+		int delivered = dispatcher.dispatchPending();
+		dispatcher.stop();
+		
+		// Assert
+		assertAll(
+				() -> assertEquals(4, delivered),
+				() -> assertEquals(2, maxInFlight.get(), "Two notifications should have been sent at a time"),
+				() -> assertEquals(0, outboxNotificationRepository.count())
+				);
+	}
+	
+	@Test
+	@DisplayName("dispatchPending() keeps the notifications that miss the fan-out deadline")
+	void dispatchPending_WhenDeadlineExpires_ShouldKeepTimedOutNotifications() {
+		// Arrange
+		NotificationService notificationService = mock(NotificationService.class);
+		when(notificationService.sendNotificationBatch(any())).thenReturn(BatchDeliveryStatus.UNSUPPORTED);
+		when(notificationService.sendMessage(anyInt(), any())).thenAnswer(invocation -> {
+			if (invocation.getArgument(0, Integer.class) == 2) {
+				Thread.sleep(10_000);
+			}
+			return true;
+		});
+		NotificationOutboxServiceImpl dispatcher = new NotificationOutboxServiceImpl(outboxNotificationRepository,
+				deadLetterNotificationRepository, notificationService, notificationRetryPolicy, transactionManager,
+				10, 3_600_000, 0, 600_000, 4, 300, 0);
+		outboxNotificationRepository.saveAll(List.of(pendingNotification(1), pendingNotification(2)));
+		
+		// Act
+		int delivered = dispatcher.dispatchPending();
+		dispatcher.stop();
+		
+		// Assert
+		List<OutboxNotification> outbox = outboxNotificationRepository.findAll();
+		assertAll(
+				() -> assertEquals(1, delivered),
+				() -> assertEquals(1, outbox.size()),
+				() -> assertEquals(2, outbox.get(0).getIdUser())
+				);
+	}
+	
+	@Test
+	@DisplayName("dispatchPending() waits with exponential backoff before retrying a failed notification")
+	void dispatchPending_WhenDeliveryFails_ShouldRescheduleWithBackoff() {
+		// Arrange
+		NotificationService notificationService = mock(NotificationService.class);
+		NotificationRetryPolicy retryPolicy = new NotificationRetryPolicy(60_000, 600_000, 10);
+		NotificationOutboxServiceImpl dispatcher = new NotificationOutboxServiceImpl(outboxNotificationRepository,
+				deadLetterNotificationRepository, notificationService, retryPolicy, transactionManager, 10, 3_600_000, 
+				0, 600_000, 4, 10_000, 0);
+		outboxNotificationRepository.save(pendingNotification(1, 2));
+		LocalDateTime before = LocalDateTime.now();
+		
+		// Act
+		dispatcher.dispatchPending();
+		dispatcher.dispatchPending();
+		dispatcher.stop();
+		
+		// Assert
+		OutboxNotification rescheduled = outboxNotificationRepository.findAll().get(0);
+		assertAll(
+				() -> assertEquals(3, rescheduled.getAttempts()),
+				() -> assertTrue(!rescheduled.getNextAttemptAt().isBefore(before.plusMinutes(2)) 
+						&& !rescheduled.getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(4)),
+						"After the third failure the wait should be between 2 and 4 minutes"),
+				() -> verify(notificationService, times(1)).sendMessage(anyInt(), any())
+				);
+	}
+	
+	@Test
+	@DisplayName("dispatchPending() moves a notification to dead letters when it runs out of attempts")
+	void dispatchPending_WhenAttemptsExhausted_ShouldMoveToDeadLetters() {
+		// Arrange
+		NotificationService notificationService = mock(NotificationService.class);
+		NotificationRetryPolicy retryPolicy = new NotificationRetryPolicy(1_000, 60_000, 3);
+		NotificationOutboxServiceImpl dispatcher = new NotificationOutboxServiceImpl(outboxNotificationRepository,
+				deadLetterNotificationRepository, notificationService, retryPolicy, transactionManager, 10, 3_600_000, 
+				0, 600_000, 4, 10_000, 0);
+		outboxNotificationRepository.save(pendingNotification(7, 2));
+		
+		// Act
+		dispatcher.dispatchPending();
+		dispatcher.stop();
+		
+		// Assert
+		List<DeadLetterNotification> deadLetters = deadLetterNotificationRepository.findAll();
+		assertAll(
+				() -> assertEquals(0, outboxNotificationRepository.count()),
+				() -> assertEquals(1, deadLetters.size()),
+				() -> assertEquals(7, deadLetters.get(0).getIdUser()),
+				() -> assertEquals(3, deadLetters.get(0).getAttempts())
+				);
+	}
+	
+	@Test
+	@DisplayName("replayDeadLetters() queues the dead letters again with their attempts reset")
+	void replayDeadLetters_WhenDeadLettersExist_ShouldQueueThemAgain() {
+		// Arrange
+		deadLetterNotificationRepository.save(new DeadLetterNotification(0, NotificationType.WATCH_ALERT, 7, 1, 
+				START, FINISH, LocalDateTime.now(), 10, LocalDateTime.now()));
+		
+		// Act
+		int replayed = notificationOutboxService.replayDeadLetters();
+		
+		// Assert
+		List<OutboxNotification> outbox = outboxNotificationRepository.findAll();
+		assertAll(
+				() -> assertEquals(1, replayed),
+				() -> assertEquals(0, deadLetterNotificationRepository.count()),
+				() -> assertEquals(1, outbox.size()),
+				() -> assertEquals(NotificationType.WATCH_ALERT, outbox.get(0).getNotificationType()),
+				() -> assertEquals(7, outbox.get(0).getIdUser())
+				);
+	}
+
+}
@@ -24,7 +24,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import dev.jcasaslopez.booking.dto.ClassroomDto;
 import dev.jcasaslopez.booking.enums.NotificationType;
 import dev.jcasaslopez.booking.exception.NoSuchClassroomException;
-import dev.jcasaslopez.booking.model.ClassroomsList;
+import dev.jcasaslopez.booking.model.ClassroomCatalogue;
+import dev.jcasaslopez.booking.model.ClassroomCatalogueSnapshot;
+import dev.jcasaslopez.booking.model.ClassroomPeriod;
 
 @SpringBootTest
 @ExtendWith(MockitoExtension.class)
@@ -34,7 +36,7 @@ public class NotificationServiceTest {
     private NotificationServiceImpl notificationServiceImpl;
     
     @Mock
-    private ClassroomsList classroomsList; 
+    private ClassroomCatalogue classroomCatalogue; 
 
     @BeforeEach
     void setUp() {
@@ -44,7 +46,7 @@ public class NotificationServiceTest {
                 new ClassroomDto(3, "103", 30, false, true),
                 new ClassroomDto(4, "104", 20, false, false)
             );
-        Mockito.when(classroomsList.getClassroomsList()).thenReturn(classroomMocks);
+        Mockito.when(classroomCatalogue.snapshot()).thenReturn(new ClassroomCatalogueSnapshot(classroomMocks));
     }
 	
     @Test
@@ -89,6 +91,32 @@ public class NotificationServiceTest {
 				);
 	}
 	
+    @Test
+	@DisplayName("messageBuilder() should merge several watch alerts into one digest sorted by start")
+	public void messageBuilder_WhenSeveralPeriods_ShouldReturnDigestTest() {
+		// Arrange
+		int idUser = 1;
+		List<ClassroomPeriod> periods = List.of(
+				new ClassroomPeriod(2, LocalDateTime.of(2025, 3, 18, 9, 0), LocalDateTime.of(2025, 3, 18, 10, 0)),
+				new ClassroomPeriod(1, LocalDateTime.of(2025, 3, 17, 17, 0), LocalDateTime.of(2025, 3, 17, 17, 30)));
+		
+		// Act
+		Map<String, String> message = notificationServiceImpl.messageBuilder(NotificationType.WATCH_ALERT, 
+				idUser, periods);
+		
+		// Assert
+		assertAll( 	
+					() -> assertEquals(String.valueOf(idUser), message.get("Recipient")),
+					() -> assertEquals("2 spots you were watching have opened up!", message.get("Subject")),
+					() -> assertEquals("The following bookings have been cancelled:\n"
+							+ "- Classroom 101 on Monday, March 17, 2025 from 17:00 to 17:30\n"
+							+ "- Classroom 102 on Tuesday, March 18, 2025 from 09:00 to 10:00\n"
+							+ "Hurry up and book them before someone else does!",
+							message.get("Message")
+							)
+				);
+	}
+	
 	@ParameterizedTest
 	@CsvSource({
 		"1, 101",
@@ -0,0 +1,148 @@
+package dev.jcasaslopez.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.jcasaslopez.booking.dto.CursorPageDto;
+import dev.jcasaslopez.booking.dto.WatchAlertDto;
+import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.entity.WatchAlert;
+import dev.jcasaslopez.booking.enums.BookingStatus;
+import dev.jcasaslopez.booking.exception.InvalidCursorException;
+import dev.jcasaslopez.booking.repository.BookingRepository;
+import dev.jcasaslopez.booking.repository.WatchAlertRepository;
+import dev.jcasaslopez.booking.util.KeysetPaginator;
+
+// @Transactional deshace los datos de prueba al terminar cada test, para no afectar a otras
+// clases de test que comparten la misma base de datos en memoria.
+//
+// @Transactional rolls back the test data after each test, so that other test classes sharing
+// the same in-memory database are not affected.
+@SpringBootTest
+@Transactional
+public class UserHistoryPaginationTest {
+
+	private static final int ID_USER = 999;
+	private static final int TOTAL_ROWS = 25;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private WatchAlertService watchAlertService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private WatchAlertRepository watchAlertRepository;
+
+	@Autowired
+	private KeysetPaginator keysetPaginator;
+
+	// Cada dos filas comparten hora de inicio, para comprobar que el desempate por id mantiene
+	// el orden estable entre páginas.
+	//
+	// Every two rows share the same start time, to check that the tie-break by id keeps the
+	// order stable across pages.
+	@BeforeEach
+	void setUp() {
+		LocalDateTime firstStart = LocalDateTime.of(2025, 3, 3, 9, 0);
+		for (int i = 0; i < TOTAL_ROWS; i++) {
+			LocalDateTime start = firstStart.plusDays(i / 2);
+			bookingRepository.save(new Booking(0, 1, ID_USER, start, start.plusHours(1), LocalDateTime.now(),
+					null, BookingStatus.ACTIVE));
+			watchAlertRepository.save(new WatchAlert(0, 1, ID_USER, start, start.plusMinutes(30),
+					LocalDateTime.now()));
+		}
+	}
+
+	@Test
+	@DisplayName("bookingsByUser() walks every booking exactly once, from most recent to oldest")
+	void bookingsByUser_WhenWalkingAllPages_ShouldReturnEveryBookingOnceInOrder() {
+		// Arrange
+		List<Booking> walkedBookings = new ArrayList<>();
+		List<Integer> pageSizes = new ArrayList<>();
+		String cursor = null;
+
+		// Act
+		do {
+			CursorPageDto<Booking> page = bookingService.bookingsByUser(ID_USER, cursor, 10);
+			walkedBookings.addAll(page.getItems());
+			pageSizes.add(page.getItems().size());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		// Assert
+		Comparator<Booking> expectedOrder = Comparator.comparing(Booking::getStart)
+				.thenComparing(Booking::getIdBooking).reversed();
+		assertAll(
+				() -> assertEquals(List.of(10, 10, 5), pageSizes),
+				() -> assertEquals(TOTAL_ROWS, walkedBookings.stream().map(Booking::getIdBooking).distinct().count(),
+						"Every booking should be returned exactly once"),
+				() -> assertEquals(walkedBookings.stream().sorted(expectedOrder).toList(), walkedBookings,
+						"Bookings should be ordered by start and idBooking, descending")
+				);
+	}
+
+	@Test
+	@DisplayName("watchAlertsListByUser() walks every watch alert exactly once")
+	void watchAlertsListByUser_WhenWalkingAllPages_ShouldReturnEveryAlertOnce() {
+		// Arrange
+		List<WatchAlertDto> walkedAlerts = new ArrayList<>();
+		String cursor = null;
+
+		// Act
+		do {
+			CursorPageDto<WatchAlertDto> page = watchAlertService.watchAlertsListByUser(ID_USER, cursor, 7);
+			walkedAlerts.addAll(page.getItems());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		// Assert
+		assertEquals(TOTAL_ROWS, walkedAlerts.stream().map(WatchAlertDto::getIdWatchAlert).distinct().count(),
+				"Every watch alert should be returned exactly once");
+	}
+
+	@Test
+	@DisplayName("bookingsByUser() uses the default page size when none is given")
+	void bookingsByUser_WhenNoPageSize_ShouldUseDefaultPageSize() {
+		// Act
+		CursorPageDto<Booking> page = bookingService.bookingsByUser(ID_USER, null, null);
+
+		// Assert
+		assertAll(
+				() -> assertEquals(20, page.getItems().size()),
+				() -> assertTrue(page.getNextCursor() != null, "There should be a next page")
+				);
+	}
+
+	@Test
+	@DisplayName("The page size is capped at the configured maximum")
+	void resolvePageSize_WhenAboveMaximum_ShouldReturnMaximum() {
+		// Act & Assert
+		assertEquals(100, keysetPaginator.resolvePageSize(1_000_000));
+	}
+
+	@Test
+	@DisplayName("bookingsByUser() throws an exception when the cursor is not valid")
+	void bookingsByUser_WhenInvalidCursor_ShouldThrowException() {
+		// Act & Assert
+		assertThrows(InvalidCursorException.class, () -> bookingService.bookingsByUser(ID_USER, "not-a-cursor", 10),
+				"An InvalidCursorException should have been thrown, but wasn't");
+	}
+}
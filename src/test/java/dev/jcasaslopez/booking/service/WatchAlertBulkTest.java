@@ -0,0 +1,148 @@
+package dev.jcasaslopez.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.jcasaslopez.booking.dto.WatchAlertDto;
+import dev.jcasaslopez.booking.entity.WatchAlert;
+import dev.jcasaslopez.booking.exception.InvalidWatchAlertException;
+import dev.jcasaslopez.booking.exception.NoSuchClassroomException;
+import dev.jcasaslopez.booking.repository.WatchAlertRepository;
+
+// @Transactional deshace los datos de prueba al terminar cada test, para no afectar a otras
+// clases de test que comparten la misma base de datos en memoria.
+//
+// @Transactional rolls back the test data after each test, so that other test classes sharing
+// the same in-memory database are not affected.
+@SpringBootTest
+@Transactional
+public class WatchAlertBulkTest {
+
+	private static final int ID_USER = 777;
+	private static final LocalDateTime DAY = LocalDateTime.of(2030, 3, 18, 0, 0);
+
+	@Autowired
+	private WatchAlertService watchAlertService;
+
+	@Autowired
+	private WatchAlertRepository watchAlertRepository;
+
+	@BeforeEach
+	void setUp() {
+		watchAlertRepository.deleteAll();
+	}
+
+	private WatchAlertDto alert(int idClassroom, int hour, int minute) {
+		LocalDateTime start = DAY.withHour(hour).withMinute(minute);
+		return new WatchAlertDto(0, idClassroom, ID_USER, start, start.plusMinutes(30), null);
+	}
+
+	private List<WatchAlert> storedAlerts() {
+		return watchAlertRepository.findAll().stream()
+				.sorted(Comparator.comparing(WatchAlert::getIdClassroom).thenComparing(WatchAlert::getStart))
+				.toList();
+	}
+
+	@Test
+	@DisplayName("addWatchAlerts() stores duplicated alerts of the same user and classroom only once")
+	void addWatchAlerts_WhenAlertsDuplicated_ShouldStoreThemOnce() {
+		// Arrange
+		List<WatchAlertDto> watchAlertDtos = List.of(alert(1, 10, 0), alert(1, 10, 0), alert(1, 12, 0),
+				alert(2, 10, 0));
+
+		// Act
+		List<WatchAlertDto> result = watchAlertService.addWatchAlerts(watchAlertDtos);
+
+		// Assert
+		List<WatchAlert> stored = storedAlerts();
+		assertAll(
+				() -> assertEquals(3, result.size()),
+				() -> assertEquals(3, stored.size()),
+				() -> assertEquals(DAY.withHour(10), stored.get(0).getStart()),
+				() -> assertEquals(DAY.withHour(12), stored.get(1).getStart()),
+				() -> assertEquals(2, stored.get(2).getIdClassroom())
+				);
+	}
+
+	@Test
+	@DisplayName("addWatchAlerts() keeps adjacent alerts apart, so every row lasts 30 minutes")
+	void addWatchAlerts_WhenAlertsAdjacent_ShouldNotMergeThem() {
+		// Arrange
+		List<WatchAlertDto> watchAlertDtos = List.of(alert(1, 10, 30), alert(1, 10, 0));
+
+		// Act
+		List<WatchAlertDto> result = watchAlertService.addWatchAlerts(watchAlertDtos);
+
+		// Assert
+		List<WatchAlert> stored = storedAlerts();
+		assertAll(
+				() -> assertEquals(2, result.size()),
+				() -> assertEquals(2, stored.size()),
+				() -> assertTrue(stored.stream().allMatch(a -> a.getFinish().equals(a.getStart().plusMinutes(30))),
+						"Every stored alert should last exactly 30 minutes")
+				);
+	}
+
+	@Test
+	@DisplayName("addWatchAlerts() keeps the stored alert for a repeated period and deletes its duplicates")
+	void addWatchAlerts_WhenPeriodAlreadyStored_ShouldKeepOldestStoredAlert() {
+		// Arrange
+		WatchAlert oldest = watchAlertRepository.save(new WatchAlert(0, 1, ID_USER, DAY.withHour(10),
+				DAY.withHour(10).plusMinutes(30), LocalDateTime.now()));
+		watchAlertRepository.save(new WatchAlert(0, 1, ID_USER, DAY.withHour(10), DAY.withHour(10).plusMinutes(30),
+				LocalDateTime.now()));
+		watchAlertRepository.save(new WatchAlert(0, 1, ID_USER, DAY.withHour(15), DAY.withHour(15).plusMinutes(30),
+				LocalDateTime.now()));
+
+		// Act
+		List<WatchAlertDto> result = watchAlertService.addWatchAlerts(List.of(alert(1, 10, 0), alert(1, 10, 30)));
+
+		// Assert
+		List<WatchAlert> stored = storedAlerts();
+		assertAll(
+				() -> assertEquals(2, result.size()),
+				() -> assertEquals(oldest.getIdWatchAlert(), result.get(0).getIdWatchAlert()),
+				() -> assertEquals(stored.get(1).getIdWatchAlert(), result.get(1).getIdWatchAlert(),
+						"The new alert should carry the generated id"),
+				() -> assertEquals(3, stored.size(), "The duplicate should be deleted and the unrelated alert kept")
+				);
+	}
+
+	@Test
+	@DisplayName("addWatchAlerts() rejects the whole request when an alert is not valid")
+	void addWatchAlerts_WhenAlertNotValid_ShouldThrowException() {
+		// Arrange
+		WatchAlertDto tooLong = new WatchAlertDto(0, 1, ID_USER, DAY.withHour(10), DAY.withHour(12), null);
+
+		// Act & Assert
+		InvalidWatchAlertException exception = assertThrows(InvalidWatchAlertException.class,
+				() -> watchAlertService.addWatchAlerts(List.of(alert(1, 9, 0), tooLong)),
+				"An InvalidWatchAlertException should have been thrown, but wasn't");
+		assertAll(
+				() -> assertEquals("Watch alert 2: WatchAlert has to be exactly 30 minutes", exception.getMessage()),
+				() -> assertEquals(0, watchAlertRepository.count())
+				);
+	}
+
+	@Test
+	@DisplayName("addWatchAlerts() throws an exception when a classroom does not exist")
+	void addWatchAlerts_WhenClassroomDoesNotExist_ShouldThrowException() {
+		// Act & Assert
+		assertThrows(NoSuchClassroomException.class,
+				() -> watchAlertService.addWatchAlerts(List.of(alert(1, 9, 0), alert(999, 9, 0))),
+				"A NoSuchClassroomException should have been thrown, but wasn't");
+	}
+}
@@ -22,7 +22,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 
 import dev.jcasaslopez.booking.dto.SlotDto;
-import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.model.BookingInterval;
 import dev.jcasaslopez.booking.model.WeeklySchedule;
 
 @SpringBootTest
@@ -137,9 +137,9 @@ public class SlotManagerHelperMethodsUnitTest {
 		List<SlotDto> weekSlots = slotManagerImpl.createEmptyCalendar(idClassroom, 
 				nextMondayAt6, followingSundayAt22);
 		
-		Booking booking1 = new Booking(1L, 1, 123, followingTuesdayAt12, followingTuesdayAt14, null, null, null);
-		Booking booking2 = new Booking(2L, 1, 456, followingFridayAt1530, followingFridayAt17, null, null, null);
-		List<Booking> bookings = List.of(booking1, booking2);
+		BookingInterval booking1 = new BookingInterval(followingTuesdayAt12, followingTuesdayAt14);
+		BookingInterval booking2 = new BookingInterval(followingFridayAt1530, followingFridayAt17);
+		List<BookingInterval> bookings = List.of(booking1, booking2);
 		
 		// Act
 		List<SlotDto> updatedSlots = slotManagerImpl.updateSlotsAvailability(weekSlots, bookings);
@@ -16,7 +16,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import dev.jcasaslopez.booking.dto.SlotDto;
-import dev.jcasaslopez.booking.entity.Booking;
+import dev.jcasaslopez.booking.model.BookingInterval;
 import dev.jcasaslopez.booking.repository.BookingRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,15 +53,15 @@ public class SlotManagerMockTest {
         LocalDateTime start = LocalDateTime.of(2024, 3, 9, 8, 0);
         LocalDateTime finish = LocalDateTime.of(2024, 3, 9, 18, 0);
 
-        // Usamos el constructor sin parámetros porque esta prueba no valida el resultado final,
+        // Usamos el constructor sin parámetros de SlotDto porque esta prueba no valida el resultado final,
         // solo verifica que las llamadas a los métodos ocurran en el orden esperado.
         //
-        // We use the parameterless constructor because this test does not validate the final result,
+        // We use the SlotDto parameterless constructor because this test does not validate the final result,
         // only verifies that the method calls occur in the expected order.
-        List<Booking> mockBookings = List.of(new Booking());
+        List<BookingInterval> mockBookings = List.of(new BookingInterval(start, finish));
         List<SlotDto> mockSlots = List.of(new SlotDto());
 		
-		Mockito.when(bookingRepository.findActiveBookingsForClassroomByPeriod(classroomId, start, finish))
+		Mockito.when(bookingRepository.findActiveBookingIntervalsForClassroomByPeriod(classroomId, start, finish))
 				.thenReturn(mockBookings);
 		Mockito.doReturn(mockSlots).when(slotManagerImpl).createEmptyCalendar(classroomId, start, finish);
 		Mockito.doReturn(mockSlots).when(slotManagerImpl).updateSlotsAvailability(mockSlots, mockBookings);
@@ -71,7 +71,7 @@ public class SlotManagerMockTest {
 		
 		// Assert
 		InOrder inOrder = inOrder(bookingRepository, slotManagerImpl);
-		inOrder.verify(bookingRepository).findActiveBookingsForClassroomByPeriod(classroomId, start, finish);
+		inOrder.verify(bookingRepository).findActiveBookingIntervalsForClassroomByPeriod(classroomId, start, finish);
 		inOrder.verify(slotManagerImpl).createEmptyCalendar(classroomId, start, finish);
 		inOrder.verify(slotManagerImpl).updateSlotsAvailability(mockSlots, mockBookings);
     }	
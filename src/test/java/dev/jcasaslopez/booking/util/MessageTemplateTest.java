@@ -0,0 +1,49 @@
+package dev.jcasaslopez.booking.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MessageTemplateTest {
+	
+	@Test
+	@DisplayName("appendTo() fills the placeholders in the order they are numbered")
+	void appendTo_WhenValuesGiven_ShouldFillPlaceholders() {
+		// Arrange
+		MessageTemplate template = MessageTemplate.compile("{1} before {0}, then {1} again");
+		
+		// Act
+		String rendered = template.appendTo(new StringBuilder("> "), "zero", "one").toString();
+		
+		// Assert
+		assertEquals("> one before zero, then one again", rendered);
+	}
+	
+	@Test
+	@DisplayName("appendTo() copies a template without placeholders as it is")
+	void appendTo_WhenNoPlaceholders_ShouldCopyText() {
+		// Act & Assert
+		assertEquals("Booking confirmed", MessageTemplate.compile("Booking confirmed")
+				.appendTo(new StringBuilder()).toString());
+	}
+	
+	@Test
+	@DisplayName("compile() rejects a placeholder that is not closed or not a number")
+	void compile_WhenInvalidPlaceholder_ShouldThrowException() {
+		// Act & Assert
+		assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Classroom {0"));
+		assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Classroom {name}"));
+	}
+	
+	@Test
+	@DisplayName("appendTo() rejects fewer values than the template needs")
+	void appendTo_WhenMissingValues_ShouldThrowException() {
+		// Arrange
+		MessageTemplate template = MessageTemplate.compile("{0} and {1}");
+		
+		// Act & Assert
+		assertThrows(IllegalArgumentException.class, () -> template.appendTo(new StringBuilder(), "only one"));
+	}
+}
@@ -0,0 +1,31 @@
+CREATE TABLE IF NOT EXISTS bookings (
+	idBooking BIGINT AUTO_INCREMENT PRIMARY KEY,
+	idClassroom INT NOT NULL,
+	idUser INT NOT NULL,
+	start TIMESTAMP,
+	finish TIMESTAMP,
+	timestamp TIMESTAMP,
+	comment VARCHAR(255),
+	status VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS replication_heartbeat (
+	id INT PRIMARY KEY,
+	beat TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS classrooms (
+	idClassroom INT PRIMARY KEY,
+	name VARCHAR(255),
+	seats INT NOT NULL,
+	projector BOOLEAN NOT NULL,
+	speakers BOOLEAN NOT NULL
+);
+
+-- Las aulas de ClassroomsList, que en producción llegarían a la réplica por replicación.
+-- The ClassroomsList classrooms, which in production would reach the replica through replication.
+MERGE INTO classrooms KEY (idClassroom) VALUES
+	(1, '101', 100, TRUE, TRUE),
+	(2, '102', 50, TRUE, FALSE),
+	(3, '103', 30, FALSE, TRUE),
+	(4, '104', 20, FALSE, FALSE);